@@ -9,7 +9,7 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 @Component
-@Profile("!test")
+@Profile("!test & !reactive")
 public class StartupLogger implements CommandLineRunner {
 
     @Autowired
@@ -18,7 +18,7 @@ public class StartupLogger implements CommandLineRunner {
     @Override
     public void run(String... args) {
         // Logging employees at Startup as instructed in README
-        List<Employee> employees = employeeService.getAllEmployees();
+        List<Employee> employees = employeeService.getAllEmployees().value();
 
         if (employees.isEmpty()) {
             System.out.println(
@@ -0,0 +1,180 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.client.ApiClientException;
+import com.reliaquest.api.client.EmployeeApiClient;
+import com.reliaquest.api.client.EmployeeChangeStreamReader;
+import com.reliaquest.api.model.EmployeeChange;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link EmployeeSnapshotCache} in step with the mock api by following its change feed, instead of
+ * reloading the whole roster every ttl.
+ * <ul>
+ *     <li>to start, and whenever it has fallen behind the mock api's change log, it takes the number of the mock
+ *     api's last change, reloads the roster and follows the feed from that number. Changes made during the reload
+ *     are then applied a second time, which leaves the roster as it was</li>
+ *     <li>each change is applied to the snapshot as a create or delete, and each change or heartbeat that leaves it
+ *     up to date revalidates the snapshot, so it's served for another ttl without a reload</li>
+ *     <li>if the stream ends or fails, it's reopened from the last change applied after a backoff that doubles on
+ *     every failure in a row</li>
+ * </ul>
+ * While the feed is down nothing revalidates the snapshot, and the cache goes back to reloading it after its ttl.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeChangeFeed implements EmployeeChangeStreamReader.Listener {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeChangeFeed.class);
+
+    private static final long RESYNC = -1;
+
+    private final EmployeeApiClient employeeApiClient;
+    private final EmployeeSnapshotCache snapshotCache;
+    private final boolean enabled;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+
+    private final LongAdder appliedChanges = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+
+    // only used on the feed thread
+    private long position = RESYNC;
+    private boolean received;
+
+    private volatile Thread thread;
+
+    public EmployeeChangeFeed(
+            EmployeeApiClient employeeApiClient,
+            EmployeeSnapshotCache snapshotCache,
+            @Value("${employee.cache.change-feed.enabled:false}") boolean enabled,
+            @Value("${employee.cache.change-feed.min-backoff:500ms}") Duration minBackoff,
+            @Value("${employee.cache.change-feed.max-backoff:30s}") Duration maxBackoff) {
+        this.employeeApiClient = employeeApiClient;
+        this.snapshotCache = snapshotCache;
+        this.enabled = enabled;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread feed = new Thread(this::run, "employee-change-feed");
+        feed.setDaemon(true);
+        thread = feed;
+        feed.start();
+    }
+
+    private void run() {
+        Duration backoff = minBackoff;
+        while (thread == Thread.currentThread()) {
+            received = false;
+            try {
+                follow();
+                logger.debug("Change feed ended at {}, reconnecting", position);
+            } catch (ApiClientException e) {
+                logger.warn("Change feed failed at {} with {}: {}", position, e.getStatusCode(), e.getMessage());
+            } catch (RuntimeException e) {
+                logger.warn("Change feed failed at {}", position, e);
+            }
+            backoff = received ? minBackoff : min(backoff.multipliedBy(2), maxBackoff);
+            try {
+                Thread.sleep(backoff.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Follows the feed until it ends, resyncing first if needed.
+     * A 410 from the mock api, or a gap in the change numbers, means the next call has to resync.
+     */
+    void follow() {
+        if (position == RESYNC) {
+            resync();
+        }
+        try {
+            employeeApiClient.followChanges(position, this);
+        } catch (ApiClientException e) {
+            if (e.getStatusCode() == 410) {
+                position = RESYNC;
+            }
+            throw e;
+        }
+    }
+
+    private void resync() {
+        long latest = employeeApiClient.getLatestChangeSequence();
+        EmployeeSnapshot snapshot = snapshotCache.reload();
+        position = latest;
+        resyncs.increment();
+        logger.info("Change feed resynced: snapshot v{} at change {}", snapshot.getVersion(), latest);
+    }
+
+    @Override
+    public void onChange(EmployeeChange change) {
+        received = true;
+        if (change.getSequence() <= position) {
+            return;
+        }
+        if (change.getSequence() != position + 1) {
+            logger.warn("Change feed skipped from {} to {}", position, change.getSequence());
+            position = RESYNC;
+            throw new ApiClientException("Change feed skipped changes", null, 410);
+        }
+        if (change.getType() == EmployeeChange.Type.CREATED) {
+            snapshotCache.applyCreate(change.getEmployee());
+        } else if (change.getType() == EmployeeChange.Type.DELETED && change.getEmployee() != null) {
+            snapshotCache.applyDelete(change.getEmployee().getId());
+        }
+        position = change.getSequence();
+        appliedChanges.increment();
+        snapshotCache.revalidate();
+    }
+
+    @Override
+    public void onHeartbeat(long sequence) {
+        received = true;
+        if (sequence == position) {
+            snapshotCache.revalidate();
+        }
+    }
+
+    /**
+     * The number of the last change applied, -1 until the first resync.
+     */
+    long getPosition() {
+        return position;
+    }
+
+    public long getAppliedChangeCount() {
+        return appliedChanges.sum();
+    }
+
+    public long getResyncCount() {
+        return resyncs.sum();
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    @PreDestroy
+    void stop() {
+        Thread feed = thread;
+        thread = null;
+        if (feed != null) {
+            feed.interrupt();
+        }
+    }
+}
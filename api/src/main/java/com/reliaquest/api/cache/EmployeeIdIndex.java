@@ -0,0 +1,88 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.model.Employee;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only hash index from employee id to position in a roster list.
+ * Open addressing with linear probing over parallel primitive arrays: each id is kept as its two longs, so an entry
+ * costs 20 bytes per slot instead of a UUID object plus a map node. The table is kept at most half full.
+ * Employees without an id aren't indexed; if an id appears twice the first position wins.
+ */
+final class EmployeeIdIndex {
+
+    private static final int EMPTY = -1;
+
+    private final long[] msb;
+    private final long[] lsb;
+    private final int[] positions;
+    private final int mask;
+
+    private EmployeeIdIndex(int capacity) {
+        this.msb = new long[capacity];
+        this.lsb = new long[capacity];
+        this.positions = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(positions, EMPTY);
+    }
+
+    static EmployeeIdIndex build(List<Employee> employees) {
+        EmployeeIdIndex index = new EmployeeIdIndex(capacityFor(employees.size()));
+        for (int i = 0; i < employees.size(); i++) {
+            UUID id = employees.get(i).getId();
+            if (id != null) {
+                index.insert(id.getMostSignificantBits(), id.getLeastSignificantBits(), i);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return position of the employee with this id, -1 if there is none
+     */
+    int indexOf(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        for (int slot = hash(high, low) & mask; ; slot = (slot + 1) & mask) {
+            int position = positions[slot];
+            if (position == EMPTY) {
+                return -1;
+            }
+            if (msb[slot] == high && lsb[slot] == low) {
+                return position;
+            }
+        }
+    }
+
+    private void insert(long high, long low, int position) {
+        int slot = hash(high, low) & mask;
+        while (positions[slot] != EMPTY) {
+            if (msb[slot] == high && lsb[slot] == low) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        msb[slot] = high;
+        lsb[slot] = low;
+        positions[slot] = position;
+    }
+
+    private static int capacityFor(int size) {
+        int capacity = 2;
+        while (capacity < size * 2L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long high, long low) {
+        // random UUIDs are already well spread, the mix keeps sequential or hand-made ids from clustering
+        long h = high ^ low;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
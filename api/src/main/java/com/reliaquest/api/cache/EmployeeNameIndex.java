@@ -0,0 +1,122 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.model.Employee;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Read-only trigram inverted index over lower-cased employee names, for case-insensitive substring search.
+ * Names are lower-cased once when the index is built. Every 3-char sequence of a name maps to the ascending
+ * positions of the names containing it. A query of 3+ chars intersects the posting lists of its trigrams, starting
+ * from the shortest, and verifies the remaining candidates with {@link String#contains}, so matches are exactly
+ * those of <code>name.toLowerCase().contains(query.toLowerCase())</code>. Shorter queries scan the lower-cased names.
+ */
+final class EmployeeNameIndex {
+
+    private final String[] lowerNames;
+    private final Map<Long, int[]> postings;
+
+    private EmployeeNameIndex(String[] lowerNames, Map<Long, int[]> postings) {
+        this.lowerNames = lowerNames;
+        this.postings = postings;
+    }
+
+    static EmployeeNameIndex build(List<Employee> employees) {
+        String[] lowerNames = new String[employees.size()];
+        Map<Long, Posting> building = new HashMap<>();
+        for (int i = 0; i < lowerNames.length; i++) {
+            String name = employees.get(i).getName();
+            if (name == null) {
+                continue;
+            }
+            lowerNames[i] = name.toLowerCase();
+            for (int start = 0; start + 3 <= lowerNames[i].length(); start++) {
+                building.computeIfAbsent(trigram(lowerNames[i], start), t -> new Posting())
+                        .add(i);
+            }
+        }
+        Map<Long, int[]> postings = new HashMap<>(building.size() * 2);
+        building.forEach((trigram, posting) -> postings.put(trigram, posting.toArray()));
+        return new EmployeeNameIndex(lowerNames, postings);
+    }
+
+    /**
+     * Calls the action with the ascending positions of the names that contain the lower-cased query.
+     */
+    void forEachMatch(String lowerQuery, IntConsumer action) {
+        if (lowerQuery.length() < 3) {
+            for (int i = 0; i < lowerNames.length; i++) {
+                if (lowerNames[i] != null && lowerNames[i].contains(lowerQuery)) {
+                    action.accept(i);
+                }
+            }
+            return;
+        }
+        int[][] lists = new int[lowerQuery.length() - 2][];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(trigram(lowerQuery, i));
+            if (lists[i] == null) {
+                return;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+        for (int candidate : candidates) {
+            if (lowerNames[candidate].contains(lowerQuery)) {
+                action.accept(candidate);
+            }
+        }
+    }
+
+    private static int[] intersect(int[] smaller, int[] larger) {
+        int[] result = new int[smaller.length];
+        int count = 0;
+        int from = 0;
+        for (int position : smaller) {
+            int found = Arrays.binarySearch(larger, from, larger.length, position);
+            if (found >= 0) {
+                result[count++] = position;
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+            if (from == larger.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Growable list of ascending positions, a trigram repeated within one name is added once.
+     */
+    private static final class Posting {
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+
+    private static long trigram(String s, int start) {
+        return ((long) s.charAt(start) << 32) | ((long) s.charAt(start + 1) << 16) | s.charAt(start + 2);
+    }
+}
@@ -0,0 +1,293 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.model.Employee;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable, versioned view of the employee roster as last fetched from the mock api.
+ * A snapshot is never modified after construction; writes produce a new snapshot with a higher version
+ * which {@link EmployeeSnapshotCache} swaps in atomically, so readers can use it without any locking.
+ * <p>
+ * The roster as loaded is the base, indexed by id ({@link EmployeeIdIndex}), name ({@link EmployeeNameIndex}) and
+ * salary once when the snapshot is built. Writes since then are kept as a small overlay (employees removed from the
+ * base, employees added after it) so a write doesn't copy or re-index the whole roster. Once the overlay grows past
+ * a fraction of the base, the next write folds it into a new base.
+ */
+public final class EmployeeSnapshot {
+
+    private static final int MIN_COMPACTION_THRESHOLD = 64;
+
+    private final long version;
+    private final long loadedAtNanos;
+
+    private final List<Employee> base;
+    private final EmployeeIdIndex idIndex;
+    private final EmployeeNameIndex nameIndex;
+    private final int[] bySalary;
+    private final BitSet removed;
+    private final int removedCount;
+    private final List<Employee> added;
+
+    private volatile List<Employee> employees;
+
+    private EmployeeSnapshot(
+            long version,
+            long loadedAtNanos,
+            List<Employee> base,
+            EmployeeIdIndex idIndex,
+            EmployeeNameIndex nameIndex,
+            int[] bySalary,
+            BitSet removed,
+            int removedCount,
+            List<Employee> added) {
+        this.version = version;
+        this.loadedAtNanos = loadedAtNanos;
+        this.base = base;
+        this.idIndex = idIndex;
+        this.nameIndex = nameIndex;
+        this.bySalary = bySalary;
+        this.removed = removed;
+        this.removedCount = removedCount;
+        this.added = added;
+        if (removedCount == 0 && added.isEmpty()) {
+            this.employees = base;
+        }
+    }
+
+    static EmployeeSnapshot of(long version, List<Employee> employees) {
+        return build(version, System.nanoTime(), employees);
+    }
+
+    private static EmployeeSnapshot build(long version, long loadedAtNanos, List<Employee> employees) {
+        List<Employee> base = Collections.unmodifiableList(new ArrayList<>(employees));
+        return new EmployeeSnapshot(
+                version,
+                loadedAtNanos,
+                base,
+                EmployeeIdIndex.build(base),
+                EmployeeNameIndex.build(base),
+                sortBySalary(base),
+                new BitSet(),
+                0,
+                List.of());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * The roster in load order, employees created since the load last.
+     */
+    public List<Employee> getEmployees() {
+        List<Employee> result = employees;
+        if (result == null) {
+            result = Collections.unmodifiableList(materialize());
+            employees = result;
+        }
+        return result;
+    }
+
+    public int size() {
+        return base.size() - removedCount + added.size();
+    }
+
+    /**
+     * Looks the id up in the index, without scanning the roster.
+     * @return the employee, or null if the snapshot has none with this id
+     */
+    public Employee findById(UUID id) {
+        if (id == null) {
+            return null;
+        }
+        int position = idIndex.indexOf(id);
+        if (position >= 0) {
+            return removed.get(position) ? null : base.get(position);
+        }
+        for (Employee employee : added) {
+            if (id.equals(employee.getId())) {
+                return employee;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Employees whose name contains the search string, ignoring case, in the same order as {@link #getEmployees()}.
+     * Same matches as <code>name.toLowerCase().contains(searchString.toLowerCase())</code> over the whole roster.
+     */
+    public List<Employee> searchByName(String searchString) {
+        String needle = searchString.toLowerCase();
+        List<Employee> result = new ArrayList<>();
+        nameIndex.forEachMatch(needle, position -> {
+            if (!removed.get(position)) {
+                result.add(base.get(position));
+            }
+        });
+        for (Employee employee : added) {
+            if (employee.getName() != null && employee.getName().toLowerCase().contains(needle)) {
+                result.add(employee);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Employees whose name equals the given name ignoring case, in roster order. That's how the mock api matches
+     * names when deleting by name, so the first one is the employee a delete by this name would remove.
+     */
+    public List<Employee> findByName(String name) {
+        List<Employee> result = new ArrayList<>(1);
+        for (Employee employee : searchByName(name)) {
+            if (employee.getName().equalsIgnoreCase(name)) {
+                result.add(employee);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the highest salary on the roster, 0 if the roster is empty
+     */
+    public int highestSalary() {
+        List<Employee> top = topEarners(1);
+        return top.isEmpty() ? 0 : top.get(0).getSalary();
+    }
+
+    /**
+     * Highest paid employees, highest salary first. Employees with the same salary keep their roster order, so the
+     * result is the same as stable-sorting {@link #getEmployees()} by salary. Employees without a salary are left out.
+     * Walks the base salary order, skipping removed employees, and merges in the employees added since the load.
+     */
+    public List<Employee> topEarners(int limit) {
+        List<Employee> addedBySalary = new ArrayList<>(added.size());
+        for (Employee employee : added) {
+            if (employee.getSalary() != null) {
+                addedBySalary.add(employee);
+            }
+        }
+        addedBySalary.sort(Comparator.comparing(Employee::getSalary).reversed());
+
+        List<Employee> result = new ArrayList<>(Math.min(limit, size()));
+        int i = 0;
+        int j = 0;
+        while (result.size() < limit) {
+            while (i < bySalary.length && removed.get(bySalary[i])) {
+                i++;
+            }
+            Employee fromBase = i < bySalary.length ? base.get(bySalary[i]) : null;
+            Employee fromAdded = j < addedBySalary.size() ? addedBySalary.get(j) : null;
+            if (fromBase == null && fromAdded == null) {
+                break;
+            }
+            // on equal salaries the base employee goes first, it comes first on the roster too
+            if (fromAdded == null || (fromBase != null && fromBase.getSalary() >= fromAdded.getSalary())) {
+                result.add(fromBase);
+                i++;
+            } else {
+                result.add(fromAdded);
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Time elapsed since the roster was loaded from upstream. Local writes don't reset the age,
+     * only a full reload or a {@link #revalidated()} does.
+     */
+    public Duration age() {
+        return Duration.ofNanos(System.nanoTime() - loadedAtNanos);
+    }
+
+    /**
+     * @return the same roster under the same version, aged as if it had just been loaded
+     */
+    EmployeeSnapshot revalidated() {
+        EmployeeSnapshot revalidated = new EmployeeSnapshot(
+                version, System.nanoTime(), base, idIndex, nameIndex, bySalary, removed, removedCount, added);
+        revalidated.employees = employees;
+        return revalidated;
+    }
+
+    EmployeeSnapshot withAdded(long newVersion, Employee employee) {
+        List<Employee> newAdded = new ArrayList<>(added.size() + 1);
+        newAdded.addAll(added);
+        newAdded.add(employee);
+        return next(newVersion, removed, removedCount, Collections.unmodifiableList(newAdded));
+    }
+
+    /**
+     * @return a snapshot without the employee, or this snapshot if it has no employee with this id
+     */
+    EmployeeSnapshot withRemoved(long newVersion, UUID id) {
+        int position = idIndex.indexOf(id);
+        if (position >= 0) {
+            if (removed.get(position)) {
+                return this;
+            }
+            BitSet newRemoved = (BitSet) removed.clone();
+            newRemoved.set(position);
+            return next(newVersion, newRemoved, removedCount + 1, added);
+        }
+        List<Employee> newAdded = new ArrayList<>(added.size());
+        for (Employee employee : added) {
+            if (!id.equals(employee.getId())) {
+                newAdded.add(employee);
+            }
+        }
+        if (newAdded.size() == added.size()) {
+            return this;
+        }
+        return next(newVersion, removed, removedCount, Collections.unmodifiableList(newAdded));
+    }
+
+    private EmployeeSnapshot next(long newVersion, BitSet newRemoved, int newRemovedCount, List<Employee> newAdded) {
+        EmployeeSnapshot next = new EmployeeSnapshot(
+                newVersion, loadedAtNanos, base, idIndex, nameIndex, bySalary, newRemoved, newRemovedCount, newAdded);
+        if (newRemovedCount + newAdded.size() > Math.max(MIN_COMPACTION_THRESHOLD, base.size() / 16)) {
+            return build(newVersion, loadedAtNanos, next.materialize());
+        }
+        return next;
+    }
+
+    /**
+     * Base positions of employees with a salary, highest salary first and ties in roster order.
+     * Sorts (salary, position) pairs packed into longs, so no boxing or comparator is needed.
+     */
+    private static int[] sortBySalary(List<Employee> base) {
+        long[] keys = new long[base.size()];
+        int count = 0;
+        for (int i = 0; i < base.size(); i++) {
+            Integer salary = base.get(i).getSalary();
+            if (salary != null) {
+                // 32 bits of inverted salary above 31 bits of position, always positive
+                keys[count++] = (((long) Integer.MAX_VALUE - salary) << 31) | i;
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = (int) (keys[i] & Integer.MAX_VALUE);
+        }
+        return positions;
+    }
+
+    private List<Employee> materialize() {
+        List<Employee> result = new ArrayList<>(size());
+        for (int i = 0; i < base.size(); i++) {
+            if (!removed.get(i)) {
+                result.add(base.get(i));
+            }
+        }
+        result.addAll(added);
+        return result;
+    }
+}
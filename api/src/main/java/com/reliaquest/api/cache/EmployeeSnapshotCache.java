@@ -0,0 +1,406 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.client.ApiClientException;
+import com.reliaquest.api.client.CircuitBreakerOpenException;
+import com.reliaquest.api.client.EmployeeApiClient;
+import com.reliaquest.api.common.CallDeadline;
+import com.reliaquest.api.model.Employee;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.random.RandomGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared in-memory cache of the employee roster.
+ * Reads are served from an immutable {@link EmployeeSnapshot} held in an {@link AtomicReference}, so they never block
+ * and never hit the mock api while the snapshot is fresh.
+ * <ul>
+ *     <li>age &lt; ttl: snapshot is served as is</li>
+ *     <li>age &lt; ttl + stale-while-revalidate: snapshot is served and a single background refresh is scheduled</li>
+ *     <li>otherwise (or no snapshot yet): the caller loads the roster inline, concurrent callers share that load</li>
+ * </ul>
+ * If an inline load fails (e.g. the mock api keeps answering 429) and the snapshot is younger than
+ * ttl + stale-if-error, the snapshot is served instead of the error. While the circuit for roster reads is open,
+ * see {@link com.reliaquest.api.client.CircuitBreaker}, the last snapshot is served however old it is.
+ * The load is shared, so it runs under no caller's {@link CallDeadline}: a caller with a deadline has it run in the
+ * background and waits for it until its deadline.
+ * <p>
+ * A reload that returns the very list the snapshot was built from, which {@link EmployeeApiClient} does when the
+ * mock api answers 304, keeps the snapshot and its version instead of indexing the roster again.
+ * <p>
+ * Creates and deletes are written through to the snapshot. One made while the roster is being loaded may be missing
+ * from what the load read, so those are kept and applied again to the loaded roster before it's installed.
+ * <p>
+ * Also remembers ids the mock api recently answered 404 for, so lookups of unknown ids don't go upstream every time.
+ * A ttl of zero disables caching, every read then goes to the mock api.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeSnapshotCache {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeSnapshotCache.class);
+
+    private static final int MAX_MISSING_IDS = 10_000;
+
+    private final EmployeeApiClient employeeApiClient;
+    private final Duration ttl;
+    private final Duration staleWhileRevalidate;
+    private final Duration staleIfError;
+    private final Duration missingIdTtl;
+
+    private final AtomicReference<EmployeeSnapshot> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<EmployeeSnapshot>> inFlight = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final Queue<Write> writesDuringLoad = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<UUID, Long> missingIds = new ConcurrentHashMap<>();
+    private final String epoch = Long.toHexString(RandomGenerator.getDefault().nextLong());
+
+    private volatile Loaded lastLoaded;
+
+    private volatile ExecutorService refresher;
+
+    public EmployeeSnapshotCache(
+            EmployeeApiClient employeeApiClient,
+            @Value("${employee.cache.ttl:30s}") Duration ttl,
+            @Value("${employee.cache.stale-while-revalidate:5m}") Duration staleWhileRevalidate,
+            @Value("${employee.cache.stale-if-error:1h}") Duration staleIfError,
+            @Value("${employee.cache.missing-id-ttl:5s}") Duration missingIdTtl) {
+        this.employeeApiClient = employeeApiClient;
+        this.ttl = ttl;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.staleIfError = staleIfError;
+        this.missingIdTtl = missingIdTtl;
+    }
+
+    /**
+     * Returns the current roster snapshot, loading it from the mock api if there is none or it is too old.
+     * @throws com.reliaquest.api.client.ApiClientException if the roster had to be loaded, the load failed
+     * and there's no snapshot young enough to fall back to
+     */
+    public EmployeeSnapshot get() {
+        Optional<EmployeeSnapshot> usable = getIfLoaded();
+        if (usable.isPresent()) {
+            return usable.get();
+        }
+        EmployeeSnapshot snapshot = current.get();
+        try {
+            return await(refresh(true));
+        } catch (RuntimeException e) {
+            boolean circuitOpen = e instanceof CircuitBreakerOpenException;
+            if (snapshot != null
+                    && !ttl.isZero()
+                    && (circuitOpen || snapshot.age().compareTo(ttl.plus(staleIfError)) < 0)) {
+                logger.warn(
+                        "Loading employees failed, serving stale snapshot v{} (age {}ms): {}",
+                        snapshot.getVersion(),
+                        snapshot.age().toMillis(),
+                        e.getMessage());
+                return snapshot;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the snapshot if {@link #get()} would serve it without loading the roster inline,
+     * a stale snapshot still triggers a background refresh.
+     */
+    public Optional<EmployeeSnapshot> getIfLoaded() {
+        EmployeeSnapshot snapshot = current.get();
+        if (snapshot == null || ttl.isZero()) {
+            return Optional.empty();
+        }
+        Duration age = snapshot.age();
+        if (age.compareTo(ttl) < 0) {
+            return Optional.of(snapshot);
+        }
+        if (age.compareTo(ttl.plus(staleWhileRevalidate)) < 0) {
+            logger.debug("Serving stale snapshot v{} (age {}ms), revalidating", snapshot.getVersion(), age.toMillis());
+            refresh(false);
+            return Optional.of(snapshot);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether rosters are cached at all, with a ttl of zero every read goes to the mock api.
+     */
+    public boolean isEnabled() {
+        return !ttl.isZero();
+    }
+
+    /**
+     * Whether the snapshot is past its ttl, i.e. served without knowing it's still what the mock api has.
+     */
+    public boolean isStale(EmployeeSnapshot snapshot) {
+        return snapshot.age().compareTo(ttl) >= 0;
+    }
+
+    /**
+     * Returns the current snapshot without ever going to the mock api.
+     */
+    public Optional<EmployeeSnapshot> peek() {
+        return Optional.ofNullable(current.get());
+    }
+
+    /**
+     * A weak ETag for a roster list this cache handed out, it changes whenever the roster does and across restarts.
+     * @return empty if the list isn't the current snapshot's, e.g. because a write has replaced it since
+     */
+    public Optional<String> etagOf(List<Employee> employees) {
+        EmployeeSnapshot snapshot = current.get();
+        if (snapshot == null || snapshot.getEmployees() != employees) {
+            return Optional.empty();
+        }
+        return Optional.of("W/\"" + epoch + "-" + snapshot.getVersion() + "\"");
+    }
+
+    /**
+     * Triggers a background reload of the roster. Returns the already running load if there is one.
+     */
+    public CompletableFuture<EmployeeSnapshot> refreshAsync() {
+        return refresh(false);
+    }
+
+    /**
+     * Whether the mock api answered 404 for this id within the last missing-id-ttl.
+     */
+    public boolean isKnownMissing(UUID id) {
+        Long expiresAtNanos = missingIds.get(id);
+        if (expiresAtNanos == null) {
+            return false;
+        }
+        if (System.nanoTime() - expiresAtNanos < 0) {
+            return true;
+        }
+        missingIds.remove(id, expiresAtNanos);
+        return false;
+    }
+
+    /**
+     * Records a 404 from the mock api. The map is simply cleared when it's full, entries are short-lived anyway.
+     */
+    public void rememberMissing(UUID id) {
+        if (missingIdTtl.isZero()) {
+            return;
+        }
+        if (missingIds.size() >= MAX_MISSING_IDS) {
+            missingIds.clear();
+        }
+        missingIds.put(id, System.nanoTime() + missingIdTtl.toNanos());
+    }
+
+    /**
+     * Reloads the roster inline. A load that was already running when this was called may have read the roster
+     * before the caller's last write, so it's waited for and a new one is started.
+     * @throws com.reliaquest.api.client.ApiClientException if the load failed
+     */
+    public EmployeeSnapshot reload() {
+        CompletableFuture<EmployeeSnapshot> running = inFlight.get();
+        if (running != null) {
+            await(running.handle((snapshot, error) -> null));
+        }
+        return await(refresh(true));
+    }
+
+    /**
+     * Marks the snapshot as up to date with the mock api, it's then served for another ttl without being reloaded.
+     * Used by {@link EmployeeChangeFeed}, which applies every change the mock api makes.
+     */
+    public void revalidate() {
+        current.updateAndGet(s -> s == null ? null : s.revalidated());
+    }
+
+    /**
+     * Write-through for an employee the mock api has just created. An employee already in the snapshot is replaced,
+     * so applying the same create twice leaves a single copy.
+     */
+    public void applyCreate(Employee employee) {
+        if (employee == null || employee.getId() == null) {
+            return;
+        }
+        missingIds.remove(employee.getId());
+        EmployeeSnapshot updated = applyWrite(s -> {
+            long version = versions.incrementAndGet();
+            return s.withRemoved(version, employee.getId()).withAdded(version, employee);
+        });
+        if (updated != null) {
+            logger.debug("Applied create of {} to snapshot v{}", employee.getId(), updated.getVersion());
+        }
+    }
+
+    /**
+     * Write-through for an employee the mock api has just deleted.
+     */
+    public void applyDelete(UUID id) {
+        if (id == null) {
+            return;
+        }
+        EmployeeSnapshot updated = applyWrite(s -> s.withRemoved(versions.incrementAndGet(), id));
+        if (updated != null) {
+            logger.debug("Applied delete of {} to snapshot v{}", id, updated.getVersion());
+        }
+    }
+
+    /**
+     * Applies the write to the current snapshot, and keeps it to be applied again to the roster being loaded, if any.
+     * It's kept before it's applied: a load either finds it kept, or installs before it's applied and then the write
+     * is applied on top of what the load installed.
+     */
+    private EmployeeSnapshot applyWrite(UnaryOperator<EmployeeSnapshot> change) {
+        long sequence = writes.incrementAndGet();
+        if (inFlight.get() != null) {
+            writesDuringLoad.add(new Write(sequence, change));
+        }
+        return current.updateAndGet(s -> s == null ? null : change.apply(s));
+    }
+
+    private CompletableFuture<EmployeeSnapshot> refresh(boolean inline) {
+        CompletableFuture<EmployeeSnapshot> pending = new CompletableFuture<>();
+        CompletableFuture<EmployeeSnapshot> running = inFlight.compareAndExchange(null, pending);
+        if (running != null) {
+            return running;
+        }
+        Runnable load = () -> {
+            try {
+                long writesBefore = writes.get();
+                pending.complete(install(employeeApiClient.getAllEmployees(), writesBefore));
+            } catch (Throwable t) {
+                logger.warn("Refreshing employee snapshot failed: {}", t.getMessage());
+                pending.completeExceptionally(t);
+            } finally {
+                inFlight.set(null);
+            }
+        };
+        if (inline && CallDeadline.current() == Long.MAX_VALUE) {
+            load.run();
+        } else {
+            refresher().execute(load);
+        }
+        return pending;
+    }
+
+    /**
+     * Installs the loaded roster, with the writes made since the load started applied to it again. The mock api
+     * may or may not have included them in what it returned, applying a create or a delete twice changes nothing.
+     */
+    private EmployeeSnapshot install(List<Employee> employees, long writesBefore) {
+        Loaded loaded = lastLoaded;
+        EmployeeSnapshot previous = current.get();
+        if (loaded != null
+                && previous != null
+                && loaded.employees() == employees
+                && loaded.version() == previous.getVersion()) {
+            EmployeeSnapshot revalidated = previous.revalidated();
+            if (current.compareAndSet(previous, revalidated)) {
+                logger.debug("Roster unchanged, keeping snapshot v{}", revalidated.getVersion());
+                return revalidated;
+            }
+        }
+        EmployeeSnapshot loadedSnapshot = EmployeeSnapshot.of(versions.incrementAndGet(), employees);
+        while (true) {
+            EmployeeSnapshot replaced = current.get();
+            EmployeeSnapshot snapshot = loadedSnapshot;
+            long replayed = writesBefore;
+            int count = 0;
+            for (Write write : writesDuringLoad) {
+                if (write.sequence() > writesBefore) {
+                    snapshot = write.change().apply(snapshot);
+                    replayed = Math.max(replayed, write.sequence());
+                    count++;
+                }
+            }
+            // A write applied to the replaced snapshot since it was read is kept, so it's replayed on the next try
+            if (current.compareAndSet(replaced, snapshot)) {
+                long applied = replayed;
+                writesDuringLoad.removeIf(write -> write.sequence() <= applied);
+                lastLoaded = new Loaded(employees, loadedSnapshot.getVersion());
+                logger.debug(
+                        "Installed snapshot v{} with {} employees, {} writes applied again",
+                        snapshot.getVersion(),
+                        snapshot.getEmployees().size(),
+                        count);
+                return snapshot;
+            }
+        }
+    }
+
+    private ExecutorService refresher() {
+        ExecutorService executor = refresher;
+        if (executor == null) {
+            synchronized (this) {
+                executor = refresher;
+                if (executor == null) {
+                    executor = Executors.newSingleThreadExecutor(r -> {
+                        Thread thread = new Thread(r, "employee-snapshot-refresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    refresher = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * A create or delete written through while a load was running, numbered in the order they were made.
+     */
+    private record Write(long sequence, UnaryOperator<EmployeeSnapshot> change) {}
+
+    /**
+     * The list the last snapshot was built from, and that snapshot's version.
+     */
+    private record Loaded(List<Employee> employees, long version) {}
+
+    /**
+     * Waits for a load until the caller's deadline, the load carries on for anyone else waiting on it.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        long deadlineNanos = CallDeadline.current();
+        try {
+            if (deadlineNanos == Long.MAX_VALUE) {
+                return future.get();
+            }
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ApiClientException("Unexpected error loading employees", e.getCause(), 500);
+        } catch (TimeoutException e) {
+            throw new ApiClientException("Deadline passed waiting for employees to load", null, 504);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiClientException("Interrupted waiting for employees to load", e, 500);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ExecutorService executor = refresher;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
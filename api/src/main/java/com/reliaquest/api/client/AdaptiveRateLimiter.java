@@ -0,0 +1,184 @@
+package com.reliaquest.api.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Client side model of the mock api's rate limit, learned from the 429s it sends.
+ * The mock api accepts a fixed number of requests, then rejects everything until a backoff window has passed since
+ * the last accepted request, and sends no Retry-After. So:
+ * <ul>
+ *     <li>budget: requests accepted in a row before the first 429</li>
+ *     <li>window: time from the last accepted request before a run of 429s to the first accepted one after it</li>
+ * </ul>
+ * Outgoing calls take a token from a bucket holding budget tokens. The bucket refills once the window has passed,
+ * which is when the mock api resets its own counter, so once both are learned calls are held back locally instead of
+ * being sent and rejected. Reads leave a reserve of tokens untouched so creates and deletes still get through when
+ * the budget runs low; reads are cacheable, writes aren't.
+ * <p>
+ * While blocked, a single probe call is let through per probe interval to find out when the window has ended.
+ * Until the first 429 nothing is known and nothing is held back.
+ */
+public class AdaptiveRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveRateLimiter.class);
+
+    public enum Priority {
+        READ,
+        WRITE
+    }
+
+    private final boolean enabled;
+    private final long probeIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    private int budget;
+    private long windowNanos;
+    private int tokens;
+    private int acceptedInWindow;
+    private long lastAcceptedNanos;
+    private boolean blocked;
+    private boolean probing;
+    private long nextProbeNanos;
+
+    private final LongAdder deniedReads = new LongAdder();
+    private final LongAdder deniedWrites = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveRateLimiter(Duration probeInterval) {
+        this(true, probeInterval, System::nanoTime);
+    }
+
+    AdaptiveRateLimiter(boolean enabled, Duration probeInterval, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.probeIntervalNanos = probeInterval.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Limiter that never holds a call back.
+     */
+    public static AdaptiveRateLimiter disabled() {
+        return new AdaptiveRateLimiter(false, Duration.ZERO, System::nanoTime);
+    }
+
+    /**
+     * Asks for permission to send a call.
+     * @return 0 if the call may be sent, otherwise roughly how long until it might be allowed, in nanoseconds
+     */
+    public synchronized long acquire(Priority priority) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        if (blocked) {
+            long wait = nextProbeNanos - now;
+            if (wait > 0) {
+                return deny(priority, wait);
+            }
+            nextProbeNanos = now + probeIntervalNanos;
+            probing = true;
+            logger.debug("Probing mock api rate limit with a {} call", priority);
+            return 0;
+        }
+        if (budget == 0) {
+            return 0;
+        }
+        int reserve = priority == Priority.WRITE ? 0 : writeReserve();
+        if (tokens > reserve) {
+            tokens--;
+            return 0;
+        }
+        long windowEnd = windowNanos > 0 ? lastAcceptedNanos + windowNanos : now + probeIntervalNanos;
+        if (tokens == 0) {
+            logger.debug("Mock api budget of {} spent, holding calls back", budget);
+            blocked = true;
+            nextProbeNanos = windowEnd;
+        }
+        return deny(priority, Math.max(windowEnd - now, 1));
+    }
+
+    /**
+     * The mock api accepted the call, i.e. answered with anything but 429.
+     * Only a probe ends a blocked period, calls that were already in flight when it started don't.
+     */
+    public synchronized void onAccepted() {
+        if (!enabled) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        if (blocked && probing) {
+            if (lastAcceptedNanos != 0) {
+                long observed = now - lastAcceptedNanos;
+                windowNanos = windowNanos == 0 ? observed : (windowNanos + observed) / 2;
+                logger.info("Mock api rate limit window is about {}ms", windowNanos / 1_000_000);
+            }
+            blocked = false;
+            probing = false;
+            acceptedInWindow = 0;
+            // the probe that got through opened a new window and used its first token
+            tokens = Math.max(budget - 1, 0);
+        }
+        acceptedInWindow++;
+        lastAcceptedNanos = now;
+    }
+
+    /**
+     * The mock api rejected the call with 429.
+     */
+    public synchronized void onRejected() {
+        if (!enabled) {
+            return;
+        }
+        rejected.increment();
+        long now = nanoClock.getAsLong();
+        if (!blocked) {
+            if (acceptedInWindow > 0) {
+                budget = acceptedInWindow;
+                logger.info("Mock api rate limit budget is about {} calls", budget);
+            }
+            blocked = true;
+            tokens = 0;
+        }
+        long windowEnd = windowNanos > 0 ? lastAcceptedNanos + windowNanos : 0;
+        nextProbeNanos = Math.max(windowEnd, now + probeIntervalNanos);
+    }
+
+    /**
+     * Tokens reads must leave for writes: a quarter of the budget, at least one but never the whole budget.
+     */
+    private int writeReserve() {
+        return Math.min(budget - 1, Math.max(1, budget / 4));
+    }
+
+    private long deny(Priority priority, long waitNanos) {
+        (priority == Priority.WRITE ? deniedWrites : deniedReads).increment();
+        return waitNanos;
+    }
+
+    public synchronized int getBudget() {
+        return budget;
+    }
+
+    public synchronized Duration getWindow() {
+        return Duration.ofNanos(windowNanos);
+    }
+
+    public synchronized int getTokens() {
+        return blocked ? 0 : tokens;
+    }
+
+    public synchronized boolean isBlocked() {
+        return blocked;
+    }
+
+    public long getDeniedCount(Priority priority) {
+        return (priority == Priority.WRITE ? deniedWrites : deniedReads).sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
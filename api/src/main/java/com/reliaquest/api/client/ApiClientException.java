@@ -1,15 +1,30 @@
 package com.reliaquest.api.client;
 
+import java.time.Duration;
+
 public class ApiClientException extends RuntimeException {
 
     private final int statusCode;
+    private final Duration retryAfter;
 
     public ApiClientException(String message, Throwable cause, int statusCode) {
+        this(message, cause, statusCode, null);
+    }
+
+    public ApiClientException(String message, Throwable cause, int statusCode, Duration retryAfter) {
         super(message, cause);
         this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
     }
 
     public int getStatusCode() {
         return statusCode;
     }
+
+    /**
+     * Delay the mock api asked for via Retry-After, null if it didn't send one.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
 }
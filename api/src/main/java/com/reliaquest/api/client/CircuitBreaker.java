@@ -0,0 +1,173 @@
+package com.reliaquest.api.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stops calling the mock api for an operation it keeps failing.
+ * <ul>
+ *     <li>closed: calls go through, failureThreshold failures in a row open the circuit</li>
+ *     <li>open: calls fail straight away with {@link CircuitBreakerOpenException}, no request is sent</li>
+ *     <li>half-open: once openDuration has passed, up to halfOpenProbes calls are let through; the first to
+ *     succeed closes the circuit, one failing opens it again for another openDuration</li>
+ * </ul>
+ * Failures are {@link ApiClientException}s with a 5xx status: 5xx answers, timeouts, and calls that didn't get an
+ * answer at all. Any other answer, a 404 say, shows the mock api is up. 429s count as neither, the rate limiter deals
+ * with those, and so do other exceptions, which come from the caller's own code rather than the mock api.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String operation;
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    // guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private int probes;
+
+    public CircuitBreaker(String operation, int failureThreshold, Duration openDuration, int halfOpenProbes) {
+        this(operation, true, failureThreshold, openDuration, halfOpenProbes);
+    }
+
+    private CircuitBreaker(
+            String operation, boolean enabled, int failureThreshold, Duration openDuration, int halfOpenProbes) {
+        this.operation = operation;
+        this.enabled = enabled;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    }
+
+    /**
+     * Breaker that never opens, calls always go through.
+     */
+    public static CircuitBreaker disabled(String operation) {
+        return new CircuitBreaker(operation, false, 1, Duration.ZERO, 1);
+    }
+
+    /**
+     * Runs the call unless the circuit is open, and records how the mock api answered it.
+     * @throws CircuitBreakerOpenException if the call wasn't let through
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        boolean probe = acquire();
+        try {
+            T result = call.get();
+            onSuccess(probe);
+            return result;
+        } catch (ApiClientException e) {
+            if (e.getStatusCode() == TOO_MANY_REQUESTS) {
+                release(probe);
+            } else if (e.getStatusCode() >= 500) {
+                onFailure(probe);
+            } else {
+                onSuccess(probe);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            release(probe);
+            throw e;
+        }
+    }
+
+    /**
+     * @return whether the call is a half-open probe
+     */
+    private synchronized boolean acquire() {
+        if (state == State.OPEN) {
+            long waitNanos = openedAtNanos + openNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                rejected.increment();
+                throw new CircuitBreakerOpenException(operation, Duration.ofNanos(waitNanos));
+            }
+            logger.info("Circuit for {} half-open, probing the mock api", operation);
+            state = State.HALF_OPEN;
+            probes = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probes >= halfOpenProbes) {
+                rejected.increment();
+                throw new CircuitBreakerOpenException(operation, Duration.ZERO);
+            }
+            probes++;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void onSuccess(boolean probe) {
+        if (state == State.HALF_OPEN && probe) {
+            logger.info("Circuit for {} closed, mock api answered again", operation);
+            state = State.CLOSED;
+        }
+        if (state == State.CLOSED) {
+            consecutiveFailures = 0;
+        }
+    }
+
+    private synchronized void onFailure(boolean probe) {
+        if (state == State.HALF_OPEN && probe) {
+            open();
+        } else if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    private synchronized void release(boolean probe) {
+        if (state == State.HALF_OPEN && probe) {
+            probes--;
+        }
+    }
+
+    private void open() {
+        logger.warn("Circuit for {} open, not calling the mock api for {}ms", operation, openNanos / 1_000_000);
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        consecutiveFailures = 0;
+        opened.increment();
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Number of calls failed without calling the mock api.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Number of times the circuit has opened.
+     */
+    public long getOpenedCount() {
+        return opened.sum();
+    }
+}
@@ -0,0 +1,14 @@
+package com.reliaquest.api.client;
+
+import java.time.Duration;
+
+/**
+ * A call that wasn't sent because the mock api has been failing it, see {@link CircuitBreaker}.
+ * Answered as 503, with the time until the circuit lets a call through again as its retry-after.
+ */
+public class CircuitBreakerOpenException extends ApiClientException {
+
+    public CircuitBreakerOpenException(String operation, Duration retryAfter) {
+        super("Mock api is failing " + operation + " calls, not calling it", null, 503, retryAfter);
+    }
+}
@@ -1,142 +1,607 @@
 package com.reliaquest.api.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.client.AdaptiveRateLimiter.Priority;
+import com.reliaquest.api.common.CallDeadline;
 import com.reliaquest.api.common.CommonObjectMapper;
 import com.reliaquest.api.common.CommonRestTemplate;
 import com.reliaquest.api.model.CreateEmployeeDTO;
 import com.reliaquest.api.model.Employee;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @Component
+@Profile("!reactive")
 public class EmployeeApiClient {
     private static final Logger logger = LoggerFactory.getLogger(EmployeeApiClient.class);
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String CHANGE_SEQUENCE_HEADER = "X-Change-Sequence";
+
     @Value("${mock.api.url}")
     private String mockApiUrl;
 
     private final RestTemplate restTemplate = CommonRestTemplate.getRestTemplate();
     private final ObjectMapper objectMapper = CommonObjectMapper.getObjectMapper();
+    private final EmployeeEnvelopeReader envelopeReader = new EmployeeEnvelopeReader(objectMapper);
+    private final EmployeeChangeStreamReader changeStreamReader = new EmployeeChangeStreamReader(objectMapper);
+    private RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    // Retry for Rate-limiting responses from mock api, see RetryScheduler
+    @Value("${rest.template.use.retry.for.429:false}")
+    private boolean useRetry;
+
+    @Value("${rest.template.retry.max-retries:2}")
+    private int maxRetries;
+
+    @Value("${rest.template.retry.base-delay:500ms}")
+    private Duration retryBaseDelay;
+
+    @Value("${rest.template.retry.max-delay:2s}")
+    private Duration retryMaxDelay;
+
+    @Value("${rest.template.retry.max-pending:64}")
+    private int maxPendingRetries;
+
+    @Value("${rest.template.retry.deadline:3s}")
+    private Duration retryDeadline = Duration.ofSeconds(3);
+
+    private RetryScheduler retryScheduler = RetryScheduler.disabled();
+
+    // Paces calls to the mock api's rate limit, see AdaptiveRateLimiter
+    @Value("${rest.template.rate-limit.enabled:false}")
+    private boolean useRateLimit;
+
+    @Value("${rest.template.rate-limit.probe-interval:1s}")
+    private Duration rateLimitProbeInterval;
+
+    private AdaptiveRateLimiter rateLimiter = AdaptiveRateLimiter.disabled();
+
+    // Employees per page when reading the roster, 0 reads it in a single response
+    @Value("${rest.template.page-size:0}")
+    private int pageSize;
+
+    // Has the mock api compute max salary, top earners and name search, see pushdown()
+    @Value("${rest.template.pushdown.enabled:false}")
+    private boolean usePushdown;
+
+    @Value("${rest.template.pushdown.recheck-interval:5m}")
+    private Duration pushdownRecheckInterval;
+
+    private final Map<String, Long> pushdownUnsupportedUntil = new ConcurrentHashMap<>();
+
+    // Sends concurrent creates and deletes to the mock api's batch endpoints, see WriteBatcher
+    @Value("${rest.template.write-batch.enabled:false}")
+    private boolean useWriteBatch;
+
+    @Value("${rest.template.write-batch.window:10ms}")
+    private Duration writeBatchWindow;
+
+    @Value("${rest.template.write-batch.max-size:100}")
+    private int writeBatchMaxSize;
+
+    // Time a call may take, retries included, unless the incoming request's deadline is sooner, see CallDeadline
+    @Value("${rest.template.deadline.read:3s}")
+    private Duration readDeadline = Duration.ofSeconds(3);
+
+    @Value("${rest.template.deadline.roster:10s}")
+    private Duration rosterDeadline = Duration.ofSeconds(10);
+
+    @Value("${rest.template.deadline.write:5s}")
+    private Duration writeDeadline = Duration.ofSeconds(5);
+
+    // Sends a slow roster or by-id read a second time, see RequestHedger
+    @Value("${rest.template.hedge.enabled:false}")
+    private boolean useHedging;
+
+    @Value("${rest.template.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${rest.template.hedge.min-samples:20}")
+    private int hedgeMinSamples;
+
+    @Value("${rest.template.hedge.max-ratio:0.05}")
+    private double hedgeMaxRatio;
+
+    private RequestHedger requestHedger = RequestHedger.disabled();
 
+    // Fails calls straight away while the mock api keeps failing them, per operation, see CircuitBreaker
+    @Value("${rest.template.circuit-breaker.enabled:false}")
+    private boolean useCircuitBreaker;
+
+    @Value("${rest.template.circuit-breaker.failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    @Value("${rest.template.circuit-breaker.open-duration:10s}")
+    private Duration circuitOpenDuration;
+
+    @Value("${rest.template.circuit-breaker.half-open-probes:1}")
+    private int circuitHalfOpenProbes;
+
+    private CircuitBreaker rosterBreaker = CircuitBreaker.disabled("roster");
+    private CircuitBreaker idBreaker = CircuitBreaker.disabled("id");
+    private CircuitBreaker queryBreaker = CircuitBreaker.disabled("query");
+    private CircuitBreaker createBreaker = CircuitBreaker.disabled("create");
+    private CircuitBreaker deleteBreaker = CircuitBreaker.disabled("delete");
+
+    // Retries, hedges and batched writes run on virtual threads too when request handling does
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private WriteBatcher<CreateEmployeeDTO, Employee> createBatcher;
+    private WriteBatcher<String, Boolean> deleteBatcher;
+
+    private volatile ValidatedRoster lastRoster;
+    private final LongAdder notModifiedCount = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        requestCoalescer = new RequestCoalescer(virtualThreads);
+        if (useRetry) {
+            retryScheduler = new RetryScheduler(
+                    maxRetries, retryBaseDelay, retryMaxDelay, maxPendingRetries, retryDeadline, virtualThreads);
+        }
+        if (useRateLimit) {
+            rateLimiter = new AdaptiveRateLimiter(rateLimitProbeInterval);
+        }
+        if (useHedging) {
+            requestHedger = new RequestHedger(hedgePercentile, hedgeMinSamples, hedgeMaxRatio, virtualThreads);
+        }
+        if (useCircuitBreaker) {
+            rosterBreaker = circuitBreaker("roster");
+            idBreaker = circuitBreaker("id");
+            queryBreaker = circuitBreaker("query");
+            createBreaker = circuitBreaker("create");
+            deleteBreaker = circuitBreaker("delete");
+        }
+        if (useWriteBatch) {
+            createBatcher = new WriteBatcher<>(
+                    "create",
+                    writeBatchWindow,
+                    writeBatchMaxSize,
+                    input -> withDeadline(
+                            writeDeadline, () -> guarded(createBreaker, Priority.WRITE, () -> postEmployee(input))),
+                    inputs -> withDeadline(
+                            writeDeadline, () -> guarded(createBreaker, Priority.WRITE, () -> postEmployees(inputs))),
+                    virtualThreads);
+            deleteBatcher = new WriteBatcher<>(
+                    "delete",
+                    writeBatchWindow,
+                    writeBatchMaxSize,
+                    name -> withDeadline(
+                            writeDeadline,
+                            () -> guarded(deleteBreaker, Priority.WRITE, () -> deleteByName(name) != null)),
+                    names -> withDeadline(
+                            writeDeadline, () -> guarded(deleteBreaker, Priority.WRITE, () -> deleteByNames(names))),
+                    virtualThreads);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        requestCoalescer.shutdown();
+        retryScheduler.shutdown();
+        requestHedger.shutdown();
+        if (createBatcher != null) {
+            createBatcher.shutdown();
+            deleteBatcher.shutdown();
+        }
+    }
+
+    /**
+     * Concurrent callers share a single in-flight request, see {@link RequestCoalescer}. The shared request only has
+     * the roster deadline, each caller waits for it until its own {@link CallDeadline}.
+     * The roster is fetched with the ETag of the last one read in If-None-Match, if the mock api answers 304 the
+     * last roster is returned again, the very same list, without transferring or parsing it. Pages aren't validated.
+     * Read in one response, the roster may be requested a second time if it's slow to arrive, see
+     * {@link RequestHedger}.
+     */
     public List<Employee> getAllEmployees() {
+        if (pageSize > 0) {
+            return requestCoalescer.execute("all", () -> streamAllEmployees().toList());
+        }
+        return requestCoalescer.execute(
+                "all",
+                () -> withDeadline(
+                        rosterDeadline,
+                        () -> requestHedger.execute(
+                                "all", () -> guarded(rosterBreaker, Priority.READ, this::fetchAllEmployees))));
+    }
+
+    /**
+     * Concurrent callers for the same id share a single in-flight request, see {@link RequestCoalescer}.
+     * A slow answer may be requested a second time, see {@link RequestHedger}.
+     */
+    public Employee getEmployeeById(String id) {
+        return requestCoalescer.execute(
+                "id:" + id,
+                () -> withDeadline(
+                        readDeadline,
+                        () -> requestHedger.execute(
+                                "id", () -> guarded(idBreaker, Priority.READ, () -> fetchEmployeeById(id)))));
+    }
+
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    public RetryScheduler getRetryScheduler() {
+        return retryScheduler;
+    }
+
+    public AdaptiveRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public RequestHedger getRequestHedger() {
+        return requestHedger;
+    }
+
+    public List<CircuitBreaker> getCircuitBreakers() {
+        return List.of(rosterBreaker, idBreaker, queryBreaker, createBreaker, deleteBreaker);
+    }
+
+    /**
+     * @return null unless write batching is enabled
+     */
+    public WriteBatcher<CreateEmployeeDTO, Employee> getCreateBatcher() {
+        return createBatcher;
+    }
+
+    /**
+     * @return null unless write batching is enabled
+     */
+    public WriteBatcher<String, Boolean> getDeleteBatcher() {
+        return deleteBatcher;
+    }
+
+    /**
+     * Number of roster reads the mock api answered 304, reusing the last roster.
+     */
+    public long getNotModifiedCount() {
+        return notModifiedCount.sum();
+    }
+
+    private List<Employee> fetchAllEmployees() {
+        ValidatedRoster cached = lastRoster;
+        String ifNoneMatch = cached == null ? null : cached.etag();
+        logger.debug("Fetching all employees from {}, if none match {}", mockApiUrl, ifNoneMatch);
+        try {
+            return execute(HttpMethod.GET, URI.create(mockApiUrl), null, ifNoneMatch, response -> {
+                if (response.getStatusCode().value() == 304 && cached != null) {
+                    logger.debug(
+                            "Employees not modified, reusing {} employees",
+                            cached.employees().size());
+                    notModifiedCount.increment();
+                    return cached.employees();
+                }
+                List<Employee> employees = new ArrayList<>();
+                envelopeReader.read(response.getBody(), envelopeReader.employees(employees::add));
+                List<Employee> result = Collections.unmodifiableList(employees);
+                String etag = response.getHeaders().getETag();
+                lastRoster = etag == null ? null : new ValidatedRoster(etag, result);
+                logger.debug("Fetched {} employees", result.size());
+                return result;
+            });
+
+        } catch (Exception e) {
+            throw translate("fetching all employees", e);
+        }
+    }
+
+    /**
+     * Streams the roster: each employee is handed to the consumer as soon as it's parsed from the response,
+     * the full list is never materialized. Returns the number of employees read.
+     * An exception thrown by the consumer stops the stream and is rethrown as is.
+     */
+    public int forEachEmployee(Consumer<Employee> consumer) {
+        if (pageSize > 0) {
+            int[] count = {0};
+            streamAllEmployees().forEach(employee -> {
+                consumer.accept(employee);
+                count[0]++;
+            });
+            return count[0];
+        }
+        return withDeadline(
+                rosterDeadline, () -> guarded(rosterBreaker, Priority.READ, () -> streamEmployees(consumer)));
+    }
+
+    /**
+     * The roster as a lazy stream. With a page size set, pages are fetched one at a time as the stream is consumed,
+     * the next one only once the previous is used up, so at most one page is held in memory however large the
+     * roster. Each page is a call of its own to the mock api, rate limited and retried like any other.
+     * Without a page size the roster is read in one response.
+     */
+    public Stream<Employee> streamAllEmployees() {
+        if (pageSize <= 0) {
+            return getAllEmployees().stream();
+        }
+        return StreamSupport.stream(new PageSpliterator(), false);
+    }
+
+    /**
+     * Highest salary as computed by the mock api, empty if it can't be pushed down, see {@link #pushdown}.
+     */
+    public Optional<Integer> getHighestSalary() {
+        return pushdown("max-salary", queryUrl("max-salary").build().toUri(), envelopeReader.integer());
+    }
+
+    /**
+     * The n highest paid employees as computed by the mock api, empty if it can't be pushed down.
+     */
+    public Optional<List<Employee>> getTopEarners(int n) {
+        return pushdown("top", queryUrl("top").queryParam("n", n).build().toUri(), employeeList());
+    }
+
+    /**
+     * Employees whose name contains the search string as found by the mock api, empty if it can't be pushed down.
+     */
+    public Optional<List<Employee>> searchEmployeesByName(String searchString) {
+        // expanded as a variable, so it's fully encoded: a literal + would reach the mock api as a space
+        URI url = queryUrl("search")
+                .queryParam("q", "{q}")
+                .buildAndExpand(searchString)
+                .toUri();
+        return pushdown("search", url, employeeList());
+    }
+
+    private UriComponentsBuilder queryUrl(String query) {
+        return UriComponentsBuilder.fromHttpUrl(mockApiUrl).pathSegment(query).encode();
+    }
+
+    private EmployeeEnvelopeReader.DataReader<List<Employee>> employeeList() {
+        return parser -> {
+            List<Employee> employees = new ArrayList<>();
+            envelopeReader.employees(employees::add).read(parser);
+            return Collections.unmodifiableList(employees);
+        };
+    }
+
+    /**
+     * Runs a query on the mock api, so only its result is transferred rather than the whole roster.
+     * Empty means the caller should compute the answer from the roster itself: pushdown is disabled, the call was
+     * rate limited, timed out or not sent because its circuit is open, or the mock api doesn't support the query.
+     * Older mock apis answer unknown queries with an error, so after any other failure the query isn't tried again
+     * until the recheck interval has passed.
+     */
+    private <T> Optional<T> pushdown(String query, URI url, EmployeeEnvelopeReader.DataReader<T> dataReader) {
+        if (!usePushdown) {
+            return Optional.empty();
+        }
+        Long unsupportedUntil = pushdownUnsupportedUntil.get(query);
+        if (unsupportedUntil != null && System.nanoTime() - unsupportedUntil < 0) {
+            return Optional.empty();
+        }
+        try {
+            T result = requestCoalescer.execute(
+                    "query:" + url,
+                    () -> withDeadline(
+                            readDeadline,
+                            () -> guarded(queryBreaker, Priority.READ, () -> fetchQuery(url, dataReader))));
+            pushdownUnsupportedUntil.remove(query);
+            return Optional.ofNullable(result);
+        } catch (ApiClientException e) {
+            if (e.getStatusCode() != 429 && e.getStatusCode() != 504 && !(e instanceof CircuitBreakerOpenException)) {
+                logger.warn(
+                        "Mock api failed {} with {}, computing it locally for the next {}",
+                        query,
+                        e.getStatusCode(),
+                        pushdownRecheckInterval);
+                pushdownUnsupportedUntil.put(query, System.nanoTime() + pushdownRecheckInterval.toNanos());
+            }
+            return Optional.empty();
+        }
+    }
+
+    private <T> T fetchQuery(URI url, EmployeeEnvelopeReader.DataReader<T> dataReader) {
+        logger.debug("Querying {}", url);
+        try {
+            return exchange(HttpMethod.GET, url, null, dataReader);
+
+        } catch (Exception e) {
+            throw translate("querying employees", e);
+        }
+    }
+
+    private int streamEmployees(Consumer<Employee> consumer) {
         logger.debug("Fetching all employees from {}", mockApiUrl);
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(mockApiUrl, Map.class);
-            Map<String, Object> body = (Map<String, Object>) response.getBody();
-            Object dataObj = body.get("data");
-            if (dataObj == null) {
+            Consumer<Employee> caller = employee -> {
+                try {
+                    consumer.accept(employee);
+                } catch (RuntimeException e) {
+                    throw new ConsumerException(e);
+                }
+            };
+            Integer count = exchange(HttpMethod.GET, URI.create(mockApiUrl), null, envelopeReader.employees(caller));
+            if (count == null) {
                 logger.debug("No employees found in response");
-                return Collections.emptyList();
+                return 0;
             }
-            List<Employee> employees = ((List<?>) dataObj)
-                    .stream()
-                            .map(item -> {
-                                if (item instanceof Map) {
-                                    return objectMapper.convertValue(item, Employee.class);
-                                } else {
-                                    logger.error("Item is not a Map: {}", item);
-                                    return null;
-                                }
-                            })
-                            .filter(e -> e != null)
-                            .collect(Collectors.toList());
-            logger.debug("Fetched {} employees", employees.size());
-            return employees;
+            logger.debug("Fetched {} employees", count);
+            return count;
 
-        } catch (HttpClientErrorException e) {
-            logger.error("Client error fetching all employees: {}", e.getStatusCode());
-            throw new ApiClientException(
-                    "Client error fetching all employees", e, e.getStatusCode().value());
-        } catch (HttpServerErrorException e) {
-            logger.error("Server error fetching all employees: {}", e.getStatusCode());
-            throw new ApiClientException(
-                    "Server error fetching all employees", e, e.getStatusCode().value());
+        } catch (ConsumerException e) {
+            throw e.failure;
         } catch (Exception e) {
-            logger.error("Unexpected error fetching all employees", e);
-            throw new ApiClientException("Unexpected error fetching all employees", e, 500);
+            throw translate("fetching all employees", e);
         }
     }
 
-    public Employee getEmployeeById(String id) {
+    private EmployeePage fetchPage(String cursor) {
+        logger.debug("Fetching employees page after {} from {}", cursor, mockApiUrl);
+        try {
+            URI url = UriComponentsBuilder.fromHttpUrl(mockApiUrl)
+                    .queryParam("limit", pageSize)
+                    .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                    .encode()
+                    .build()
+                    .toUri();
+            return execute(HttpMethod.GET, url, null, response -> {
+                List<Employee> employees = new ArrayList<>();
+                envelopeReader.read(response.getBody(), envelopeReader.employees(employees::add));
+                return new EmployeePage(employees, response.getHeaders().getFirst(NEXT_CURSOR_HEADER));
+            });
+
+        } catch (Exception e) {
+            throw translate("fetching employees page", e);
+        }
+    }
+
+    private Employee fetchEmployeeById(String id) {
         logger.debug("Fetching employee by ID: {}", id);
         try {
-            String url = mockApiUrl + "/" + id;
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            Map<String, Object> body = (Map<String, Object>) response.getBody();
-            Object dataObj = body.get("data");
-            if (dataObj == null) {
+            URI url = UriComponentsBuilder.fromHttpUrl(mockApiUrl)
+                    .pathSegment(id)
+                    .encode()
+                    .build()
+                    .toUri();
+            Employee employee = exchange(HttpMethod.GET, url, null, envelopeReader.employee());
+            if (employee == null) {
                 logger.debug("No employee found for ID: {}", id);
                 throw new ApiClientException("Employee not found", null, 404);
             }
-            Employee employee = objectMapper.convertValue(dataObj, Employee.class);
             logger.debug("Fetched employee: {}", employee);
             return employee;
 
-        } catch (HttpClientErrorException e) {
-            logger.error("Client error fetching employee by ID: {} - {}", id, e.getStatusCode());
-            throw new ApiClientException(
-                    "Client error fetching employee by ID", e, e.getStatusCode().value());
-        } catch (HttpServerErrorException e) {
-            logger.error("Server error fetching employee by ID: {} - {}", id, e.getStatusCode());
-            throw new ApiClientException(
-                    "Server error fetching employee by ID", e, e.getStatusCode().value());
-        } catch (ApiClientException e) {
-            throw e;
         } catch (Exception e) {
-            logger.error("Unexpected error fetching employee by ID: {}", id, e);
-            throw new ApiClientException("Unexpected error fetching employee by ID", e, 500);
+            throw translate("fetching employee by ID", e);
+        }
+    }
+
+    /**
+     * The number of the last change the mock api has made, to follow its change feed from.
+     */
+    public long getLatestChangeSequence() {
+        return limited(Priority.READ, this::fetchLatestChangeSequence);
+    }
+
+    /**
+     * Follows the mock api's change feed from the given change number, passing each event to the listener as it
+     * arrives. Blocks until the mock api ends the stream.
+     * @throws ApiClientException 410 if the mock api no longer has the changes since then
+     */
+    public void followChanges(long since, EmployeeChangeStreamReader.Listener listener) {
+        limited(Priority.READ, () -> streamChanges(since, listener));
+    }
+
+    private long fetchLatestChangeSequence() {
+        try {
+            URI url = UriComponentsBuilder.fromHttpUrl(mockApiUrl)
+                    .pathSegment("changes")
+                    .build()
+                    .toUri();
+            String sequence = execute(
+                    HttpMethod.GET, url, null, response -> response.getHeaders().getFirst(CHANGE_SEQUENCE_HEADER));
+            if (sequence == null) {
+                throw new ApiClientException("Mock api has no change feed", null, 404);
+            }
+            return Long.parseLong(sequence);
+
+        } catch (Exception e) {
+            throw translate("fetching change sequence", e);
+        }
+    }
+
+    private Void streamChanges(long since, EmployeeChangeStreamReader.Listener listener) {
+        logger.debug("Following mock api changes since {}", since);
+        try {
+            URI url = UriComponentsBuilder.fromHttpUrl(mockApiUrl)
+                    .pathSegment("changes", "stream")
+                    .queryParam("since", since)
+                    .build()
+                    .toUri();
+            return restTemplate.execute(
+                    url,
+                    HttpMethod.GET,
+                    request -> request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM)),
+                    response -> {
+                        changeStreamReader.read(response.getBody(), listener);
+                        return null;
+                    });
+
+        } catch (Exception e) {
+            throw translate("following changes", e);
         }
     }
 
+    /**
+     * With write batching enabled, the create is sent along with concurrent ones in a single request.
+     */
     public Employee createEmployee(CreateEmployeeDTO employeeInput) {
+        if (createBatcher != null) {
+            return createBatcher.execute(employeeInput);
+        }
+        return withDeadline(
+                writeDeadline, () -> guarded(createBreaker, Priority.WRITE, () -> postEmployee(employeeInput)));
+    }
+
+    private Employee postEmployee(CreateEmployeeDTO employeeInput) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<CreateEmployeeDTO> request = new HttpEntity<>(employeeInput, headers);
-            ResponseEntity<Map> response = restTemplate.postForEntity(mockApiUrl, request, Map.class);
-            Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
-            Object dataObj = responseBody.get("data");
-            if (dataObj == null) throw new ApiClientException("Failed to create employee", null, 400);
-            Employee employee = objectMapper.convertValue(dataObj, Employee.class);
+            Employee employee =
+                    exchange(HttpMethod.POST, URI.create(mockApiUrl), employeeInput, envelopeReader.employee());
+            if (employee == null) throw new ApiClientException("Failed to create employee", null, 400);
             logger.debug("Created employee: {}", employee);
             return employee;
 
-        } catch (HttpClientErrorException e) {
-            logger.error("Client error creating employee: {}", e.getStatusCode());
-            throw new ApiClientException(
-                    "Client error creating employee", e, e.getStatusCode().value());
-        } catch (HttpServerErrorException e) {
-            logger.error("Server error creating employee: {}", e.getStatusCode());
-            throw new ApiClientException(
-                    "Server error creating employee", e, e.getStatusCode().value());
-        } catch (ApiClientException e) {
-            throw e;
         } catch (Exception e) {
-            logger.error("Unexpected error creating employee", e);
-            throw new ApiClientException("Unexpected error creating employee", e, 500);
+            throw translate("creating employee", e);
         }
     }
 
+    /**
+     * With write batching enabled, the delete is sent along with concurrent ones in a single request.
+     */
     public String deleteEmployeeByName(String name) {
+        if (deleteBatcher != null) {
+            if (Boolean.TRUE.equals(deleteBatcher.execute(name))) {
+                return name;
+            }
+            logger.error("Failed to delete employee with name: {}", name);
+            throw new ApiClientException("Failed to delete employee", null, 500);
+        }
+        return withDeadline(writeDeadline, () -> guarded(deleteBreaker, Priority.WRITE, () -> deleteByName(name)));
+    }
+
+    private String deleteByName(String name) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            Map<String, Object> body = Map.of("name", name);
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-            ResponseEntity<Map> response = restTemplate.exchange(mockApiUrl, HttpMethod.DELETE, request, Map.class);
-            Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
-            Object dataObj = responseBody != null ? responseBody.get("data") : null;
-            if (dataObj != null && Boolean.TRUE.equals(dataObj)) {
+            Boolean deleted =
+                    exchange(HttpMethod.DELETE, URI.create(mockApiUrl), Map.of("name", name), envelopeReader.bool());
+            if (Boolean.TRUE.equals(deleted)) {
                 logger.debug("Successfully deleted employee with name: {}", name);
                 return name;
             } else {
@@ -144,19 +609,242 @@ public class EmployeeApiClient {
                 throw new ApiClientException("Failed to delete employee", null, 500);
             }
 
-        } catch (HttpClientErrorException e) {
-            logger.error("Client error deleting employee: {} - {}", name, e.getStatusCode());
-            throw new ApiClientException(
-                    "Client error deleting employee", e, e.getStatusCode().value());
-        } catch (HttpServerErrorException e) {
-            logger.error("Server error deleting employee: {} - {}", name, e.getStatusCode());
-            throw new ApiClientException(
-                    "Server error deleting employee", e, e.getStatusCode().value());
+        } catch (Exception e) {
+            throw translate("deleting employee", e);
+        }
+    }
+
+    private List<Employee> postEmployees(List<CreateEmployeeDTO> employeeInputs) {
+        try {
+            URI url = UriComponentsBuilder.fromHttpUrl(mockApiUrl)
+                    .pathSegment("batch")
+                    .build()
+                    .toUri();
+            List<Employee> employees =
+                    exchange(HttpMethod.POST, url, Map.of("employees", employeeInputs), employeeList());
+            logger.debug("Created {} employees in one batch", employees == null ? 0 : employees.size());
+            return employees;
+
+        } catch (Exception e) {
+            throw translate("creating employees", e);
+        }
+    }
+
+    /**
+     * @return for each name, in order, whether an employee was deleted
+     */
+    private List<Boolean> deleteByNames(List<String> names) {
+        try {
+            URI url = UriComponentsBuilder.fromHttpUrl(mockApiUrl)
+                    .pathSegment("batch")
+                    .build()
+                    .toUri();
+            List<Boolean> deleted = exchange(HttpMethod.DELETE, url, Map.of("names", names), envelopeReader.bools());
+            logger.debug("Deleted {} employees in one batch", names.size());
+            return deleted;
+
+        } catch (Exception e) {
+            throw translate("deleting employees", e);
+        }
+    }
+
+    /**
+     * Sends the call only if the operation's circuit is closed, see {@link CircuitBreaker}, and the rate limiter
+     * allows it.
+     */
+    private <T> T guarded(CircuitBreaker breaker, Priority priority, Supplier<T> call) {
+        return breaker.execute(() -> limited(priority, call));
+    }
+
+    private CircuitBreaker circuitBreaker(String operation) {
+        return new CircuitBreaker(operation, circuitFailureThreshold, circuitOpenDuration, circuitHalfOpenProbes);
+    }
+
+    /**
+     * Sends the call only if the rate limiter allows it, and tells the rate limiter how the mock api answered.
+     * A call held back locally fails with 429 and a Retry-After of when it might be allowed,
+     * so the retry scheduler can decide whether that's within the call's deadline.
+     */
+    private <T> T limited(Priority priority, Supplier<T> call) {
+        long waitNanos = rateLimiter.acquire(priority);
+        if (waitNanos > 0) {
+            logger.debug("Holding back {} call, mock api budget spent", priority);
+            throw new ApiClientException("Mock api rate limit reached", null, 429, Duration.ofNanos(waitNanos));
+        }
+        try {
+            T result = call.get();
+            rateLimiter.onAccepted();
+            return result;
         } catch (ApiClientException e) {
+            if (e.getStatusCode() == 429) {
+                rateLimiter.onRejected();
+            } else {
+                rateLimiter.onAccepted();
+            }
             throw e;
-        } catch (Exception e) {
-            logger.error("Unexpected error deleting employee: {}", name, e);
-            throw new ApiClientException("Unexpected error deleting employee", e, 500);
+        }
+    }
+
+    /**
+     * Runs the call, retrying 429s, within budget or the current deadline if that's sooner. Every request the call
+     * sends times out by then, see {@link CallDeadline}.
+     */
+    private <T> T withDeadline(Duration budget, Supplier<T> call) {
+        long deadlineNanos = CallDeadline.after(budget);
+        long retryDeadlineNanos = Math.min(deadlineNanos, System.nanoTime() + retryDeadline.toNanos());
+        return retryScheduler.execute(() -> CallDeadline.within(deadlineNanos, call), retryDeadlineNanos);
+    }
+
+    /**
+     * What a failed call to the mock api is surfaced as, the operation reads e.g. "creating employee".
+     */
+    private static ApiClientException translate(String operation, Exception e) {
+        if (e instanceof ApiClientException apiClientException) {
+            return apiClientException;
+        }
+        if (e instanceof HttpClientErrorException clientError) {
+            logger.error("Client error {}: {}", operation, clientError.getStatusCode());
+            return new ApiClientException(
+                    "Client error " + operation,
+                    e,
+                    clientError.getStatusCode().value(),
+                    retryAfter(clientError.getResponseHeaders()));
+        }
+        if (e instanceof HttpServerErrorException serverError) {
+            logger.error("Server error {}: {}", operation, serverError.getStatusCode());
+            return new ApiClientException(
+                    "Server error " + operation, e, serverError.getStatusCode().value());
+        }
+        logger.error("Unexpected error {}", operation, e);
+        return new ApiClientException("Unexpected error " + operation, e, 500);
+    }
+
+    /**
+     * Parses Retry-After as either delay-seconds or an HTTP-date, null if missing or invalid.
+     */
+    static Duration retryAfter(HttpHeaders headers) {
+        String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                Duration delay = Duration.between(
+                        ZonedDateTime.now(), ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException notDate) {
+                logger.debug("Ignoring invalid Retry-After: {}", value);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Single request/response path shared by all calls: the request body (if any) is written as JSON and
+     * the response envelope is parsed from the stream by {@link EmployeeEnvelopeReader}.
+     */
+    private <T> T exchange(
+            HttpMethod method, URI url, Object requestBody, EmployeeEnvelopeReader.DataReader<T> dataReader) {
+        return execute(method, url, requestBody, response -> envelopeReader.read(response.getBody(), dataReader));
+    }
+
+    private <T> T execute(HttpMethod method, URI url, Object requestBody, ResponseExtractor<T> responseExtractor) {
+        return execute(method, url, requestBody, null, responseExtractor);
+    }
+
+    private <T> T execute(
+            HttpMethod method,
+            URI url,
+            Object requestBody,
+            String ifNoneMatch,
+            ResponseExtractor<T> responseExtractor) {
+        Duration remaining = CallDeadline.remaining();
+        if (remaining != null && remaining.isZero()) {
+            throw new ApiClientException("Deadline passed before calling the mock api", null, 504);
+        }
+        try {
+            return restTemplate.execute(
+                    url,
+                    method,
+                    request -> {
+                        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                        if (ifNoneMatch != null) {
+                            request.getHeaders().setIfNoneMatch(ifNoneMatch);
+                        }
+                        if (requestBody != null) {
+                            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                            request.getBody().write(objectMapper.writeValueAsBytes(requestBody));
+                        }
+                    },
+                    responseExtractor);
+        } catch (ResourceAccessException e) {
+            if (e.getCause() instanceof InterruptedIOException) {
+                throw new ApiClientException("Mock api didn't answer in time", e, 504);
+            }
+            throw e;
+        }
+    }
+
+    private record EmployeePage(List<Employee> employees, String nextCursor) {}
+
+    /**
+     * Carries an exception thrown by the caller's consumer out of the response extractor unchanged, so it isn't
+     * taken for a failure of the mock api.
+     */
+    private static final class ConsumerException extends RuntimeException {
+        private final RuntimeException failure;
+
+        ConsumerException(RuntimeException failure) {
+            super(failure);
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * The last roster read in full and the ETag it came with.
+     */
+    private record ValidatedRoster(String etag, List<Employee> employees) {}
+
+    /**
+     * Walks the roster page by page, fetching a page only when the previous one has been consumed.
+     */
+    private final class PageSpliterator implements Spliterator<Employee> {
+        private Iterator<Employee> page = Collections.emptyIterator();
+        private String nextCursor;
+        private boolean lastPage;
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Employee> action) {
+            while (!page.hasNext()) {
+                if (lastPage) {
+                    return false;
+                }
+                String cursor = nextCursor;
+                EmployeePage next = withDeadline(
+                        rosterDeadline, () -> guarded(rosterBreaker, Priority.READ, () -> fetchPage(cursor)));
+                page = next.employees().iterator();
+                nextCursor = next.nextCursor();
+                lastPage = nextCursor == null;
+            }
+            action.accept(page.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<Employee> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
         }
     }
 }
@@ -0,0 +1,153 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.client.AdaptiveRateLimiter.Priority;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes {@link EmployeeApiClient} internals to the actuator metrics endpoint,
+ * e.g. /actuator/metrics/employee.api.upstream.calls?tag=result:coalesced
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeApiClientMetrics implements MeterBinder {
+
+    private final EmployeeApiClient employeeApiClient;
+
+    public EmployeeApiClientMetrics(EmployeeApiClient employeeApiClient) {
+        this.employeeApiClient = employeeApiClient;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        RequestCoalescer coalescer = employeeApiClient.getRequestCoalescer();
+        if (coalescer != null) {
+            FunctionCounter.builder("employee.api.upstream.calls", coalescer, RequestCoalescer::getExecutedCount)
+                    .description("Read calls sent to the mock api")
+                    .tag("result", "executed")
+                    .register(registry);
+            FunctionCounter.builder("employee.api.upstream.calls", coalescer, RequestCoalescer::getCoalescedCount)
+                    .description("Read calls served by joining an identical in-flight call")
+                    .tag("result", "coalesced")
+                    .register(registry);
+            Gauge.builder("employee.api.upstream.in.flight", coalescer, RequestCoalescer::getInFlightCount)
+                    .description("Distinct read calls currently in flight")
+                    .register(registry);
+        }
+        FunctionCounter.builder(
+                        "employee.api.upstream.not.modified", employeeApiClient, EmployeeApiClient::getNotModifiedCount)
+                .description("Roster reads answered 304 by the mock api, reusing the last roster")
+                .register(registry);
+        RetryScheduler retryScheduler = employeeApiClient.getRetryScheduler();
+        if (retryScheduler != null) {
+            bindRetries(registry, retryScheduler);
+        }
+        AdaptiveRateLimiter rateLimiter = employeeApiClient.getRateLimiter();
+        if (rateLimiter != null) {
+            bindRateLimit(registry, rateLimiter);
+        }
+        RequestHedger requestHedger = employeeApiClient.getRequestHedger();
+        if (requestHedger != null) {
+            bindHedges(registry, requestHedger);
+        }
+        for (CircuitBreaker breaker : employeeApiClient.getCircuitBreakers()) {
+            bindCircuitBreaker(registry, breaker);
+        }
+        if (employeeApiClient.getCreateBatcher() != null) {
+            bindWriteBatches(registry, "create", employeeApiClient.getCreateBatcher());
+        }
+        if (employeeApiClient.getDeleteBatcher() != null) {
+            bindWriteBatches(registry, "delete", employeeApiClient.getDeleteBatcher());
+        }
+    }
+
+    private static void bindWriteBatches(MeterRegistry registry, String operation, WriteBatcher<?, ?> batcher) {
+        FunctionCounter.builder("employee.api.write.batches", batcher, WriteBatcher::getFlushedBatchCount)
+                .description("Write requests sent to the mock api, each carrying one or more writes")
+                .tag("operation", operation)
+                .register(registry);
+        FunctionCounter.builder("employee.api.write.batched", batcher, WriteBatcher::getFlushedWriteCount)
+                .description("Writes sent to the mock api in batches")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private static void bindCircuitBreaker(MeterRegistry registry, CircuitBreaker breaker) {
+        Gauge.builder("employee.api.circuit.state", breaker, b -> b.getState().ordinal())
+                .description("Circuit state: 0 closed, 1 open, 2 half-open")
+                .tag("operation", breaker.getOperation())
+                .register(registry);
+        FunctionCounter.builder("employee.api.circuit.opened", breaker, CircuitBreaker::getOpenedCount)
+                .description("Times the circuit opened after the mock api kept failing calls")
+                .tag("operation", breaker.getOperation())
+                .register(registry);
+        FunctionCounter.builder("employee.api.circuit.rejected", breaker, CircuitBreaker::getRejectedCount)
+                .description("Calls failed straight away without calling the mock api")
+                .tag("operation", breaker.getOperation())
+                .register(registry);
+    }
+
+    private static void bindHedges(MeterRegistry registry, RequestHedger requestHedger) {
+        FunctionCounter.builder("employee.api.hedges", requestHedger, RequestHedger::getSentCount)
+                .description("Reads sent a second time because the first was slower than usual")
+                .tag("outcome", "sent")
+                .register(registry);
+        FunctionCounter.builder("employee.api.hedges", requestHedger, RequestHedger::getWonCount)
+                .description("Hedged reads the second request answered first")
+                .tag("outcome", "won")
+                .register(registry);
+    }
+
+    private static void bindRateLimit(MeterRegistry registry, AdaptiveRateLimiter rateLimiter) {
+        Gauge.builder("employee.api.rate.limit.budget", rateLimiter, AdaptiveRateLimiter::getBudget)
+                .description("Learned number of calls the mock api accepts per window, 0 until the first 429")
+                .register(registry);
+        Gauge.builder(
+                        "employee.api.rate.limit.window",
+                        rateLimiter,
+                        r -> r.getWindow().toMillis() / 1000.0)
+                .description("Learned mock api backoff window, 0 until it has been observed")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("employee.api.rate.limit.tokens", rateLimiter, AdaptiveRateLimiter::getTokens)
+                .description("Calls left in the current window")
+                .register(registry);
+        FunctionCounter.builder("employee.api.rate.limit.denied", rateLimiter, r -> r.getDeniedCount(Priority.READ))
+                .description("Calls held back locally")
+                .tag("priority", "read")
+                .register(registry);
+        FunctionCounter.builder("employee.api.rate.limit.denied", rateLimiter, r -> r.getDeniedCount(Priority.WRITE))
+                .description("Calls held back locally")
+                .tag("priority", "write")
+                .register(registry);
+        FunctionCounter.builder("employee.api.rate.limit.rejected", rateLimiter, AdaptiveRateLimiter::getRejectedCount)
+                .description("Calls the mock api rejected with 429")
+                .register(registry);
+    }
+
+    private static void bindRetries(MeterRegistry registry, RetryScheduler retryScheduler) {
+        FunctionCounter.builder("employee.api.retries", retryScheduler, RetryScheduler::getScheduledCount)
+                .description("Retries scheduled after a 429")
+                .tag("outcome", "scheduled")
+                .register(registry);
+        FunctionCounter.builder("employee.api.retries", retryScheduler, RetryScheduler::getShedCount)
+                .description("Retries dropped because the retry queue was full")
+                .tag("outcome", "shed")
+                .register(registry);
+        FunctionCounter.builder("employee.api.retries", retryScheduler, RetryScheduler::getExhaustedCount)
+                .description("Calls that gave up after their last retry")
+                .tag("outcome", "exhausted")
+                .register(registry);
+        FunctionCounter.builder("employee.api.retries", retryScheduler, RetryScheduler::getDeadlineExceededCount)
+                .description("Calls that gave up because the next retry would miss their deadline")
+                .tag("outcome", "deadline")
+                .register(registry);
+        Gauge.builder("employee.api.retries.pending", retryScheduler, RetryScheduler::getPendingCount)
+                .description("Retries waiting for their backoff to elapse")
+                .register(registry);
+    }
+}
@@ -0,0 +1,77 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.reliaquest.api.model.EmployeeChange;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the mock api's change feed, a Server-Sent Events stream, line by line as it arrives.
+ * <ul>
+ *     <li><code>change</code>: data is one {@link EmployeeChange} as JSON</li>
+ *     <li><code>heartbeat</code>: data is the number of the last change sent, the stream is idle but up to date</li>
+ *     <li><code>resync</code>: the changes asked for are no longer kept, fails with 410 and the roster has to be
+ *     read again</li>
+ * </ul>
+ * Comments and events of any other type are skipped.
+ */
+public class EmployeeChangeStreamReader {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeChangeStreamReader.class);
+
+    private final ObjectReader changeReader;
+
+    public EmployeeChangeStreamReader(ObjectMapper objectMapper) {
+        this.changeReader = objectMapper.readerFor(EmployeeChange.class);
+    }
+
+    /**
+     * Passes each event to the listener as soon as it has been read, until the stream ends.
+     */
+    public void read(InputStream body, Listener listener) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String event = null;
+        StringBuilder data = new StringBuilder();
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isEmpty()) {
+                if (!data.isEmpty()) {
+                    dispatch(event == null ? "message" : event, data.toString(), listener);
+                }
+                event = null;
+                data.setLength(0);
+            } else if (line.startsWith("event:")) {
+                event = value(line, "event:");
+            } else if (line.startsWith("data:")) {
+                if (!data.isEmpty()) {
+                    data.append('\n');
+                }
+                data.append(value(line, "data:"));
+            }
+        }
+    }
+
+    private void dispatch(String event, String data, Listener listener) throws IOException {
+        switch (event) {
+            case "change" -> listener.onChange(changeReader.readValue(data));
+            case "heartbeat" -> listener.onHeartbeat(Long.parseLong(data.trim()));
+            case "resync" -> throw new ApiClientException("Mock api change log has moved past " + data, null, 410);
+            default -> logger.debug("Skipping change feed event {}", event);
+        }
+    }
+
+    private static String value(String line, String field) {
+        String value = line.substring(field.length());
+        return value.startsWith(" ") ? value.substring(1) : value;
+    }
+
+    public interface Listener {
+        void onChange(EmployeeChange change);
+
+        void onHeartbeat(long sequence);
+    }
+}
@@ -0,0 +1,150 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.reliaquest.api.model.Employee;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the mock api response envelope <code>{"data": ..., "status": ..., "error": ...}</code> straight from the
+ * response stream with a Jackson {@link JsonParser}.
+ * Only the <code>data</code> value is bound, everything else is skipped token by token, so no intermediate
+ * Map/List tree is built. Employees in a <code>data</code> array are bound one at a time and handed over as soon as
+ * each one is parsed.
+ */
+public class EmployeeEnvelopeReader {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeEnvelopeReader.class);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader employeeReader;
+
+    public EmployeeEnvelopeReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.employeeReader = objectMapper.readerFor(Employee.class);
+    }
+
+    /**
+     * Binds the value of <code>data</code>.
+     * @return whatever the data reader returned, or null if <code>data</code> is missing or null
+     */
+    public <T> T read(InputStream body, DataReader<T> dataReader) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected response envelope object");
+            }
+            T result = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value != JsonToken.VALUE_NULL) {
+                    result = dataReader.read(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new JsonParseException(parser, "Unexpected end of response envelope");
+            }
+            return result;
+        }
+    }
+
+    /**
+     * <code>data</code> is an array of employees, each one is passed to the consumer as soon as it's parsed.
+     * Array items that aren't objects are logged and skipped. Returns the number of employees read.
+     */
+    public DataReader<Integer> employees(Consumer<Employee> consumer) {
+        return parser -> {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected employee array");
+            }
+            int count = 0;
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Unexpected end of employee array");
+                }
+                if (token == JsonToken.START_OBJECT) {
+                    consumer.accept(employeeReader.readValue(parser));
+                    count++;
+                } else {
+                    logger.error("Item is not an object: {}", token);
+                    parser.skipChildren();
+                }
+            }
+            return count;
+        };
+    }
+
+    /**
+     * <code>data</code> is a single employee object.
+     */
+    public DataReader<Employee> employee() {
+        return parser -> {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected employee object");
+            }
+            return employeeReader.readValue(parser);
+        };
+    }
+
+    /**
+     * <code>data</code> is a boolean.
+     */
+    public DataReader<Boolean> bool() {
+        return parser -> {
+            if (!parser.currentToken().isBoolean()) {
+                throw new JsonParseException(parser, "Expected boolean");
+            }
+            return parser.getBooleanValue();
+        };
+    }
+
+    /**
+     * <code>data</code> is an array of booleans.
+     */
+    public DataReader<List<Boolean>> bools() {
+        return parser -> {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected boolean array");
+            }
+            List<Boolean> values = new ArrayList<>();
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null || !token.isBoolean()) {
+                    throw new JsonParseException(parser, "Expected boolean");
+                }
+                values.add(parser.getBooleanValue());
+            }
+            return values;
+        };
+    }
+
+    /**
+     * <code>data</code> is an integer.
+     */
+    public DataReader<Integer> integer() {
+        return parser -> {
+            if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+                throw new JsonParseException(parser, "Expected integer");
+            }
+            return parser.getIntValue();
+        };
+    }
+
+    /**
+     * Binds the <code>data</code> value. Called with the parser on the first token of the value,
+     * must leave the parser on the last token of the value.
+     */
+    @FunctionalInterface
+    public interface DataReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+}
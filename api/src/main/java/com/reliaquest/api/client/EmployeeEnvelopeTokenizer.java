@@ -0,0 +1,110 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.reliaquest.api.model.Employee;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeEnvelopeReader#employees}: the response envelope is fed in chunks as they
+ * arrive, and each call returns the employees of the <code>data</code> array completed by that chunk. Nothing waits
+ * for more input, so it can run on an event loop, and no more than one employee's tokens are held at a time.
+ * Array items that aren't objects are logged and skipped. One instance reads one response.
+ */
+public class EmployeeEnvelopeTokenizer {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeEnvelopeTokenizer.class);
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private int depth;
+    private boolean dataField;
+    private boolean inData;
+    private TokenBuffer employee;
+
+    public EmployeeEnvelopeTokenizer(ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * @return the employees completed by this chunk, in order
+     */
+    public List<Employee> feed(byte[] bytes, int offset, int length) throws IOException {
+        feeder.feedInput(bytes, offset, offset + length);
+        return drain();
+    }
+
+    /**
+     * Called once all of the response has been fed.
+     * @return the employees completed by the end of input
+     */
+    public List<Employee> endOfInput() throws IOException {
+        feeder.endOfInput();
+        List<Employee> employees = drain();
+        if (depth != 0) {
+            throw new JsonParseException(parser, "Unexpected end of response envelope");
+        }
+        return employees;
+    }
+
+    private List<Employee> drain() throws IOException {
+        List<Employee> employees = new ArrayList<>();
+        for (JsonToken token = parser.nextToken();
+                token != null && token != JsonToken.NOT_AVAILABLE;
+                token = parser.nextToken()) {
+            if (depth == 0 && token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected response envelope object");
+            }
+            if (employee != null) {
+                employee.copyCurrentEvent(parser);
+            }
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> {
+                    depth++;
+                    if (dataField && depth == 2) {
+                        inData = token == JsonToken.START_ARRAY;
+                        if (!inData) {
+                            throw new JsonParseException(parser, "Expected employee array");
+                        }
+                    } else if (inData && depth == 3) {
+                        if (token == JsonToken.START_OBJECT) {
+                            employee = new TokenBuffer(parser, null);
+                            employee.copyCurrentEvent(parser);
+                        } else {
+                            logger.error("Item is not an object: {}", token);
+                        }
+                    }
+                    dataField = false;
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    depth--;
+                    if (employee != null && depth == 2) {
+                        employees.add(objectMapper.readValue(employee.asParser(), Employee.class));
+                        employee = null;
+                    } else if (inData && depth == 1) {
+                        inData = false;
+                    }
+                }
+                case FIELD_NAME -> dataField = depth == 1 && "data".equals(parser.currentName());
+                default -> {
+                    if (inData && depth == 2) {
+                        logger.error("Item is not an object: {}", token);
+                    }
+                    dataField = false;
+                }
+            }
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,63 @@
+package com.reliaquest.api.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies of the last {@link #WINDOW} calls of one operation, to tell a slow call from a usual one.
+ * Percentiles are recomputed from a sorted copy of the window every {@link #REFRESH} samples,
+ * reading one in between costs no more than a volatile read.
+ */
+public class LatencyTracker {
+
+    static final int WINDOW = 512;
+    static final int REFRESH = 32;
+
+    private final double percentile;
+    private final int minSamples;
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicLong count = new AtomicLong();
+
+    private volatile long cachedNanos = -1;
+
+    /**
+     * @param percentile e.g. 0.95 for the p95
+     * @param minSamples calls to observe before the percentile is trusted
+     */
+    public LatencyTracker(double percentile, int minSamples) {
+        this.percentile = percentile;
+        this.minSamples = Math.max(1, Math.min(minSamples, WINDOW));
+    }
+
+    public void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % WINDOW), nanos);
+        long recorded = n + 1;
+        if (recorded >= minSamples && (recorded == minSamples || recorded % REFRESH == 0)) {
+            cachedNanos = compute(recorded);
+        }
+    }
+
+    /**
+     * @return the latency percentile in nanoseconds, -1 until minSamples calls have been recorded
+     */
+    public long percentileNanos() {
+        return cachedNanos;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    private long compute(long recorded) {
+        int size = (int) Math.min(recorded, WINDOW);
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return sorted[Math.max(0, Math.min(index, size - 1))];
+    }
+}
@@ -0,0 +1,263 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.common.CommonObjectMapper;
+import com.reliaquest.api.model.CreateEmployeeDTO;
+import com.reliaquest.api.model.Employee;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeApiClient} for the reactive profile, on {@link WebClient} and Reactor
+ * Netty. Calls don't hold a thread while the mock api answers, so thousands can be in flight on the event loop
+ * threads, bounded by reactive.client.pool.max-connections; calls beyond it wait for a connection.
+ * <p>
+ * The roster is not read into a list: {@link #getAllEmployees()} emits each employee as soon as its bytes have
+ * arrived, and reads more of the response only as fast as employees are requested downstream. 429s are retried
+ * with the same rest.template.retry.* backoff and deadline as the blocking client.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveEmployeeApiClient {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveEmployeeApiClient.class);
+
+    @Value("${mock.api.url}")
+    private String mockApiUrl;
+
+    @Value("${reactive.client.pool.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${rest.template.use.retry.for.429:false}")
+    private boolean useRetry;
+
+    @Value("${rest.template.retry.max-retries:2}")
+    private int maxRetries;
+
+    @Value("${rest.template.retry.base-delay:500ms}")
+    private Duration retryBaseDelay;
+
+    @Value("${rest.template.retry.max-delay:2s}")
+    private Duration retryMaxDelay;
+
+    @Value("${rest.template.retry.deadline:3s}")
+    private Duration retryDeadline;
+
+    private final WebClient.Builder webClientBuilder;
+    private final ObjectMapper objectMapper = CommonObjectMapper.getObjectMapper();
+    private final EmployeeEnvelopeReader envelopeReader = new EmployeeEnvelopeReader(objectMapper);
+
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    public ReactiveEmployeeApiClient(WebClient.Builder webClientBuilder) {
+        this.webClientBuilder = webClientBuilder;
+    }
+
+    @PostConstruct
+    void init() {
+        connectionProvider = ConnectionProvider.builder("employee-api")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(-1)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        webClient = webClientBuilder
+                .clone()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+        logger.info("Reactive client sized to {} connections", maxConnections);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        connectionProvider.dispose();
+    }
+
+    /**
+     * Completes once the mock api has answered with a status, the employees then follow in roster order as the
+     * body is read. Errors of the status fail the Mono, so they can still be answered with a status of their own.
+     */
+    public Mono<Flux<Employee>> getAllEmployees() {
+        Mono<Flux<Employee>> call = webClient
+                .get()
+                .uri(mockApiUrl)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> employees(entity.getBody()));
+        return retrying(call.onErrorMap(failure("fetching all employees")));
+    }
+
+    /**
+     * Parses the envelope chunk by chunk as the buffers arrive, each buffer is released once it's been fed.
+     */
+    private Flux<Employee> employees(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+                    EmployeeEnvelopeTokenizer tokenizer;
+                    try {
+                        tokenizer = new EmployeeEnvelopeTokenizer(objectMapper);
+                    } catch (IOException e) {
+                        return Flux.error(e);
+                    }
+                    return body.concatMapIterable(buffer -> feed(tokenizer, buffer))
+                            .concatWith(Mono.fromCallable(tokenizer::endOfInput).flatMapIterable(last -> last));
+                })
+                .onErrorMap(failure("reading all employees"));
+    }
+
+    private static List<Employee> feed(EmployeeEnvelopeTokenizer tokenizer, DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return tokenizer.feed(bytes, 0, bytes.length);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    public Mono<Employee> getEmployeeById(String id) {
+        URI url = UriComponentsBuilder.fromHttpUrl(mockApiUrl)
+                .pathSegment(id)
+                .encode()
+                .build()
+                .toUri();
+        Mono<Employee> call = exchange(HttpMethod.GET, url, null)
+                .mapNotNull(body -> read(body, envelopeReader.employee()))
+                .switchIfEmpty(Mono.error(() -> {
+                    logger.debug("No employee found for ID: {}", id);
+                    return new ApiClientException("Employee not found", null, 404);
+                }));
+        return retrying(call.onErrorMap(failure("fetching employee by ID")));
+    }
+
+    public Mono<Employee> createEmployee(CreateEmployeeDTO employeeInput) {
+        Mono<Employee> call = exchange(HttpMethod.POST, URI.create(mockApiUrl), employeeInput)
+                .mapNotNull(body -> read(body, envelopeReader.employee()))
+                .switchIfEmpty(Mono.error(() -> new ApiClientException("Failed to create employee", null, 400)))
+                .doOnNext(employee -> logger.debug("Created employee: {}", employee));
+        return retrying(call.onErrorMap(failure("creating employee")));
+    }
+
+    public Mono<String> deleteEmployeeByName(String name) {
+        Mono<String> call = exchange(HttpMethod.DELETE, URI.create(mockApiUrl), Map.of("name", name))
+                .mapNotNull(body -> read(body, envelopeReader.bool()))
+                .filter(Boolean.TRUE::equals)
+                .map(deleted -> name)
+                .switchIfEmpty(Mono.error(() -> {
+                    logger.error("Failed to delete employee with name: {}", name);
+                    return new ApiClientException("Failed to delete employee", null, 500);
+                }));
+        return retrying(call.onErrorMap(failure("deleting employee")));
+    }
+
+    /**
+     * Single responses are small, so they're read whole and parsed by {@link EmployeeEnvelopeReader} like the
+     * blocking client's; an empty body completes empty.
+     */
+    private Mono<byte[]> exchange(HttpMethod method, URI url, Object requestBody) {
+        WebClient.RequestBodySpec request = webClient.method(method).uri(url).accept(MediaType.APPLICATION_JSON);
+        WebClient.RequestHeadersSpec<?> spec = request;
+        if (requestBody != null) {
+            try {
+                spec = request.contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(objectMapper.writeValueAsBytes(requestBody));
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+        }
+        return spec.retrieve().bodyToMono(byte[].class);
+    }
+
+    private <T> T read(byte[] body, EmployeeEnvelopeReader.DataReader<T> dataReader) {
+        try {
+            return envelopeReader.read(new ByteArrayInputStream(body), dataReader);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * Maps errors to {@link ApiClientException} as the blocking client does, with the Retry-After of a 4xx.
+     */
+    private static Function<Throwable, Throwable> failure(String operation) {
+        return e -> {
+            if (e instanceof ApiClientException) {
+                return e;
+            }
+            if (e instanceof WebClientResponseException response) {
+                int status = response.getStatusCode().value();
+                if (status < 500) {
+                    logger.error("Client error {}: {}", operation, status);
+                    Duration retryAfter = EmployeeApiClient.retryAfter(response.getHeaders());
+                    return new ApiClientException("Client error " + operation, e, status, retryAfter);
+                }
+                logger.error("Server error {}: {}", operation, status);
+                return new ApiClientException("Server error " + operation, e, status);
+            }
+            logger.error("Unexpected error {}", operation, e);
+            return new ApiClientException("Unexpected error " + operation, e, 500);
+        };
+    }
+
+    /**
+     * Resubscribes after a 429 with full-jitter exponential backoff, or after Retry-After if that's longer,
+     * until max-retries are spent or the next attempt would start past the deadline. The delay is a timer on the
+     * event loop, nothing waits for it.
+     */
+    private <T> Mono<T> retrying(Mono<T> call) {
+        if (!useRetry) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            long deadline = System.nanoTime() + retryDeadline.toNanos();
+            return call.retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                Throwable failure = signal.failure();
+                if (!(failure instanceof ApiClientException e)
+                        || e.getStatusCode() != 429
+                        || signal.totalRetries() >= maxRetries) {
+                    return Mono.error(failure);
+                }
+                long delay = retryDelayNanos(signal.totalRetries() + 1, e.getRetryAfter());
+                if (System.nanoTime() + delay > deadline) {
+                    logger.debug("Not retrying, next attempt would miss the deadline");
+                    return Mono.error(failure);
+                }
+                return Mono.delay(Duration.ofNanos(delay));
+            })));
+        });
+    }
+
+    private long retryDelayNanos(long attempt, Duration retryAfter) {
+        long cap = Math.min(retryMaxDelay.toNanos(), retryBaseDelay.toNanos() << Math.min(attempt - 1, 30));
+        long jittered = ThreadLocalRandom.current().nextLong(cap + 1);
+        return retryAfter != null ? Math.max(retryAfter.toNanos(), jittered) : jittered;
+    }
+}
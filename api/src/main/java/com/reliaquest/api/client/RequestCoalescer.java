@@ -0,0 +1,156 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.common.CallDeadline;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of upstream calls.
+ * The first caller for a key runs the call, every caller that arrives for the same key while that call is in flight
+ * waits for and shares its result (or exception) instead of sending an identical request.
+ * <p>
+ * The shared call runs under no caller's {@link CallDeadline}, only the budget the call sets itself, so a caller
+ * with a short deadline can't make it fail for everyone sharing it. Each caller instead waits for it until its own
+ * deadline and gets a 504 once that has passed, the call carries on for the others. A first caller without a
+ * deadline runs the call on its own thread, one with a deadline hands it to a worker so it can stop waiting.
+ */
+public class RequestCoalescer {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final boolean virtualThreads;
+
+    private volatile ExecutorService workers;
+
+    public RequestCoalescer() {
+        this(false);
+    }
+
+    public RequestCoalescer(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        long deadlineNanos = CallDeadline.current();
+        if (deadlineNanos != Long.MAX_VALUE && deadlineNanos - System.nanoTime() <= 0) {
+            throw new ApiClientException("Deadline passed before calling the mock api", null, 504);
+        }
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, pending);
+        if (running != null) {
+            coalesced.increment();
+            return (T) await(running, deadlineNanos);
+        }
+
+        executed.increment();
+        if (deadlineNanos == Long.MAX_VALUE) {
+            return run(key, pending, call);
+        }
+        try {
+            workers().execute(() -> {
+                try {
+                    run(key, pending, call);
+                } catch (Throwable shared) {
+                    // the callers get it from pending
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return run(key, pending, call);
+        }
+        return (T) await(pending, deadlineNanos);
+    }
+
+    /**
+     * Number of calls that actually went upstream.
+     */
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * Number of calls that were served by joining an in-flight call, i.e. upstream requests avoided.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private <T> T run(String key, CompletableFuture<Object> pending, Supplier<T> call) {
+        T result;
+        try {
+            result = call.get();
+        } catch (Throwable t) {
+            inFlight.remove(key, pending);
+            pending.completeExceptionally(t);
+            throw t;
+        }
+        inFlight.remove(key, pending);
+        pending.complete(result);
+        return result;
+    }
+
+    private ExecutorService workers() {
+        if (workers == null) {
+            synchronized (this) {
+                if (workers == null) {
+                    workers = virtualThreads
+                            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                                    .name("employee-api-shared-", 1)
+                                    .factory())
+                            : Executors.newCachedThreadPool(daemon("employee-api-shared"));
+                }
+            }
+        }
+        return workers;
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Object await(CompletableFuture<Object> future, long deadlineNanos) {
+        try {
+            if (deadlineNanos == Long.MAX_VALUE) {
+                return future.get();
+            }
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ApiClientException("Unexpected error in shared call", e.getCause(), 500);
+        } catch (TimeoutException e) {
+            throw new ApiClientException("Deadline passed waiting for a shared call", null, 504);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiClientException("Interrupted waiting for a shared call", e, 500);
+        }
+    }
+}
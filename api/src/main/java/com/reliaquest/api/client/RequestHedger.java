@@ -0,0 +1,275 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.common.CallDeadline;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hedges idempotent reads: when a call is still unanswered after the operation's usual latency (its observed
+ * percentile, the p95 by default), the same call is sent a second time and whichever answers first wins.
+ * <ul>
+ *     <li>latencies are tracked per operation, nothing is hedged until minSamples calls have been observed</li>
+ *     <li>hedges are paid for out of a budget every call adds maxRatio to, so at most that share of calls is
+ *     sent twice; a hedge is also a call like any other to the rate limiter and is dropped if it's held back</li>
+ *     <li>the call runs on a worker so the caller can take the hedge's answer, both attempts carry the caller's
+ *     {@link CallDeadline} and the caller never waits past it</li>
+ *     <li>a failure only fails the call once no attempt is left that could still succeed: before the hedge is
+ *     sent, or when both attempts have failed, in which case the first attempt's error is thrown</li>
+ * </ul>
+ * The losing attempt isn't aborted, its answer is discarded when it arrives. Calls that can't be hedged, because
+ * the latency isn't known yet or the budget is spent, run once on the caller's thread.
+ * With virtualThreads attempts run on virtual threads of their own instead of pooled ones.
+ */
+public class RequestHedger {
+    private static final Logger logger = LoggerFactory.getLogger(RequestHedger.class);
+
+    // Budget is kept in thousandths of a hedge
+    private static final long HEDGE_COST = 1000;
+    private static final long MAX_BUDGET = 10 * HEDGE_COST;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final int minSamples;
+    private final long earnedPerCall;
+    private final boolean virtualThreads;
+
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+    private final AtomicLong budget = new AtomicLong();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder won = new LongAdder();
+
+    private volatile ScheduledExecutorService timer;
+    private volatile ExecutorService workers;
+
+    public RequestHedger(double percentile, int minSamples, double maxRatio, boolean virtualThreads) {
+        this(true, percentile, minSamples, maxRatio, virtualThreads);
+    }
+
+    private RequestHedger(boolean enabled, double percentile, int minSamples, double maxRatio, boolean virtualThreads) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.earnedPerCall = Math.round(maxRatio * HEDGE_COST);
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Hedger that never hedges, calls run exactly once on the caller's thread.
+     */
+    public static RequestHedger disabled() {
+        return new RequestHedger(false, 0, 0, 0, false);
+    }
+
+    /**
+     * Runs the call, sending it a second time if it's slower than usual for the operation. The call has to be
+     * idempotent and safe to run on another thread.
+     */
+    public <T> T execute(String operation, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        LatencyTracker tracker = trackers.computeIfAbsent(operation, o -> new LatencyTracker(percentile, minSamples));
+        earn();
+        long delayNanos = tracker.percentileNanos();
+        if (delayNanos < 0 || budget.get() < HEDGE_COST) {
+            return timed(tracker, call);
+        }
+        return race(tracker, call, delayNanos);
+    }
+
+    private <T> T race(LatencyTracker tracker, Supplier<T> call, long delayNanos) {
+        long deadlineNanos = CallDeadline.current();
+        CompletableFuture<Answer<T>> result = new CompletableFuture<>();
+        AtomicReference<RuntimeException> firstError = new AtomicReference<>();
+        // 1 until the hedge is sent, then 2; attempts still running once it's decided whether to hedge
+        AtomicInteger attempts = new AtomicInteger(1);
+        AtomicInteger failed = new AtomicInteger();
+
+        Runnable primary = () -> attempt(tracker, call, deadlineNanos, result, attempts, failed, firstError, false);
+        workers().execute(primary);
+        ScheduledFuture<?> hedge = timer().schedule(
+                        () -> {
+                            if (result.isDone() || !spend()) {
+                                return;
+                            }
+                            synchronized (attempts) {
+                                if (result.isDone() || failed.get() > 0) {
+                                    refund();
+                                    return;
+                                }
+                                attempts.set(2);
+                            }
+                            sent.increment();
+                            logger.debug("No answer after {}ms, hedging", delayNanos / 1_000_000);
+                            workers()
+                                    .execute(() -> attempt(
+                                            tracker, call, deadlineNanos, result, attempts, failed, firstError, true));
+                        },
+                        delayNanos,
+                        TimeUnit.NANOSECONDS);
+        try {
+            Answer<T> answer = await(result, deadlineNanos);
+            if (answer.fromHedge()) {
+                won.increment();
+            }
+            return answer.value();
+        } finally {
+            hedge.cancel(false);
+        }
+    }
+
+    private <T> void attempt(
+            LatencyTracker tracker,
+            Supplier<T> call,
+            long deadlineNanos,
+            CompletableFuture<Answer<T>> result,
+            AtomicInteger attempts,
+            AtomicInteger failed,
+            AtomicReference<RuntimeException> firstError,
+            boolean isHedge) {
+        try {
+            T value = CallDeadline.within(deadlineNanos, () -> timed(tracker, call));
+            result.complete(new Answer<>(value, isHedge));
+        } catch (RuntimeException e) {
+            if (!isHedge) {
+                firstError.set(e);
+            } else {
+                firstError.compareAndSet(null, e);
+            }
+            synchronized (attempts) {
+                if (failed.incrementAndGet() >= attempts.get()) {
+                    result.completeExceptionally(firstError.get());
+                }
+            }
+        }
+    }
+
+    private static <T> T timed(LatencyTracker tracker, Supplier<T> call) {
+        long start = System.nanoTime();
+        T result = call.get();
+        tracker.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private static <T> Answer<T> await(CompletableFuture<Answer<T>> result, long deadlineNanos) {
+        try {
+            if (deadlineNanos == Long.MAX_VALUE) {
+                return result.get();
+            }
+            return result.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ApiClientException("Unexpected error hedging request", e.getCause(), 500);
+        } catch (TimeoutException e) {
+            throw new ApiClientException("Mock api didn't answer before the deadline", null, 504);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiClientException("Interrupted waiting for the mock api", e, 500);
+        }
+    }
+
+    private void earn() {
+        budget.getAndUpdate(b -> Math.min(MAX_BUDGET, b + earnedPerCall));
+    }
+
+    private boolean spend() {
+        long b;
+        do {
+            b = budget.get();
+            if (b < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(b, b - HEDGE_COST));
+        return true;
+    }
+
+    private void refund() {
+        budget.getAndUpdate(b -> Math.min(MAX_BUDGET, b + HEDGE_COST));
+    }
+
+    /**
+     * @return the operation's latency percentile hedges are sent after, -1 until it's known
+     */
+    public long getHedgeDelayNanos(String operation) {
+        LatencyTracker tracker = trackers.get(operation);
+        return tracker == null ? -1 : tracker.percentileNanos();
+    }
+
+    /**
+     * Number of second requests sent.
+     */
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    /**
+     * Number of calls the second request answered first.
+     */
+    public long getWonCount() {
+        return won.sum();
+    }
+
+    public void shutdown() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private ScheduledExecutorService timer() {
+        if (timer == null) {
+            synchronized (this) {
+                if (timer == null) {
+                    timer = Executors.newSingleThreadScheduledExecutor(daemon("employee-api-hedge-timer"));
+                }
+            }
+        }
+        return timer;
+    }
+
+    private ExecutorService workers() {
+        if (workers == null) {
+            synchronized (this) {
+                if (workers == null) {
+                    workers = virtualThreads
+                            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                                    .name("employee-api-hedge-", 1)
+                                    .factory())
+                            : Executors.newCachedThreadPool(daemon("employee-api-hedge"));
+                }
+            }
+        }
+        return workers;
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Answer<T>(T value, boolean fromHedge) {}
+}
@@ -0,0 +1,289 @@
+package com.reliaquest.api.client;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Retries calls rejected with 429 TOO_MANY_REQUESTS.
+ * <ul>
+ *     <li>the first attempt runs on the caller's thread</li>
+ *     <li>retries are scheduled on a timer with full-jitter exponential backoff, or the Retry-After delay if the
+ *     mock api sent one, and run on a worker pool</li>
+ *     <li>every call has a deadline budget: a retry that can't start before the deadline isn't scheduled, and the
+ *     caller never waits past the deadline</li>
+ *     <li>at most maxPending retries can be queued, further ones are shed and fail straight away</li>
+ * </ul>
+ * {@link #executeAsync} never blocks once the first attempt has failed, the outcome is delivered through the
+ * returned future. {@link #execute} is for synchronous callers: it waits for that future, so the caller's thread
+ * is held for the retries, but only up to the deadline rather than for whatever the mock api asks for.
+ * Attempts are handed from the timer to a worker so a slow attempt can't hold up the retries scheduled after it.
+ * <p>
+ * When a call gives up, the caller gets the last {@link ApiClientException}, so read paths can fall back to
+ * cached data. With virtualThreads each retry runs on a virtual thread of its own instead of a pooled one.
+ */
+public class RetryScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(RetryScheduler.class);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final int maxRetries;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final int maxPending;
+    private final Duration deadline;
+    private final boolean virtualThreads;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder deadlineExceeded = new LongAdder();
+
+    private volatile ScheduledExecutorService timer;
+    private volatile ExecutorService workers;
+
+    public RetryScheduler(int maxRetries, Duration baseDelay, Duration maxDelay, int maxPending, Duration deadline) {
+        this(maxRetries, baseDelay, maxDelay, maxPending, deadline, false);
+    }
+
+    public RetryScheduler(
+            int maxRetries,
+            Duration baseDelay,
+            Duration maxDelay,
+            int maxPending,
+            Duration deadline,
+            boolean virtualThreads) {
+        this.maxRetries = maxRetries;
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxPending = maxPending;
+        this.deadline = deadline;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Scheduler that never retries, calls run exactly once on the caller's thread.
+     */
+    public static RetryScheduler disabled() {
+        return new RetryScheduler(0, Duration.ZERO, Duration.ZERO, 0, Duration.ZERO);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        return execute(call, System.nanoTime() + deadline.toNanos());
+    }
+
+    /**
+     * Runs the call, retrying 429s until it succeeds, retries are exhausted or deadlineNanos
+     * (a {@link System#nanoTime()} instant) is reached. Waits for the outcome on the caller's thread.
+     */
+    public <T> T execute(Supplier<T> call, long deadlineNanos) {
+        try {
+            return call.get();
+        } catch (ApiClientException e) {
+            if (maxRetries == 0 || !isRetryable(e)) {
+                throw e;
+            }
+            CompletableFuture<T> result = new CompletableFuture<>();
+            scheduleRetry(call, 1, deadlineNanos, e, result);
+            return await(result, deadlineNanos, e);
+        }
+    }
+
+    public <T> CompletableFuture<T> executeAsync(Supplier<T> call) {
+        return executeAsync(call, System.nanoTime() + deadline.toNanos());
+    }
+
+    /**
+     * Like {@link #execute(Supplier, long)}, but returns as soon as the first attempt has been made: retries run
+     * on the worker pool and the returned future completes with their outcome, exceptionally with the last
+     * {@link ApiClientException} if the call gives up or the deadline passes.
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<T> call, long deadlineNanos) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            result.complete(call.get());
+        } catch (ApiClientException e) {
+            if (maxRetries == 0 || !isRetryable(e)) {
+                result.completeExceptionally(e);
+                return result;
+            }
+            scheduleRetry(call, 1, deadlineNanos, e, result);
+            if (!result.isDone()) {
+                timer().schedule(
+                                () -> {
+                                    // counted first, so the caller sees the count once it sees the failure
+                                    if (!result.isDone()) {
+                                        deadlineExceeded.increment();
+                                        result.completeExceptionally(e);
+                                    }
+                                },
+                                Math.max(0, deadlineNanos - System.nanoTime()),
+                                TimeUnit.NANOSECONDS);
+            }
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private <T> void scheduleRetry(
+            Supplier<T> call,
+            int attempt,
+            long deadlineNanos,
+            ApiClientException lastError,
+            CompletableFuture<T> result) {
+        if (attempt > maxRetries) {
+            exhausted.increment();
+            result.completeExceptionally(lastError);
+            return;
+        }
+        long delayNanos = delayNanos(attempt, lastError);
+        if (System.nanoTime() + delayNanos >= deadlineNanos) {
+            logger.debug("Not retrying, next attempt in {}ms would miss the deadline", delayNanos / 1_000_000);
+            deadlineExceeded.increment();
+            result.completeExceptionally(lastError);
+            return;
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            logger.warn("Retry queue full ({} pending), shedding retry", maxPending);
+            shed.increment();
+            result.completeExceptionally(lastError);
+            return;
+        }
+        scheduled.increment();
+        logger.info("Retrying after 429 in {}ms (attempt {}/{})", delayNanos / 1_000_000, attempt, maxRetries);
+        timer().schedule(
+                        () -> {
+                            pending.decrementAndGet();
+                            workers().execute(() -> attempt(call, attempt, deadlineNanos, result));
+                        },
+                        delayNanos,
+                        TimeUnit.NANOSECONDS);
+    }
+
+    private <T> void attempt(Supplier<T> call, int attempt, long deadlineNanos, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            // caller already gave up
+            return;
+        }
+        try {
+            result.complete(call.get());
+        } catch (ApiClientException e) {
+            if (isRetryable(e)) {
+                scheduleRetry(call, attempt + 1, deadlineNanos, e, result);
+            } else {
+                result.completeExceptionally(e);
+            }
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> result, long deadlineNanos, ApiClientException lastError) {
+        try {
+            return result.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ApiClientException("Unexpected error retrying request", e.getCause(), 500);
+        } catch (TimeoutException e) {
+            deadlineExceeded.increment();
+            result.completeExceptionally(lastError);
+            throw lastError;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(lastError);
+            throw lastError;
+        }
+    }
+
+    private long delayNanos(int attempt, ApiClientException lastError) {
+        long cap = Math.min(maxDelayNanos, baseDelayNanos << Math.min(attempt - 1, 30));
+        long jittered = ThreadLocalRandom.current().nextLong(cap + 1);
+        Duration retryAfter = lastError.getRetryAfter();
+        return retryAfter != null ? Math.max(retryAfter.toNanos(), jittered) : jittered;
+    }
+
+    private static boolean isRetryable(ApiClientException e) {
+        return e.getStatusCode() == TOO_MANY_REQUESTS;
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getScheduledCount() {
+        return scheduled.sum();
+    }
+
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    public long getDeadlineExceededCount() {
+        return deadlineExceeded.sum();
+    }
+
+    public void shutdown() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private ScheduledExecutorService timer() {
+        if (timer == null) {
+            synchronized (this) {
+                if (timer == null) {
+                    timer = Executors.newSingleThreadScheduledExecutor(daemon("employee-api-retry-timer"));
+                }
+            }
+        }
+        return timer;
+    }
+
+    private ExecutorService workers() {
+        if (workers == null) {
+            synchronized (this) {
+                if (workers == null) {
+                    workers = virtualThreads
+                            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                                    .name("employee-api-retry-", 1)
+                                    .factory())
+                            : Executors.newCachedThreadPool(daemon("employee-api-retry"));
+                }
+            }
+        }
+        return workers;
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
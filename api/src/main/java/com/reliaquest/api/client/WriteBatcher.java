@@ -0,0 +1,212 @@
+package com.reliaquest.api.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects writes from concurrent callers and sends them to the mock api together, so a burst of N creates or
+ * deletes costs one request and one unit of its rate limit budget instead of N.
+ * <ul>
+ *     <li>the first write opens a batch, which is flushed once the window has passed or it holds maxBatchSize
+ *     writes, whichever comes first</li>
+ *     <li>a batch is flushed on a worker pool with one call to the batch function, whose results must line up with
+ *     its inputs; each caller gets the result at its own position</li>
+ *     <li>a batch that closes with a single write goes through the single-write function instead</li>
+ *     <li>if the batch call fails, every caller in the batch gets its exception</li>
+ * </ul>
+ * Callers block until their batch has been flushed, so a write takes up to one window longer than on its own.
+ * With virtualThreads each batch is flushed on a virtual thread of its own instead of a pooled one.
+ */
+public class WriteBatcher<I, O> {
+    private static final Logger logger = LoggerFactory.getLogger(WriteBatcher.class);
+
+    private final String name;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Function<I, O> single;
+    private final Function<List<I>, List<O>> batch;
+    private final boolean virtualThreads;
+
+    private final LongAdder flushedBatches = new LongAdder();
+    private final LongAdder flushedWrites = new LongAdder();
+
+    // guarded by this
+    private List<Write<I, O>> open = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    private volatile ScheduledExecutorService timer;
+    private volatile ExecutorService workers;
+
+    public WriteBatcher(
+            String name, Duration window, int maxBatchSize, Function<I, O> single, Function<List<I>, List<O>> batch) {
+        this(name, window, maxBatchSize, single, batch, false);
+    }
+
+    public WriteBatcher(
+            String name,
+            Duration window,
+            int maxBatchSize,
+            Function<I, O> single,
+            Function<List<I>, List<O>> batch,
+            boolean virtualThreads) {
+        this.name = name;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.single = single;
+        this.batch = batch;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Adds the write to the open batch and waits for the batch to be flushed.
+     * @return the write's own result
+     */
+    public O execute(I input) {
+        Write<I, O> write = new Write<>(input, new CompletableFuture<>());
+        List<Write<I, O>> full = null;
+        synchronized (this) {
+            open.add(write);
+            if (open.size() >= maxBatchSize) {
+                full = close();
+            } else if (open.size() == 1) {
+                scheduledFlush = timer().schedule(this::flushOpen, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            List<Write<I, O>> writes = full;
+            workers().execute(() -> flush(writes));
+        }
+        return await(write.result());
+    }
+
+    private void flushOpen() {
+        List<Write<I, O>> writes;
+        synchronized (this) {
+            writes = close();
+        }
+        if (!writes.isEmpty()) {
+            workers().execute(() -> flush(writes));
+        }
+    }
+
+    // called holding this
+    private List<Write<I, O>> close() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        List<Write<I, O>> closed = open;
+        open = new ArrayList<>();
+        return closed;
+    }
+
+    private void flush(List<Write<I, O>> writes) {
+        flushedBatches.increment();
+        flushedWrites.add(writes.size());
+        try {
+            if (writes.size() == 1) {
+                writes.get(0).result().complete(single.apply(writes.get(0).input()));
+                return;
+            }
+            logger.debug("Flushing {} {} writes as one batch", writes.size(), name);
+            List<O> results = batch.apply(writes.stream().map(Write::input).toList());
+            if (results == null || results.size() != writes.size()) {
+                throw new ApiClientException(
+                        "Batch " + name + " returned " + (results == null ? "no" : results.size()) + " results for "
+                                + writes.size() + " writes",
+                        null,
+                        500);
+            }
+            for (int i = 0; i < writes.size(); i++) {
+                writes.get(i).result().complete(results.get(i));
+            }
+        } catch (Throwable t) {
+            writes.forEach(write -> write.result().completeExceptionally(t));
+        }
+    }
+
+    private static <O> O await(CompletableFuture<O> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ApiClientException("Unexpected error in batched write", e.getCause(), 500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiClientException("Interrupted waiting for batched write", e, 500);
+        }
+    }
+
+    /**
+     * Number of requests sent, a batch of one included.
+     */
+    public long getFlushedBatchCount() {
+        return flushedBatches.sum();
+    }
+
+    public long getFlushedWriteCount() {
+        return flushedWrites.sum();
+    }
+
+    public void shutdown() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private ScheduledExecutorService timer() {
+        if (timer == null) {
+            synchronized (this) {
+                if (timer == null) {
+                    timer = Executors.newSingleThreadScheduledExecutor(daemon("employee-api-" + name + "-timer"));
+                }
+            }
+        }
+        return timer;
+    }
+
+    private ExecutorService workers() {
+        if (workers == null) {
+            synchronized (this) {
+                if (workers == null) {
+                    workers = virtualThreads
+                            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                                    .name("employee-api-" + name + "-", 1)
+                                    .factory())
+                            : Executors.newCachedThreadPool(daemon("employee-api-" + name));
+                }
+            }
+        }
+        return workers;
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Write<I, O>(I input, CompletableFuture<O> result) {}
+}
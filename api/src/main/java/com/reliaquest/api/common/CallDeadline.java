@@ -0,0 +1,79 @@
+package com.reliaquest.api.common;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * The instant, as a {@link System#nanoTime()} value, by which the calling thread's current call has to be done.
+ * It's set for an incoming request from its X-Request-Timeout header, see {@link RequestDeadlineFilter}, and narrowed
+ * by each mock api operation to its own budget; {@link CommonRestTemplate} turns what's left of it into the response
+ * timeout of each request sent. Deadlines only ever get shorter: entering a later one than the current has no effect.
+ * Work handed to another thread has to enter the deadline there again.
+ */
+public final class CallDeadline {
+
+    private static final long NONE = Long.MAX_VALUE;
+    private static final ThreadLocal<Long> current = new ThreadLocal<>();
+
+    private CallDeadline() {}
+
+    /**
+     * @return the current deadline, {@link Long#MAX_VALUE} if there is none
+     */
+    public static long current() {
+        Long deadline = current.get();
+        return deadline == null ? NONE : deadline;
+    }
+
+    /**
+     * @return the current deadline, or budget from now if that's sooner
+     */
+    public static long after(Duration budget) {
+        return Math.min(current(), System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * @return time left to the current deadline, never negative; null if there is none
+     */
+    public static Duration remaining() {
+        Long deadline = current.get();
+        return deadline == null ? null : Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+    }
+
+    /**
+     * Makes deadlineNanos the current deadline, unless the current one is sooner, until the scope is closed.
+     */
+    public static Scope enter(long deadlineNanos) {
+        Long outer = current.get();
+        if (deadlineNanos != NONE && (outer == null || deadlineNanos < outer)) {
+            current.set(deadlineNanos);
+        }
+        return new Scope(outer);
+    }
+
+    public static <T> T within(long deadlineNanos, Supplier<T> call) {
+        try (Scope ignored = enter(deadlineNanos)) {
+            return call.get();
+        }
+    }
+
+    /**
+     * Restores the deadline that was current when it was entered.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Long outer;
+
+        private Scope(Long outer) {
+            this.outer = outer;
+        }
+
+        @Override
+        public void close() {
+            if (outer == null) {
+                current.remove();
+            } else {
+                current.set(outer);
+            }
+        }
+    }
+}
@@ -1,18 +1,18 @@
 package com.reliaquest.api.common;
 
-import java.io.IOException;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.client.ClientHttpRequestExecution;
-import org.springframework.http.client.ClientHttpRequestInterceptor;
-import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -22,22 +22,41 @@ import org.springframework.web.client.RestTemplate;
  * CommonRestTemplate provides a singleton instance of RestTemplate for making API calls.
  * Using this makes sure that we aren't creating new instances of RestTemplate when it can be done
  * using single instance and avoid unnecessary memory usage.
+ * The connection pool starts at 50 connections, 20 per host, and is resized from rest.template.pool.* once the
+ * component is created; with virtual threads there are far more concurrent callers to serve.
+ * Every request gets a response timeout: rest.template.response-timeout, or what's left of the caller's
+ * {@link CallDeadline} if that's sooner, so a stalled mock api can't hold a request thread indefinitely.
  * @implNote Use CommonRestTemplate.getRestTemplate() to obtain the RestTemplate instance.
  */
 @Component
+@Profile("!reactive")
 public class CommonRestTemplate {
     private static final Logger logger = LoggerFactory.getLogger(CommonRestTemplate.class);
 
+    private static final PoolingHttpClientConnectionManager connectionManager;
     private static final RestTemplate restTemplate;
+    private static final Timeout CONNECT_TIMEOUT = Timeout.ofSeconds(5);
 
-    @Value("${rest.template.use.retry.for.429:false}")
-    private static boolean useRetry;
+    private static volatile Duration defaultResponseTimeout = Duration.ofSeconds(30);
+
+    @Value("${rest.template.pool.max-total:50}")
+    private int maxTotal;
+
+    @Value("${rest.template.pool.max-per-route:20}")
+    private int maxPerRoute;
+
+    // Longer than the change feed's heartbeat interval, so an idle feed isn't taken for a stalled one
+    @Value("${rest.template.response-timeout:30s}")
+    private Duration responseTimeout = Duration.ofSeconds(30);
 
     static {
         // Connection manager with pooling
-        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager = new PoolingHttpClientConnectionManager();
         connectionManager.setMaxTotal(50); // Total max connections
         connectionManager.setDefaultMaxPerRoute(20); // Max per host
+        // Connecting is the same for every request, so its timeout is set on the connections, not per request
+        connectionManager.setDefaultConnectionConfig(
+                ConnectionConfig.custom().setConnectTimeout(CONNECT_TIMEOUT).build());
 
         CloseableHttpClient httpClient = HttpClients.custom()
                 .setConnectionManager(connectionManager)
@@ -45,70 +64,48 @@ public class CommonRestTemplate {
                 .build();
 
         HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
-        requestFactory.setConnectTimeout(5000); // 5 sec
-        requestFactory.setConnectionRequestTimeout(5000); // 5 sec
+        // Timeouts are set per request, since a request config in the context overrides the factory's own
+        requestFactory.setHttpContextFactory((method, uri) -> requestContext());
 
+        // 429 retries are handled by the api client's RetryScheduler, not by an interceptor,
+        // so no request thread ever sleeps waiting for the mock api's rate limit to reset
         restTemplate = new RestTemplate(requestFactory);
-
-        // Add retry interceptor for 429 responses if enabled
-        if (useRetry) {
-            restTemplate.getInterceptors().add(new RetryOn429Interceptor(2));
-        }
     }
 
-    public static RestTemplate getRestTemplate() {
-        return restTemplate;
+    @PostConstruct
+    void configurePool() {
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        defaultResponseTimeout = responseTimeout;
+        logger.info("Connection pool sized to {} connections, {} per host", maxTotal, maxPerRoute);
     }
 
     /**
-     * Interceptor to retry requests on 429 TOO_MANY_REQUESTS to deal with rate-limiting on mock api
+     * Context for one request: a response timeout, also bounding the wait for a pooled connection, of the default or
+     * the current {@link CallDeadline}, whichever is sooner. The 5 second connect timeout is the connection manager's.
      */
-    static class RetryOn429Interceptor implements ClientHttpRequestInterceptor {
-        private final int maxRetries;
-        private final int RETRY_AFTER_SECONDS = 80;
-
-        public RetryOn429Interceptor(int maxRetries) {
-            this.maxRetries = maxRetries;
+    static HttpClientContext requestContext() {
+        Duration timeout = defaultResponseTimeout;
+        Duration remaining = CallDeadline.remaining();
+        if (remaining != null && remaining.compareTo(timeout) < 0) {
+            // A zero timeout would mean none at all
+            timeout = remaining.isZero() ? Duration.ofMillis(1) : remaining;
         }
+        Timeout responseTimeout = Timeout.of(timeout);
+        Timeout poolTimeout = timeout.compareTo(Duration.ofSeconds(5)) < 0 ? responseTimeout : CONNECT_TIMEOUT;
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(poolTimeout)
+                .setResponseTimeout(responseTimeout)
+                .build());
+        return context;
+    }
 
-        @Override
-        public ClientHttpResponse intercept(
-                org.springframework.http.HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
-                throws IOException {
-            int attempt = 0;
-            ClientHttpResponse response = execution.execute(request, body);
+    public static RestTemplate getRestTemplate() {
+        return restTemplate;
+    }
 
-            int retryAfterSeconds = RETRY_AFTER_SECONDS / 2;
-            while (attempt < maxRetries && response.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
-                attempt++;
-                // Get retry-after header (in seconds)
-                // Not available in this mock apis case, so it'll always fallback to default 2 seconds
-                String retryAfterHeader = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
-                retryAfterSeconds = retryAfterSeconds * 2; // exponential retry-delay
-                if (retryAfterHeader != null) {
-                    try {
-                        retryAfterSeconds = Integer.parseInt(retryAfterHeader);
-                    } catch (NumberFormatException e) {
-                        // fallback to default
-                    }
-                }
-                if (!Thread.currentThread().isInterrupted()) {
-                    try {
-                        logger.info("Sleeping for {} seconds due to 429", retryAfterSeconds);
-                        Thread.currentThread().sleep(retryAfterSeconds * 1000L);
-                        logger.debug("Woke up after sleep");
-                    } catch (InterruptedException e) {
-                        logger.error("Interrupted during sleep!", e);
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                } else {
-                    logger.warn("Thread was already interrupted, skipping sleep.");
-                    break;
-                }
-                response = execution.execute(request, body);
-            }
-            return response;
-        }
+    static PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
     }
 }
@@ -0,0 +1,55 @@
+package com.reliaquest.api.common;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Lets a caller bound how long its request may take: an X-Request-Timeout header, e.g. <code>800ms</code>,
+ * <code>2s</code> or a plain number of milliseconds, becomes the {@link CallDeadline} of the request, so every mock
+ * api call made for it times out by then. Calls made for the request are also bounded by their own
+ * rest.template.deadline.* budgets, whichever is sooner. Requests without the header, or with an invalid one,
+ * only have those budgets.
+ */
+@Component
+@Profile("!reactive")
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RequestDeadlineFilter.class);
+
+    public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Duration timeout = parse(request.getHeader(REQUEST_TIMEOUT_HEADER));
+        if (timeout == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try (CallDeadline.Scope ignored = CallDeadline.enter(System.nanoTime() + timeout.toNanos())) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static Duration parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            Duration timeout = DurationStyle.detectAndParse(value.trim());
+            return timeout.isNegative() ? Duration.ZERO : timeout;
+        } catch (IllegalArgumentException e) {
+            logger.debug("Ignoring invalid {}: {}", REQUEST_TIMEOUT_HEADER, value);
+            return null;
+        }
+    }
+}
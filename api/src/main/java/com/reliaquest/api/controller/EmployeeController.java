@@ -3,36 +3,57 @@ package com.reliaquest.api.controller;
 import com.reliaquest.api.model.CreateEmployeeDTO;
 import com.reliaquest.api.model.Employee;
 import com.reliaquest.api.service.EmployeeService;
+import com.reliaquest.api.service.EmployeeService.RosterSource;
+import com.reliaquest.api.service.EmployeeService.Served;
 import java.util.List;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/employee")
+@Profile("!reactive")
 public class EmployeeController implements IEmployeeController<Employee, CreateEmployeeDTO> {
     private static final Logger logger = LoggerFactory.getLogger(EmployeeController.class);
+
+    /**
+     * Media type asking GET /employee for a streamed JSON array, see {@link #streamAllEmployeesAsJsonArray()}.
+     */
+    public static final String EMPLOYEE_STREAM_VALUE = "application/vnd.employee-stream+json";
+
     private final EmployeeService employeeService;
 
     public EmployeeController(EmployeeService employeeService) {
         this.employeeService = employeeService;
     }
 
+    /**
+     * The response carries an ETag of the roster version when there is one, a request sending it back in
+     * If-None-Match is then answered 304 without a body while the roster is unchanged.
+     */
     @Override
     public ResponseEntity<List<Employee>> getAllEmployees() {
         logger.info("[REQUEST] getAllEmployees");
         long start = System.currentTimeMillis();
         try {
-            List<Employee> employees = employeeService.getAllEmployees();
+            Served<List<Employee>> employees = employeeService.getAllEmployees();
             logger.info(
                     "[RESPONSE] getAllEmployees - {} employees, duration: {}ms",
-                    employees.size(),
+                    employees.value().size(),
                     System.currentTimeMillis() - start);
-            return ResponseEntity.ok(employees);
+            ResponseEntity.BodyBuilder response = ok(employees);
+            employeeService.getAllEmployeesETag(employees.value()).ifPresent(response::eTag);
+            return response.body(employees.value());
         } catch (ResponseStatusException e) {
             logger.error("[ERROR] getAllEmployees - {}", e.getMessage());
             return ResponseEntity.status(e.getStatusCode()).body(null);
@@ -42,17 +63,54 @@ public class EmployeeController implements IEmployeeController<Employee, CreateE
         }
     }
 
+    /**
+     * GET /employee for a client sending {@code Accept: application/x-ndjson}: one employee per line, written as
+     * they're read, see {@link EmployeeStreamWriter}. Clients accepting any or plain JSON get getAllEmployees.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllEmployeesAsNdjson() {
+        return streamAllEmployees(MediaType.APPLICATION_NDJSON, EmployeeStreamWriter::ndjson);
+    }
+
+    /**
+     * GET /employee for a client sending {@code Accept: application/vnd.employee-stream+json}: the JSON array
+     * getAllEmployees returns, written as the employees are read.
+     */
+    @GetMapping(produces = EMPLOYEE_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllEmployeesAsJsonArray() {
+        return streamAllEmployees(MediaType.valueOf(EMPLOYEE_STREAM_VALUE), EmployeeStreamWriter::jsonArray);
+    }
+
+    /**
+     * The roster source is resolved here, on the request's thread, so a failure to get one is still answered with
+     * its status, as is the Age header of a stale snapshot. The employees themselves are read as the body is written.
+     */
+    private ResponseEntity<StreamingResponseBody> streamAllEmployees(
+            MediaType contentType, Function<RosterSource, StreamingResponseBody> writer) {
+        logger.info("[REQUEST] streamAllEmployees - {}", contentType);
+        try {
+            Served<RosterSource> source = employeeService.streamAllEmployees();
+            return ok(source).contentType(contentType).body(writer.apply(source.value()));
+        } catch (ResponseStatusException e) {
+            logger.error("[ERROR] streamAllEmployees - {}", e.getMessage());
+            return ResponseEntity.status(e.getStatusCode()).body(null);
+        } catch (Exception e) {
+            logger.error("[ERROR] streamAllEmployees - Exception: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
     @Override
     public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString) {
         logger.info("[REQUEST] getEmployeesByNameSearch - searchString: {}", searchString);
         long start = System.currentTimeMillis();
         try {
-            List<Employee> employees = employeeService.getEmployeesByNameSearch(searchString);
+            Served<List<Employee>> employees = employeeService.getEmployeesByNameSearch(searchString);
             logger.info(
                     "[RESPONSE] getEmployeesByNameSearch - {} employees, duration: {}ms",
-                    employees.size(),
+                    employees.value().size(),
                     System.currentTimeMillis() - start);
-            return ResponseEntity.ok(employees);
+            return ok(employees).body(employees.value());
         } catch (ResponseStatusException e) {
             logger.error("[ERROR] getEmployeesByNameSearch - {}", e.getMessage());
             return ResponseEntity.status(e.getStatusCode()).body(null);
@@ -67,12 +125,12 @@ public class EmployeeController implements IEmployeeController<Employee, CreateE
         logger.info("[REQUEST] getEmployeeById - id: {}", id);
         long start = System.currentTimeMillis();
         try {
-            Employee employee = employeeService.getEmployeeById(id);
+            Served<Employee> employee = employeeService.getEmployeeById(id);
             logger.info(
                     "[RESPONSE] getEmployeeById - found: {}, duration: {}ms",
-                    employee != null ? employee.getName() : "null",
+                    employee.value() != null ? employee.value().getName() : "null",
                     System.currentTimeMillis() - start);
-            return ResponseEntity.ok(employee);
+            return ok(employee).body(employee.value());
         } catch (ResponseStatusException e) {
             logger.error("[ERROR] getEmployeeById - {}", e.getMessage());
             return ResponseEntity.status(e.getStatusCode()).body(null);
@@ -87,12 +145,12 @@ public class EmployeeController implements IEmployeeController<Employee, CreateE
         logger.info("[REQUEST] getHighestSalaryOfEmployees");
         long start = System.currentTimeMillis();
         try {
-            int maxSalary = employeeService.getHighestSalaryOfEmployees();
+            Served<Integer> maxSalary = employeeService.getHighestSalaryOfEmployees();
             logger.info(
                     "[RESPONSE] getHighestSalaryOfEmployees - maxSalary: {}, duration: {}ms",
-                    maxSalary,
+                    maxSalary.value(),
                     System.currentTimeMillis() - start);
-            return ResponseEntity.ok(maxSalary);
+            return ok(maxSalary).body(maxSalary.value());
         } catch (ResponseStatusException e) {
             logger.error("[ERROR] getHighestSalaryOfEmployees - {}", e.getMessage());
             return ResponseEntity.status(e.getStatusCode()).body(null);
@@ -107,12 +165,12 @@ public class EmployeeController implements IEmployeeController<Employee, CreateE
         logger.info("[REQUEST] getTopTenHighestEarningEmployeeNames");
         long start = System.currentTimeMillis();
         try {
-            List<String> names = employeeService.getTopTenHighestEarningEmployeeNames();
+            Served<List<String>> names = employeeService.getTopTenHighestEarningEmployeeNames();
             logger.info(
                     "[RESPONSE] getTopTenHighestEarningEmployeeNames - names: {}, duration: {}ms",
-                    names,
+                    names.value(),
                     System.currentTimeMillis() - start);
-            return ResponseEntity.ok(names);
+            return ok(names).body(names.value());
         } catch (ResponseStatusException e) {
             logger.error("[ERROR] getTopTenHighestEarningEmployeeNames - {}", e.getMessage());
             return ResponseEntity.status(e.getStatusCode()).body(null);
@@ -161,4 +219,16 @@ public class EmployeeController implements IEmployeeController<Employee, CreateE
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
+
+    /**
+     * A 200 for the answer. An answer served from a snapshot past its ttl gets an Age header, the snapshot's age in
+     * seconds, telling the caller the mock api couldn't confirm it's current.
+     */
+    private static ResponseEntity.BodyBuilder ok(Served<?> served) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (served.isStale()) {
+            response.header(HttpHeaders.AGE, Long.toString(served.staleAge().toSeconds()));
+        }
+        return response;
+    }
 }
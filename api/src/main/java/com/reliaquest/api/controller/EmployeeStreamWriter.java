@@ -0,0 +1,95 @@
+package com.reliaquest.api.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reliaquest.api.common.CallDeadline;
+import com.reliaquest.api.common.CommonObjectMapper;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.service.EmployeeService.RosterSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes a roster to the response one employee at a time, as NDJSON or as a JSON array, through a single generator
+ * over the response's output stream. Nothing is flushed per employee, the generator's and the container's buffers
+ * decide when a chunk goes out.
+ * <p>
+ * The body is written after the status and headers have been sent, on a thread of its own carrying the request's
+ * {@link CallDeadline}. If reading the roster fails part way, the response just ends early: an NDJSON client sees
+ * fewer lines, a JSON array client an unterminated array. The failure is rethrown for the container to abort the
+ * response; a client that went away is only logged.
+ */
+public class EmployeeStreamWriter {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeStreamWriter.class);
+
+    private static final ObjectWriter writer = CommonObjectMapper.getObjectMapper()
+            .writerFor(Employee.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private EmployeeStreamWriter() {}
+
+    /**
+     * One employee per line, each line a JSON object.
+     */
+    public static StreamingResponseBody ndjson(RosterSource source) {
+        return body(source, false);
+    }
+
+    /**
+     * The same JSON array getAllEmployees returns, written as it's produced.
+     */
+    public static StreamingResponseBody jsonArray(RosterSource source) {
+        return body(source, true);
+    }
+
+    private static StreamingResponseBody body(RosterSource source, boolean array) {
+        long deadlineNanos = CallDeadline.current();
+        return out -> {
+            try (CallDeadline.Scope ignored = CallDeadline.enter(deadlineNanos)) {
+                write(source, out, array);
+            }
+        };
+    }
+
+    private static void write(RosterSource source, OutputStream out, boolean array) {
+        long start = System.currentTimeMillis();
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            // Closing mustn't end the array of a truncated response, or close the container's stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.setRootValueSeparator(null);
+            if (array) {
+                generator.writeStartArray();
+            }
+            int count = source.forEach(employee -> {
+                try {
+                    writer.writeValue(generator, employee);
+                    if (!array) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (array) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+            logger.info(
+                    "[RESPONSE] streamAllEmployees - {} employees streamed, duration: {}ms",
+                    count,
+                    System.currentTimeMillis() - start);
+        } catch (IOException | UncheckedIOException e) {
+            // Usually the client went away, nothing is left to tell it
+            logger.warn("[ERROR] streamAllEmployees - writing the response failed: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("[ERROR] streamAllEmployees - reading the roster failed, response cut short", e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.model.CreateEmployeeDTO;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.service.ReactiveEmployeeService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the {@link IEmployeeController} contract for the reactive profile: the same paths, request bodies, response
+ * bodies and statuses as {@link EmployeeController}, with every response deferred in a Mono instead of waited for.
+ * It can't implement the interface, whose methods return their ResponseEntity directly, so it mirrors its mappings.
+ * <p>
+ * The roster is streamed: employees are written to the response as they're read from the mock api, and the mock api's
+ * response is read only as fast as the client takes the JSON array.
+ */
+@RestController
+@RequestMapping("/employee")
+@Profile("reactive")
+public class ReactiveEmployeeController {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveEmployeeController.class);
+    private final ReactiveEmployeeService employeeService;
+
+    public ReactiveEmployeeController(ReactiveEmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    /**
+     * The status is sent once the mock api has answered, the body follows as it streams in. Once it has started,
+     * a failure can only cut the response short.
+     */
+    @GetMapping()
+    public Mono<ResponseEntity<Flux<Employee>>> getAllEmployees() {
+        logger.info("[REQUEST] getAllEmployees");
+        long start = System.currentTimeMillis();
+        return employeeService
+                .getAllEmployees()
+                .map(employees -> ResponseEntity.ok(employees
+                        .doOnComplete(() -> logger.info(
+                                "[RESPONSE] getAllEmployees - streamed, duration: {}ms",
+                                System.currentTimeMillis() - start))
+                        .doOnError(e -> logger.error("[ERROR] getAllEmployees - stream failed: {}", e.getMessage()))))
+                .onErrorResume(e -> error("getAllEmployees", e));
+    }
+
+    @GetMapping("/search/{searchString}")
+    public Mono<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(@PathVariable String searchString) {
+        logger.info("[REQUEST] getEmployeesByNameSearch - searchString: {}", searchString);
+        long start = System.currentTimeMillis();
+        return employeeService
+                .getEmployeesByNameSearch(searchString)
+                .map(employees -> {
+                    logger.info(
+                            "[RESPONSE] getEmployeesByNameSearch - {} employees, duration: {}ms",
+                            employees.size(),
+                            System.currentTimeMillis() - start);
+                    return ResponseEntity.ok(employees);
+                })
+                .onErrorResume(e -> error("getEmployeesByNameSearch", e));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable String id) {
+        logger.info("[REQUEST] getEmployeeById - id: {}", id);
+        long start = System.currentTimeMillis();
+        return employeeService
+                .getEmployeeById(id)
+                .map(employee -> {
+                    logger.info(
+                            "[RESPONSE] getEmployeeById - found: {}, duration: {}ms",
+                            employee.getName(),
+                            System.currentTimeMillis() - start);
+                    return ResponseEntity.ok(employee);
+                })
+                .onErrorResume(e -> error("getEmployeeById", e));
+    }
+
+    @GetMapping("/highestSalary")
+    public Mono<ResponseEntity<Integer>> getHighestSalaryOfEmployees() {
+        logger.info("[REQUEST] getHighestSalaryOfEmployees");
+        long start = System.currentTimeMillis();
+        return employeeService
+                .getHighestSalaryOfEmployees()
+                .map(maxSalary -> {
+                    logger.info(
+                            "[RESPONSE] getHighestSalaryOfEmployees - maxSalary: {}, duration: {}ms",
+                            maxSalary,
+                            System.currentTimeMillis() - start);
+                    return ResponseEntity.ok(maxSalary);
+                })
+                .onErrorResume(e -> error("getHighestSalaryOfEmployees", e));
+    }
+
+    @GetMapping("/topTenHighestEarningEmployeeNames")
+    public Mono<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames() {
+        logger.info("[REQUEST] getTopTenHighestEarningEmployeeNames");
+        long start = System.currentTimeMillis();
+        return employeeService
+                .getTopTenHighestEarningEmployeeNames()
+                .map(names -> {
+                    logger.info(
+                            "[RESPONSE] getTopTenHighestEarningEmployeeNames - names: {}, duration: {}ms",
+                            names,
+                            System.currentTimeMillis() - start);
+                    return ResponseEntity.ok(names);
+                })
+                .onErrorResume(e -> error("getTopTenHighestEarningEmployeeNames", e));
+    }
+
+    @PostMapping()
+    public Mono<ResponseEntity<Employee>> createEmployee(@RequestBody CreateEmployeeDTO employeeInput) {
+        logger.info("[REQUEST] createEmployee - input: {}", employeeInput);
+        long start = System.currentTimeMillis();
+        return employeeService
+                .createEmployee(employeeInput)
+                .map(employee -> {
+                    logger.info(
+                            "[RESPONSE] createEmployee - created: {}, duration: {}ms",
+                            employee.getName(),
+                            System.currentTimeMillis() - start);
+                    return ResponseEntity.ok(employee);
+                })
+                .onErrorResume(e -> error("createEmployee", e));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id) {
+        logger.info("[REQUEST] deleteEmployeeById - id: {}", id);
+        long start = System.currentTimeMillis();
+        return employeeService
+                .deleteEmployeeById(id)
+                .map(deletedName -> {
+                    logger.info(
+                            "[RESPONSE] deleteEmployeeById - deleted: {}, duration: {}ms",
+                            deletedName,
+                            System.currentTimeMillis() - start);
+                    return ResponseEntity.ok(deletedName);
+                })
+                .onErrorResume(e -> error("deleteEmployeeById", e));
+    }
+
+    /**
+     * Same mapping as {@link EmployeeController}: the status of a ResponseStatusException, otherwise 500,
+     * without a body either way.
+     */
+    private static <T> Mono<ResponseEntity<T>> error(String operation, Throwable e) {
+        if (e instanceof ResponseStatusException statusError) {
+            logger.error("[ERROR] {} - {}", operation, e.getMessage());
+            return Mono.just(ResponseEntity.status(statusError.getStatusCode()).build());
+        }
+        logger.error("[ERROR] {} - Exception: {}", operation, e.getMessage());
+        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+    }
+}
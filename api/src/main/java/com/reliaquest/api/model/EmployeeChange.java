@@ -0,0 +1,26 @@
+package com.reliaquest.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A create or delete from the mock api's change feed, numbered in the order the mock api made them.
+ * A delete carries the employee as it was when it was removed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class EmployeeChange {
+
+    private long sequence;
+    private Type type;
+    private Employee employee;
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+}
@@ -1,32 +1,49 @@
 package com.reliaquest.api.service;
 
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
 import com.reliaquest.api.client.ApiClientException;
 import com.reliaquest.api.client.EmployeeApiClient;
 import com.reliaquest.api.model.CreateEmployeeDTO;
 import com.reliaquest.api.model.Employee;
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+/**
+ * Answers from the cached roster where it can. An answer taken from a snapshot past its ttl, e.g. while the mock api
+ * is down and its circuit open, comes with the snapshot's age, see {@link Served}, so the caller can tell its own
+ * caller the data may be out of date.
+ */
 @Service
+@Profile("!reactive")
 public class EmployeeService {
     private static final Logger logger = LoggerFactory.getLogger(EmployeeService.class);
 
     private final EmployeeApiClient employeeApiClient;
+    private final EmployeeSnapshotCache snapshotCache;
 
-    public EmployeeService(EmployeeApiClient employeeApiClient) {
+    public EmployeeService(EmployeeApiClient employeeApiClient, EmployeeSnapshotCache snapshotCache) {
         this.employeeApiClient = employeeApiClient;
+        this.snapshotCache = snapshotCache;
     }
 
-    public List<Employee> getAllEmployees() {
+    public Served<List<Employee>> getAllEmployees() {
         logger.debug("[START] getAllEmployees");
         long start = System.currentTimeMillis();
         try {
-            List<Employee> employees = employeeApiClient.getAllEmployees();
+            Served<List<Employee>> employees = served(snapshotCache.get(), EmployeeSnapshot::getEmployees);
             logger.debug("[END] getAllEmployees - duration: {}ms", System.currentTimeMillis() - start);
             return employees;
         } catch (ApiClientException e) {
@@ -38,18 +55,62 @@ public class EmployeeService {
         }
     }
 
-    public List<Employee> getEmployeesByNameSearch(String searchString) {
+    /**
+     * The roster for writing out one employee at a time, see {@link RosterSource}. Without a roster cache the
+     * employees are handed over as they're parsed from the mock api's response, which is only read once the source
+     * is iterated, so failures reading it surface from {@link RosterSource#forEach} rather than from here.
+     * Otherwise they come from the cached snapshot, loaded here if needed and served stale like any other answer.
+     */
+    public Served<RosterSource> streamAllEmployees() {
+        logger.debug("[START] streamAllEmployees");
+        try {
+            if (!snapshotCache.isEnabled()) {
+                return Served.fresh(employeeApiClient::forEachEmployee);
+            }
+            Served<List<Employee>> employees = served(snapshotCache.get(), EmployeeSnapshot::getEmployees);
+            logger.debug(
+                    "[END] streamAllEmployees - {} employees from snapshot",
+                    employees.value().size());
+            return employees.map(list -> consumer -> {
+                list.forEach(consumer);
+                return list.size();
+            });
+        } catch (ApiClientException e) {
+            logger.error("[ERROR] streamAllEmployees - ApiClientException", e);
+            throw new ResponseStatusException(HttpStatus.valueOf(e.getStatusCode()), e.getMessage(), e);
+        } catch (Exception e) {
+            logger.error("[ERROR] streamAllEmployees - Exception", e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error fetching employees", e);
+        }
+    }
+
+    /**
+     * ETag for a list returned by {@link #getAllEmployees()}, empty if it can't be given one.
+     */
+    public Optional<String> getAllEmployeesETag(List<Employee> employees) {
+        return snapshotCache.etagOf(employees);
+    }
+
+    /**
+     * Answered from the cached roster when one is loaded. Otherwise the search is pushed down to the mock api, so
+     * only the matches are transferred, and if it can't do that the roster is loaded and searched here.
+     * Highest salary and top ten are answered the same way.
+     */
+    public Served<List<Employee>> getEmployeesByNameSearch(String searchString) {
         logger.debug("[START] getEmployeesByNameSearch - searchString: {}", searchString);
         long start = System.currentTimeMillis();
         try {
-            List<Employee> employees = employeeApiClient.getAllEmployees();
-            List<Employee> result = employees.stream()
-                    .filter(e ->
-                            e.getName() != null && e.getName().toLowerCase().contains(searchString.toLowerCase()))
-                    .collect(Collectors.toList());
+            Function<EmployeeSnapshot, List<Employee>> search = snapshot -> snapshot.searchByName(searchString);
+            Served<List<Employee>> result = snapshotCache
+                    .getIfLoaded()
+                    .map(snapshot -> served(snapshot, search))
+                    .or(() -> employeeApiClient
+                            .searchEmployeesByName(searchString)
+                            .map(Served::fresh))
+                    .orElseGet(() -> served(snapshotCache.get(), search));
             logger.debug(
                     "[END] getEmployeesByNameSearch - found {} employees, duration: {}ms",
-                    result.size(),
+                    result.value().size(),
                     System.currentTimeMillis() - start);
             return result;
         } catch (ApiClientException e) {
@@ -61,14 +122,14 @@ public class EmployeeService {
         }
     }
 
-    public Employee getEmployeeById(String id) {
+    public Served<Employee> getEmployeeById(String id) {
         logger.debug("[START] getEmployeeById - id: {}", id);
         long start = System.currentTimeMillis();
         try {
-            Employee employee = employeeApiClient.getEmployeeById(id);
+            Served<Employee> employee = lookupEmployee(id);
             logger.debug(
                     "[END] getEmployeeById - found: {}, duration: {}ms",
-                    employee != null ? employee.getName() : "null",
+                    employee.value() != null ? employee.value().getName() : "null",
                     System.currentTimeMillis() - start);
             return employee;
         } catch (ApiClientException e) {
@@ -80,16 +141,65 @@ public class EmployeeService {
         }
     }
 
-    public int getHighestSalaryOfEmployees() {
+    /**
+     * Serves the id from the cached roster's index, only ids it doesn't have are fetched from the mock api.
+     * Ids the mock api recently answered 404 for fail straight away until their negative entry expires.
+     */
+    private Served<Employee> lookupEmployee(String id) {
+        UUID uuid = parseId(id);
+        if (uuid == null) {
+            return Served.fresh(employeeApiClient.getEmployeeById(id));
+        }
+        Optional<EmployeeSnapshot> snapshot = snapshotCache.getIfLoaded();
+        Employee cached = snapshot.map(s -> s.findById(uuid)).orElse(null);
+        if (cached != null) {
+            logger.debug(
+                    "getEmployeeById - served {} from snapshot v{}",
+                    id,
+                    snapshot.get().getVersion());
+            return served(snapshot.get(), s -> cached);
+        }
+        if (snapshotCache.isKnownMissing(uuid)) {
+            throw new ApiClientException("Employee not found", null, 404);
+        }
+        try {
+            return Served.fresh(employeeApiClient.getEmployeeById(id));
+        } catch (ApiClientException e) {
+            if (e.getStatusCode() == 404) {
+                snapshotCache.rememberMissing(uuid);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The answer read from the snapshot, with its age if the snapshot is past its ttl.
+     */
+    private <T> Served<T> served(EmployeeSnapshot snapshot, Function<EmployeeSnapshot, T> read) {
+        T value = read.apply(snapshot);
+        return snapshotCache.isStale(snapshot) ? Served.stale(value, snapshot.age()) : Served.fresh(value);
+    }
+
+    private static UUID parseId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public Served<Integer> getHighestSalaryOfEmployees() {
         logger.debug("[START] getHighestSalaryOfEmployees");
         long start = System.currentTimeMillis();
         try {
-            List<Employee> employees = employeeApiClient.getAllEmployees();
-            int maxSalary =
-                    employees.stream().mapToInt(Employee::getSalary).max().orElse(0);
+            Served<Integer> maxSalary = snapshotCache
+                    .getIfLoaded()
+                    .map(snapshot -> served(snapshot, EmployeeSnapshot::highestSalary))
+                    .or(() -> employeeApiClient.getHighestSalary().map(Served::fresh))
+                    .orElseGet(() -> served(snapshotCache.get(), EmployeeSnapshot::highestSalary));
             logger.debug(
                     "[END] getHighestSalaryOfEmployees - maxSalary: {}, duration: {}ms",
-                    maxSalary,
+                    maxSalary.value(),
                     System.currentTimeMillis() - start);
             return maxSalary;
         } catch (ApiClientException e) {
@@ -101,19 +211,19 @@ public class EmployeeService {
         }
     }
 
-    public List<String> getTopTenHighestEarningEmployeeNames() {
+    public Served<List<String>> getTopTenHighestEarningEmployeeNames() {
         logger.debug("[START] getTopTenHighestEarningEmployeeNames");
         long start = System.currentTimeMillis();
         try {
-            List<Employee> employees = employeeApiClient.getAllEmployees();
-            List<String> names = employees.stream()
-                    .sorted((a, b) -> Integer.compare(b.getSalary(), a.getSalary()))
-                    .limit(10)
-                    .map(Employee::getName)
-                    .collect(Collectors.toList());
+            Served<List<String>> names = snapshotCache
+                    .getIfLoaded()
+                    .map(snapshot -> served(snapshot, s -> s.topEarners(10)))
+                    .or(() -> employeeApiClient.getTopEarners(10).map(Served::fresh))
+                    .orElseGet(() -> served(snapshotCache.get(), s -> s.topEarners(10)))
+                    .map(earners -> earners.stream().map(Employee::getName).collect(Collectors.toList()));
             logger.debug(
                     "[END] getTopTenHighestEarningEmployeeNames - names: {}, duration: {}ms",
-                    names,
+                    names.value(),
                     System.currentTimeMillis() - start);
             return names;
         } catch (ApiClientException e) {
@@ -130,6 +240,7 @@ public class EmployeeService {
         long start = System.currentTimeMillis();
         try {
             Employee employee = employeeApiClient.createEmployee(employeeInput);
+            snapshotCache.applyCreate(employee);
             logger.debug(
                     "[END] createEmployee - created: {}, duration: {}ms",
                     employee != null ? employee.getName() : "null",
@@ -148,12 +259,13 @@ public class EmployeeService {
         logger.debug("[START] deleteEmployeeById - id: {}", id);
         long start = System.currentTimeMillis();
         try {
-            Employee employee = getEmployeeById(id);
+            Employee employee = resolveForDelete(id);
             if (employee == null || employee.getName() == null) {
                 logger.error("No employee found for id: {}", id);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found");
             }
             String deletedName = employeeApiClient.deleteEmployeeByName(employee.getName());
+            snapshotCache.applyDelete(employee.getId());
             logger.debug(
                     "[END] deleteEmployeeById - deleted: {}, duration: {}ms",
                     deletedName,
@@ -176,4 +288,70 @@ public class EmployeeService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error deleting employee", e);
         }
     }
+
+    /**
+     * Resolves the id to the employee to delete. With a usable snapshot the name comes from its id index, so a delete
+     * is a single round trip to the mock api; otherwise the employee is looked up as in {@link #getEmployeeById}.
+     * The mock api deletes the first employee matching the name, ignoring case. If the snapshot shows that's a
+     * different employee with the same name, the delete is refused with 409 rather than removing the wrong one.
+     */
+    private Employee resolveForDelete(String id) {
+        Optional<EmployeeSnapshot> snapshot = snapshotCache.getIfLoaded();
+        UUID uuid = parseId(id);
+        Employee employee =
+                uuid == null ? null : snapshot.map(s -> s.findById(uuid)).orElse(null);
+        if (employee == null) {
+            employee = getEmployeeById(id).value();
+        }
+        if (employee != null && employee.getName() != null && snapshot.isPresent()) {
+            List<Employee> namesakes = snapshot.get().findByName(employee.getName());
+            if (!namesakes.isEmpty() && !Objects.equals(namesakes.get(0).getId(), employee.getId())) {
+                logger.error(
+                        "Refusing to delete {}: deleting by name '{}' would remove {}",
+                        id,
+                        employee.getName(),
+                        namesakes.get(0).getId());
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT, "Another employee with the same name would be deleted");
+            }
+        }
+        return employee;
+    }
+
+    /**
+     * An answer and, if it was read from a snapshot past its ttl, how old that snapshot is. Fresh answers, including
+     * every one the mock api gave directly, have no age.
+     */
+    public record Served<T>(T value, Duration staleAge) {
+
+        public static <T> Served<T> fresh(T value) {
+            return new Served<>(value, null);
+        }
+
+        public static <T> Served<T> stale(T value, Duration age) {
+            return new Served<>(value, age);
+        }
+
+        public boolean isStale() {
+            return staleAge != null;
+        }
+
+        public <R> Served<R> map(Function<? super T, ? extends R> mapper) {
+            return new Served<>(mapper.apply(value), staleAge);
+        }
+    }
+
+    /**
+     * Employees to be iterated once, without the roster being copied into a list of its own first.
+     */
+    @FunctionalInterface
+    public interface RosterSource {
+        /**
+         * Hands each employee to the consumer in roster order. An exception thrown by the consumer stops the
+         * iteration and is rethrown as is.
+         * @return the number of employees handed over
+         * @throws ApiClientException if the roster is read from the mock api and that fails
+         */
+        int forEach(Consumer<Employee> consumer);
+    }
 }
@@ -0,0 +1,175 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.client.ApiClientException;
+import com.reliaquest.api.client.ReactiveEmployeeApiClient;
+import com.reliaquest.api.model.CreateEmployeeDTO;
+import com.reliaquest.api.model.Employee;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link EmployeeService} for the reactive profile, on {@link ReactiveEmployeeApiClient}. There is no roster
+ * snapshot to answer from: search, highest salary and top ten are computed from the employees as they stream in,
+ * keeping only the matches, the maximum or the ten highest in memory, never the whole roster.
+ * Errors are mapped to {@link ResponseStatusException} as in {@link EmployeeService}.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveEmployeeService.class);
+
+    private final ReactiveEmployeeApiClient employeeApiClient;
+
+    public ReactiveEmployeeService(ReactiveEmployeeApiClient employeeApiClient) {
+        this.employeeApiClient = employeeApiClient;
+    }
+
+    /**
+     * Completes once the mock api has answered, see {@link ReactiveEmployeeApiClient#getAllEmployees()}.
+     */
+    public Mono<Flux<Employee>> getAllEmployees() {
+        return employeeApiClient.getAllEmployees().onErrorMap(statusOf("getAllEmployees", "Error fetching employees"));
+    }
+
+    public Mono<List<Employee>> getEmployeesByNameSearch(String searchString) {
+        String needle = searchString.toLowerCase();
+        return employeeApiClient
+                .getAllEmployees()
+                .flatMap(employees -> employees
+                        .filter(employee -> employee.getName() != null
+                                && employee.getName().toLowerCase().contains(needle))
+                        .collectList())
+                .onErrorMap(statusOf("getEmployeesByNameSearch", "Error searching employees"));
+    }
+
+    public Mono<Employee> getEmployeeById(String id) {
+        return employeeApiClient.getEmployeeById(id).onErrorMap(statusOf("getEmployeeById", "Error fetching employee"));
+    }
+
+    /**
+     * 0 for an empty roster, as in {@link EmployeeService}.
+     */
+    public Mono<Integer> getHighestSalaryOfEmployees() {
+        return employeeApiClient
+                .getAllEmployees()
+                .flatMap(employees -> employees
+                        .filter(employee -> employee.getSalary() != null)
+                        .reduce(0, (max, employee) -> Math.max(max, employee.getSalary())))
+                .onErrorMap(statusOf("getHighestSalaryOfEmployees", "Error fetching salary"));
+    }
+
+    /**
+     * Highest salary first, employees with the same salary in roster order, as in {@link EmployeeService}.
+     * Only the ten highest seen so far are held while the roster streams in.
+     */
+    public Mono<List<String>> getTopTenHighestEarningEmployeeNames() {
+        return employeeApiClient
+                .getAllEmployees()
+                .flatMap(employees -> employees
+                        .filter(employee -> employee.getSalary() != null)
+                        .index()
+                        .collect(() -> new TopEarners(10), (top, ranked) -> top.offer(ranked.getT1(), ranked.getT2()))
+                        .map(TopEarners::names))
+                .onErrorMap(statusOf("getTopTenHighestEarningEmployeeNames", "Error fetching employee names"));
+    }
+
+    public Mono<Employee> createEmployee(CreateEmployeeDTO employeeInput) {
+        return employeeApiClient
+                .createEmployee(employeeInput)
+                .onErrorMap(statusOf("createEmployee", "Error creating employee"));
+    }
+
+    /**
+     * Looks the employee up by id for its name, then deletes by name. Without a roster snapshot there's no check
+     * for namesakes the mock api would delete instead.
+     */
+    public Mono<String> deleteEmployeeById(String id) {
+        return employeeApiClient
+                .getEmployeeById(id)
+                .flatMap(employee -> {
+                    if (employee.getName() == null) {
+                        logger.error("No employee found for id: {}", id);
+                        return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found"));
+                    }
+                    return employeeApiClient.deleteEmployeeByName(employee.getName());
+                })
+                .onErrorMap(e -> {
+                    if (e instanceof ResponseStatusException) {
+                        return e;
+                    }
+                    logger.error("[ERROR] deleteEmployeeById - {}", e.getMessage());
+                    if (e instanceof ApiClientException apiError) {
+                        HttpStatus status =
+                                switch (apiError.getStatusCode()) {
+                                    case 404 -> HttpStatus.NOT_FOUND;
+                                    case 429 -> HttpStatus.TOO_MANY_REQUESTS;
+                                    default -> HttpStatus.INTERNAL_SERVER_ERROR;
+                                };
+                        return new ResponseStatusException(status, e.getMessage(), e);
+                    }
+                    return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error deleting employee", e);
+                });
+    }
+
+    private static Function<Throwable, Throwable> statusOf(String operation, String message) {
+        return e -> {
+            if (e instanceof ResponseStatusException) {
+                return e;
+            }
+            if (e instanceof ApiClientException apiError) {
+                logger.error("[ERROR] {} - ApiClientException: {}", operation, e.getMessage());
+                return new ResponseStatusException(HttpStatus.valueOf(apiError.getStatusCode()), e.getMessage(), e);
+            }
+            logger.error("[ERROR] {} - Exception", operation, e);
+            return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, e);
+        };
+    }
+
+    /**
+     * Bounded min-heap of the highest paid employees, the lowest salary and latest in the roster on top so it's the
+     * one evicted; ties keep the employee seen first.
+     */
+    private static final class TopEarners {
+        private final int limit;
+        private final PriorityQueue<Ranked> heap;
+
+        TopEarners(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit + 1, Ranked.LOWEST_FIRST);
+        }
+
+        void offer(long position, Employee employee) {
+            heap.offer(new Ranked(position, employee));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        List<String> names() {
+            List<Ranked> ranked = new ArrayList<>(heap);
+            ranked.sort(Ranked.LOWEST_FIRST.reversed());
+            List<String> names = new ArrayList<>(ranked.size());
+            for (Ranked r : ranked) {
+                names.add(r.employee().getName());
+            }
+            return names;
+        }
+    }
+
+    private record Ranked(long position, Employee employee) {
+        static final Comparator<Ranked> LOWEST_FIRST = Comparator.<Ranked>comparingInt(
+                        r -> r.employee().getSalary())
+                .thenComparing(Comparator.comparingLong(Ranked::position).reversed());
+    }
+}
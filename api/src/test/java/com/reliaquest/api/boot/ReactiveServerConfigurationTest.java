@@ -0,0 +1,50 @@
+package com.reliaquest.api.boot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
+import com.reliaquest.api.client.EmployeeApiClient;
+import com.reliaquest.api.client.ReactiveEmployeeApiClient;
+import com.reliaquest.api.common.CommonRestTemplate;
+import com.reliaquest.api.controller.ReactiveEmployeeController;
+import com.reliaquest.api.service.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveServerConfigurationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void testReactiveProfileStartsNetty() {
+        ReactiveWebServerApplicationContext webContext =
+                assertInstanceOf(ReactiveWebServerApplicationContext.class, context);
+
+        assertInstanceOf(NettyWebServer.class, webContext.getWebServer());
+    }
+
+    @Test
+    void testReactiveProfileLeavesOutTheServletStack() {
+        assertNotNull(context.getBean(ReactiveEmployeeController.class));
+        assertNotNull(context.getBean(ReactiveEmployeeApiClient.class));
+
+        assertEquals(0, context.getBeanNamesForType(EmployeeService.class).length);
+        assertEquals(0, context.getBeanNamesForType(EmployeeSnapshotCache.class).length);
+        assertEquals(0, context.getBeanNamesForType(EmployeeApiClient.class).length);
+        assertEquals(0, context.getBeanNamesForType(CommonRestTemplate.class).length);
+    }
+
+    @Test
+    void testWebClientPoolIsSizedSeparately() {
+        assertEquals(1000, context.getEnvironment().getProperty("reactive.client.pool.max-connections", int.class));
+        assertNull(context.getEnvironment().getProperty("rest.template.pool.max-total"));
+    }
+}
@@ -0,0 +1,150 @@
+package com.reliaquest.api.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.reliaquest.api.client.ApiClientException;
+import com.reliaquest.api.client.EmployeeApiClient;
+import com.reliaquest.api.client.EmployeeChangeStreamReader;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeChange;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EmployeeChangeFeedTest {
+    private EmployeeApiClient employeeApiClient;
+    private EmployeeSnapshotCache snapshotCache;
+    private EmployeeChangeFeed changeFeed;
+
+    private final Employee alice =
+            Employee.builder().id(UUID.randomUUID()).name("Alice").salary(100).build();
+    private final Employee bob =
+            Employee.builder().id(UUID.randomUUID()).name("Bob").salary(200).build();
+
+    @BeforeEach
+    void setUp() {
+        employeeApiClient = mock(EmployeeApiClient.class);
+        snapshotCache = new EmployeeSnapshotCache(
+                employeeApiClient, Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO, Duration.ZERO);
+        changeFeed = new EmployeeChangeFeed(
+                employeeApiClient, snapshotCache, false, Duration.ofMillis(1), Duration.ofMillis(10));
+    }
+
+    private static EmployeeChange change(long sequence, EmployeeChange.Type type, Employee employee) {
+        return new EmployeeChange(sequence, type, employee);
+    }
+
+    /**
+     * Makes the next followChanges call deliver the given changes and end.
+     */
+    private void streaming(EmployeeChange... changes) {
+        doAnswer(invocation -> {
+                    EmployeeChangeStreamReader.Listener listener = invocation.getArgument(1);
+                    for (EmployeeChange change : changes) {
+                        listener.onChange(change);
+                    }
+                    return null;
+                })
+                .when(employeeApiClient)
+                .followChanges(anyLong(), any());
+    }
+
+    @Test
+    void testResyncsThenAppliesChanges() {
+        when(employeeApiClient.getLatestChangeSequence()).thenReturn(5L);
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice));
+        streaming(change(6, EmployeeChange.Type.CREATED, bob), change(7, EmployeeChange.Type.DELETED, alice));
+
+        changeFeed.follow();
+
+        verify(employeeApiClient).followChanges(eq(5L), any());
+        assertEquals(List.of(bob), snapshotCache.peek().orElseThrow().getEmployees());
+        assertEquals(7, changeFeed.getPosition());
+        assertEquals(2, changeFeed.getAppliedChangeCount());
+        assertEquals(1, changeFeed.getResyncCount());
+        verify(employeeApiClient, times(1)).getAllEmployees();
+    }
+
+    @Test
+    void testReconnectsFromLastChangeWithoutResync() {
+        when(employeeApiClient.getLatestChangeSequence()).thenReturn(0L);
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of());
+        streaming(change(1, EmployeeChange.Type.CREATED, alice));
+        changeFeed.follow();
+
+        streaming(change(2, EmployeeChange.Type.CREATED, bob));
+        changeFeed.follow();
+
+        verify(employeeApiClient).followChanges(eq(1L), any());
+        assertEquals(List.of(alice, bob), snapshotCache.peek().orElseThrow().getEmployees());
+        assertEquals(1, changeFeed.getResyncCount());
+    }
+
+    @Test
+    void testReplayedChangesAreAppliedOnce() {
+        when(employeeApiClient.getLatestChangeSequence()).thenReturn(3L);
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice));
+        streaming(
+                change(2, EmployeeChange.Type.DELETED, bob),
+                change(3, EmployeeChange.Type.CREATED, alice),
+                change(4, EmployeeChange.Type.CREATED, alice));
+
+        changeFeed.follow();
+
+        assertEquals(List.of(alice), snapshotCache.peek().orElseThrow().getEmployees());
+        assertEquals(4, changeFeed.getPosition());
+        assertEquals(1, changeFeed.getAppliedChangeCount());
+    }
+
+    @Test
+    void testGoneFromMockApiResyncsOnNextFollow() {
+        when(employeeApiClient.getLatestChangeSequence()).thenReturn(1L, 9L);
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice), List.of(alice, bob));
+        doThrow(new ApiClientException("gone", null, 410))
+                .when(employeeApiClient)
+                .followChanges(eq(1L), any());
+
+        assertThrows(ApiClientException.class, changeFeed::follow);
+        assertEquals(-1, changeFeed.getPosition());
+
+        streaming();
+        changeFeed.follow();
+
+        verify(employeeApiClient).followChanges(eq(9L), any());
+        assertEquals(List.of(alice, bob), snapshotCache.peek().orElseThrow().getEmployees());
+        assertEquals(2, changeFeed.getResyncCount());
+    }
+
+    @Test
+    void testGapInChangesForcesResync() {
+        when(employeeApiClient.getLatestChangeSequence()).thenReturn(1L);
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice));
+        streaming(change(3, EmployeeChange.Type.CREATED, bob));
+
+        ApiClientException ex = assertThrows(ApiClientException.class, changeFeed::follow);
+
+        assertEquals(410, ex.getStatusCode());
+        assertEquals(-1, changeFeed.getPosition());
+        assertEquals(List.of(alice), snapshotCache.peek().orElseThrow().getEmployees());
+    }
+
+    @Test
+    void testHeartbeatRevalidatesOnlyWhenUpToDate() throws Exception {
+        when(employeeApiClient.getLatestChangeSequence()).thenReturn(4L);
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice));
+        streaming();
+        changeFeed.follow();
+        Thread.sleep(5);
+        Duration age = snapshotCache.peek().orElseThrow().age();
+
+        changeFeed.onHeartbeat(5);
+        assertTrue(snapshotCache.peek().orElseThrow().age().compareTo(age) >= 0);
+
+        changeFeed.onHeartbeat(4);
+        assertTrue(snapshotCache.peek().orElseThrow().age().compareTo(age) < 0);
+    }
+}
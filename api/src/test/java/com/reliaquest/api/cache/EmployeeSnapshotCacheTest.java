@@ -0,0 +1,286 @@
+package com.reliaquest.api.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.reliaquest.api.client.ApiClientException;
+import com.reliaquest.api.client.CircuitBreakerOpenException;
+import com.reliaquest.api.client.EmployeeApiClient;
+import com.reliaquest.api.model.Employee;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EmployeeSnapshotCacheTest {
+    private EmployeeApiClient employeeApiClient;
+
+    private final Employee alice =
+            Employee.builder().id(UUID.randomUUID()).name("Alice").salary(100).build();
+    private final Employee bob =
+            Employee.builder().id(UUID.randomUUID()).name("Bob").salary(200).build();
+
+    @BeforeEach
+    void setUp() {
+        employeeApiClient = mock(EmployeeApiClient.class);
+    }
+
+    private EmployeeSnapshotCache cache(Duration ttl, Duration staleWhileRevalidate, Duration staleIfError) {
+        return new EmployeeSnapshotCache(employeeApiClient, ttl, staleWhileRevalidate, staleIfError, Duration.ZERO);
+    }
+
+    @Test
+    void testFreshSnapshotIsServedFromMemory() {
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice));
+        EmployeeSnapshotCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+
+        EmployeeSnapshot first = cache.get();
+        EmployeeSnapshot second = cache.get();
+
+        assertSame(first, second);
+        assertEquals(List.of(alice), second.getEmployees());
+        verify(employeeApiClient, times(1)).getAllEmployees();
+    }
+
+    @Test
+    void testStaleSnapshotIsServedWhileRevalidating() throws Exception {
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice), List.of(alice, bob));
+        EmployeeSnapshotCache cache = cache(Duration.ofMillis(1), Duration.ofMinutes(1), Duration.ZERO);
+
+        EmployeeSnapshot first = cache.get();
+        Thread.sleep(5);
+        EmployeeSnapshot stale = cache.get();
+
+        assertSame(first, stale);
+        verify(employeeApiClient, timeout(1000).times(2)).getAllEmployees();
+        EmployeeSnapshot refreshed = cache.refreshAsync().join();
+        assertTrue(refreshed.getVersion() > first.getVersion());
+    }
+
+    @Test
+    void testZeroTtlAlwaysReloads() {
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice));
+        EmployeeSnapshotCache cache = cache(Duration.ZERO, Duration.ZERO, Duration.ZERO);
+
+        cache.get();
+        cache.get();
+
+        verify(employeeApiClient, times(2)).getAllEmployees();
+    }
+
+    @Test
+    void testLoadFailurePropagatesWhenNoSnapshot() {
+        when(employeeApiClient.getAllEmployees()).thenThrow(new ApiClientException("error", null, 429));
+        EmployeeSnapshotCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+
+        ApiClientException ex = assertThrows(ApiClientException.class, cache::get);
+        assertEquals(429, ex.getStatusCode());
+        assertTrue(cache.peek().isEmpty());
+    }
+
+    @Test
+    void testExpiredSnapshotIsServedWhenLoadFails() throws Exception {
+        when(employeeApiClient.getAllEmployees())
+                .thenReturn(List.of(alice))
+                .thenThrow(new ApiClientException("error", null, 429));
+        EmployeeSnapshotCache cache = cache(Duration.ofMillis(1), Duration.ZERO, Duration.ofMinutes(1));
+
+        EmployeeSnapshot first = cache.get();
+        Thread.sleep(5);
+
+        assertSame(first, cache.get());
+        verify(employeeApiClient, times(2)).getAllEmployees();
+    }
+
+    @Test
+    void testLoadFailurePropagatesPastStaleIfError() throws Exception {
+        when(employeeApiClient.getAllEmployees())
+                .thenReturn(List.of(alice))
+                .thenThrow(new ApiClientException("error", null, 429));
+        EmployeeSnapshotCache cache = cache(Duration.ofMillis(1), Duration.ZERO, Duration.ofMillis(1));
+
+        cache.get();
+        Thread.sleep(5);
+
+        ApiClientException ex = assertThrows(ApiClientException.class, cache::get);
+        assertEquals(429, ex.getStatusCode());
+    }
+
+    @Test
+    void testOpenCircuitServesSnapshotPastStaleIfError() throws Exception {
+        when(employeeApiClient.getAllEmployees())
+                .thenReturn(List.of(alice))
+                .thenThrow(new CircuitBreakerOpenException("roster", Duration.ofSeconds(10)));
+        EmployeeSnapshotCache cache = cache(Duration.ofMillis(1), Duration.ZERO, Duration.ofMillis(1));
+
+        EmployeeSnapshot first = cache.get();
+        Thread.sleep(5);
+
+        assertSame(first, cache.get());
+        assertTrue(cache.isStale(first));
+    }
+
+    @Test
+    void testWritesProduceNewVersions() {
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice));
+        EmployeeSnapshotCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+        EmployeeSnapshot loaded = cache.get();
+
+        cache.applyCreate(bob);
+        EmployeeSnapshot created = cache.get();
+        cache.applyDelete(alice.getId());
+        EmployeeSnapshot deleted = cache.get();
+
+        assertEquals(List.of(alice), loaded.getEmployees());
+        assertEquals(List.of(alice, bob), created.getEmployees());
+        assertEquals(List.of(bob), deleted.getEmployees());
+        assertTrue(created.getVersion() > loaded.getVersion());
+        assertTrue(deleted.getVersion() > created.getVersion());
+        verify(employeeApiClient, times(1)).getAllEmployees();
+    }
+
+    @Test
+    void testWritesDuringReloadAreKept() throws Exception {
+        Employee carol = Employee.builder().id(UUID.randomUUID()).name("Carol").build();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        when(employeeApiClient.getAllEmployees())
+                .thenReturn(List.of(alice, bob))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    written.await();
+                    // read by the mock api before the writes below
+                    return List.of(alice, bob);
+                });
+        EmployeeSnapshotCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+        cache.get();
+
+        CompletableFuture<EmployeeSnapshot> reload = cache.refreshAsync();
+        loading.await();
+        cache.applyCreate(carol);
+        cache.applyDelete(bob.getId());
+        written.countDown();
+
+        assertEquals(List.of(alice, carol), reload.join().getEmployees());
+        assertEquals(List.of(alice, carol), cache.get().getEmployees());
+    }
+
+    @Test
+    void testWritesDuringFirstLoadAreKept() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        when(employeeApiClient.getAllEmployees()).thenAnswer(invocation -> {
+            loading.countDown();
+            written.await();
+            return List.of(alice);
+        });
+        EmployeeSnapshotCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+
+        CompletableFuture<EmployeeSnapshot> load = cache.refreshAsync();
+        loading.await();
+        cache.applyCreate(bob);
+        written.countDown();
+
+        assertEquals(List.of(alice, bob), load.join().getEmployees());
+        cache.applyDelete(alice.getId());
+        assertEquals(List.of(bob), cache.get().getEmployees());
+    }
+
+    @Test
+    void testRepeatedCreateReplacesEmployee() {
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice));
+        EmployeeSnapshotCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+        cache.get();
+        Employee renamed = alice.toBuilder().name("Alicia").build();
+
+        cache.applyCreate(bob);
+        cache.applyCreate(bob);
+        cache.applyCreate(renamed);
+        cache.applyDelete(UUID.randomUUID());
+
+        assertEquals(List.of(bob, renamed), cache.get().getEmployees());
+        assertTrue(cache.get().findByName("Alice").isEmpty());
+    }
+
+    @Test
+    void testRevalidateResetsAgeAndKeepsVersion() throws Exception {
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice));
+        EmployeeSnapshotCache cache = cache(Duration.ofMillis(20), Duration.ZERO, Duration.ZERO);
+        EmployeeSnapshot loaded = cache.get();
+        Thread.sleep(30);
+
+        cache.revalidate();
+
+        EmployeeSnapshot revalidated = cache.getIfLoaded().orElseThrow();
+        assertEquals(loaded.getVersion(), revalidated.getVersion());
+        assertEquals(List.of(alice), revalidated.getEmployees());
+        verify(employeeApiClient, times(1)).getAllEmployees();
+    }
+
+    @Test
+    void testReloadAlwaysLoads() {
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice), List.of(alice, bob));
+        EmployeeSnapshotCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+        cache.get();
+
+        EmployeeSnapshot reloaded = cache.reload();
+
+        assertEquals(List.of(alice, bob), reloaded.getEmployees());
+        assertSame(reloaded, cache.get());
+        verify(employeeApiClient, times(2)).getAllEmployees();
+    }
+
+    @Test
+    void testReloadOfSameRosterKeepsSnapshot() {
+        List<Employee> roster = List.of(alice, bob);
+        when(employeeApiClient.getAllEmployees()).thenReturn(roster);
+        EmployeeSnapshotCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+        EmployeeSnapshot loaded = cache.get();
+        String etag = cache.etagOf(loaded.getEmployees()).orElseThrow();
+
+        EmployeeSnapshot reloaded = cache.reload();
+
+        assertEquals(loaded.getVersion(), reloaded.getVersion());
+        assertEquals(Optional.of(etag), cache.etagOf(reloaded.getEmployees()));
+        cache.applyDelete(bob.getId());
+        cache.reload();
+        assertTrue(cache.get().getVersion() > loaded.getVersion());
+        assertNotEquals(Optional.of(etag), cache.etagOf(cache.get().getEmployees()));
+        assertTrue(cache.etagOf(List.of(alice, bob)).isEmpty());
+    }
+
+    @Test
+    void testGetIfLoadedNeverLoads() {
+        EmployeeSnapshotCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+
+        assertTrue(cache.getIfLoaded().isEmpty());
+        verify(employeeApiClient, never()).getAllEmployees();
+    }
+
+    @Test
+    void testMissingIdsAreRememberedUntilCreated() {
+        EmployeeSnapshotCache cache = new EmployeeSnapshotCache(
+                employeeApiClient, Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO, Duration.ofMinutes(1));
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(alice));
+        cache.get();
+
+        assertFalse(cache.isKnownMissing(bob.getId()));
+        cache.rememberMissing(bob.getId());
+        assertTrue(cache.isKnownMissing(bob.getId()));
+        cache.applyCreate(bob);
+        assertFalse(cache.isKnownMissing(bob.getId()));
+    }
+
+    @Test
+    void testWritesBeforeFirstLoadAreIgnored() {
+        EmployeeSnapshotCache cache = cache(Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+
+        cache.applyCreate(alice);
+
+        assertTrue(cache.peek().isEmpty());
+    }
+}
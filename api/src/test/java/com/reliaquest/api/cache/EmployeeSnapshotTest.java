@@ -0,0 +1,197 @@
+package com.reliaquest.api.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.model.Employee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class EmployeeSnapshotTest {
+
+    private static Employee employee(String name) {
+        return Employee.builder().id(UUID.randomUUID()).name(name).build();
+    }
+
+    private static Employee employee(String name, Integer salary) {
+        return Employee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(salary)
+                .build();
+    }
+
+    private static List<String> names(List<Employee> employees) {
+        return employees.stream().map(Employee::getName).collect(Collectors.toList());
+    }
+
+    private static List<Employee> roster(int size) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            employees.add(employee("Employee " + i));
+        }
+        return employees;
+    }
+
+    @Test
+    void testFindById() {
+        List<Employee> employees = roster(1000);
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees);
+
+        for (Employee employee : employees) {
+            assertSame(employee, snapshot.findById(employee.getId()));
+        }
+        assertNull(snapshot.findById(UUID.randomUUID()));
+        assertNull(snapshot.findById(null));
+    }
+
+    @Test
+    void testEmployeesWithoutIdAreListedButNotIndexed() {
+        Employee anonymous = Employee.builder().name("Anonymous").build();
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, List.of(anonymous));
+
+        assertEquals(List.of(anonymous), snapshot.getEmployees());
+        assertNull(snapshot.findById(UUID.randomUUID()));
+    }
+
+    @Test
+    void testWritesAreVisibleThroughIndexAndList() {
+        List<Employee> employees = roster(3);
+        Employee created = employee("Created");
+        EmployeeSnapshot loaded = EmployeeSnapshot.of(1, employees);
+
+        EmployeeSnapshot snapshot =
+                loaded.withAdded(2, created).withRemoved(3, employees.get(1).getId());
+
+        assertSame(created, snapshot.findById(created.getId()));
+        assertNull(snapshot.findById(employees.get(1).getId()));
+        assertEquals(List.of(employees.get(0), employees.get(2), created), snapshot.getEmployees());
+        assertEquals(3, snapshot.size());
+        assertEquals(employees, loaded.getEmployees());
+        assertSame(employees.get(1), loaded.findById(employees.get(1).getId()));
+    }
+
+    @Test
+    void testRemovingCreatedOrUnknownEmployee() {
+        Employee created = employee("Created");
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, roster(2)).withAdded(2, created);
+
+        EmployeeSnapshot removed = snapshot.withRemoved(3, created.getId());
+        assertNull(removed.findById(created.getId()));
+        assertEquals(2, removed.size());
+        assertSame(removed, removed.withRemoved(4, created.getId()));
+        assertSame(removed, removed.withRemoved(4, UUID.randomUUID()));
+    }
+
+    @Test
+    void testLargeOverlayIsCompacted() {
+        List<Employee> employees = roster(10);
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees);
+        List<Employee> expected = new ArrayList<>(employees.subList(5, 10));
+        for (int i = 0; i < 5; i++) {
+            snapshot = snapshot.withRemoved(i + 2, employees.get(i).getId());
+        }
+        for (int i = 0; i < 100; i++) {
+            Employee created = employee("Created " + i);
+            expected.add(created);
+            snapshot = snapshot.withAdded(i + 10, created);
+        }
+
+        assertEquals(expected, snapshot.getEmployees());
+        for (Employee employee : expected) {
+            assertSame(employee, snapshot.findById(employee.getId()));
+        }
+        assertNull(snapshot.findById(employees.get(0).getId()));
+        assertEquals(109, snapshot.getVersion());
+    }
+
+    @Test
+    void testSearchByNameMatchesCaseInsensitiveContains() {
+        Random random = new Random(42);
+        String[] parts = {
+            "Ann", "anna", "BOB", "bobby", "Jo", "jose", "JOS\u00C9", "Stra\u00DFe", "mc", "Mc'Lain", "aaa", " "
+        };
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                name.append(parts[random.nextInt(parts.length)]);
+            }
+            employees.add(employee(name.toString()));
+        }
+        employees.add(Employee.builder().id(UUID.randomUUID()).build());
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees)
+                .withRemoved(2, employees.get(0).getId())
+                .withAdded(3, employee("Annabel Bobson"));
+        List<Employee> roster = snapshot.getEmployees();
+
+        List<String> queries =
+                List.of("", "a", "An", "ann", "nna", "aaaa", "bobby", "OBB", "jos\u00e9", "SSE", "c'l", " b", "zzz");
+        for (String query : queries) {
+            List<Employee> expected = roster.stream()
+                    .filter(e ->
+                            e.getName() != null && e.getName().toLowerCase().contains(query.toLowerCase()))
+                    .collect(Collectors.toList());
+            assertEquals(expected, snapshot.searchByName(query), query);
+        }
+    }
+
+    @Test
+    void testTopEarnersKeepRosterOrderForTies() {
+        List<Employee> employees = List.of(
+                employee("A", 100), employee("B", 300), employee("C", 200), employee("D", 300), employee("E", null));
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees);
+
+        assertEquals(List.of("B", "D", "C", "A"), names(snapshot.topEarners(10)));
+        assertEquals(List.of("B", "D"), names(snapshot.topEarners(2)));
+        assertEquals(300, snapshot.highestSalary());
+    }
+
+    @Test
+    void testTopEarnersAfterDeletingTheMaximum() {
+        List<Employee> employees = List.of(employee("A", 100), employee("B", 300), employee("C", 200));
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees)
+                .withRemoved(2, employees.get(1).getId());
+
+        assertEquals(200, snapshot.highestSalary());
+        assertEquals(List.of("C", "A"), names(snapshot.topEarners(10)));
+    }
+
+    @Test
+    void testTopEarnersMergesCreatedEmployees() {
+        List<Employee> employees = List.of(employee("A", 100), employee("B", 300));
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees)
+                .withAdded(2, employee("X", 300))
+                .withAdded(3, employee("Y", 500))
+                .withAdded(4, employee("Z", 50));
+
+        assertEquals(List.of("Y", "B", "X", "A", "Z"), names(snapshot.topEarners(10)));
+        assertEquals(500, snapshot.highestSalary());
+        assertEquals(
+                names(snapshot.topEarners(10)),
+                names(snapshot.getEmployees().stream()
+                        .sorted((a, b) -> Integer.compare(b.getSalary(), a.getSalary()))
+                        .collect(Collectors.toList())));
+    }
+
+    @Test
+    void testHighestSalaryOfEmptyRoster() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, List.of());
+
+        assertEquals(0, snapshot.highestSalary());
+        assertTrue(snapshot.topEarners(10).isEmpty());
+    }
+
+    @Test
+    void testFindByNameIgnoresCaseAndKeepsRosterOrder() {
+        List<Employee> employees =
+                List.of(employee("Jo Smith"), employee("Jo Smithson"), employee("JO SMITH"), employee("Al"));
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees).withAdded(2, employee("jo smith"));
+
+        assertEquals(List.of("Jo Smith", "JO SMITH", "jo smith"), names(snapshot.findByName("jo Smith")));
+        assertTrue(snapshot.findByName("Jo").isEmpty());
+    }
+}
@@ -0,0 +1,120 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.client.AdaptiveRateLimiter.Priority;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveRateLimiterTest {
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+    private final AdaptiveRateLimiter rateLimiter = new AdaptiveRateLimiter(true, Duration.ofSeconds(1), clock::get);
+
+    private void accept(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertEquals(0, rateLimiter.acquire(Priority.READ));
+            rateLimiter.onAccepted();
+        }
+    }
+
+    /**
+     * 8 accepted calls, one 429, then probes once a second until the mock api's 30s window has passed.
+     */
+    private void learnBudgetAndWindow() {
+        accept(8);
+        assertEquals(0, rateLimiter.acquire(Priority.READ));
+        rateLimiter.onRejected();
+        for (int second = 1; second < 30; second++) {
+            clock.addAndGet(SECOND);
+            assertEquals(0, rateLimiter.acquire(Priority.READ));
+            rateLimiter.onRejected();
+        }
+        clock.addAndGet(SECOND);
+        assertEquals(0, rateLimiter.acquire(Priority.READ));
+        rateLimiter.onAccepted();
+    }
+
+    @Test
+    void testNothingIsHeldBackBeforeFirstRejection() {
+        accept(100);
+        assertEquals(0, rateLimiter.getBudget());
+        assertFalse(rateLimiter.isBlocked());
+    }
+
+    @Test
+    void testLearnsBudgetAndWindowFromRejections() {
+        learnBudgetAndWindow();
+
+        assertEquals(8, rateLimiter.getBudget());
+        assertEquals(Duration.ofSeconds(30), rateLimiter.getWindow());
+        assertFalse(rateLimiter.isBlocked());
+        assertEquals(7, rateLimiter.getTokens());
+    }
+
+    @Test
+    void testOnlyOneProbePerIntervalWhileBlocked() {
+        accept(5);
+        rateLimiter.onRejected();
+
+        assertTrue(rateLimiter.acquire(Priority.WRITE) > 0);
+        clock.addAndGet(SECOND);
+        assertEquals(0, rateLimiter.acquire(Priority.READ));
+        assertTrue(rateLimiter.acquire(Priority.READ) > 0);
+        assertEquals(1, rateLimiter.getDeniedCount(Priority.WRITE));
+        assertEquals(1, rateLimiter.getDeniedCount(Priority.READ));
+    }
+
+    @Test
+    void testReadsLeaveReserveForWrites() {
+        learnBudgetAndWindow();
+
+        // budget 8, the probe used one token, reads keep 2 for writes
+        accept(5);
+        assertTrue(rateLimiter.acquire(Priority.READ) > 0);
+        assertEquals(0, rateLimiter.acquire(Priority.WRITE));
+        assertEquals(0, rateLimiter.acquire(Priority.WRITE));
+        assertFalse(rateLimiter.isBlocked());
+    }
+
+    @Test
+    void testHoldsCallsBackUntilLearnedWindowEnds() {
+        learnBudgetAndWindow();
+        for (int i = 0; i < 7; i++) {
+            assertEquals(0, rateLimiter.acquire(Priority.WRITE));
+            rateLimiter.onAccepted();
+        }
+
+        long wait = rateLimiter.acquire(Priority.WRITE);
+        assertEquals(30 * SECOND, wait);
+        assertTrue(rateLimiter.isBlocked());
+
+        clock.addAndGet(30 * SECOND);
+        assertEquals(0, rateLimiter.acquire(Priority.READ));
+        rateLimiter.onAccepted();
+        assertFalse(rateLimiter.isBlocked());
+        assertEquals(30, rateLimiter.getRejectedCount());
+    }
+
+    @Test
+    void testCallsInFlightWhenBlockedDoNotEndTheWindow() {
+        accept(5);
+        rateLimiter.onRejected();
+        rateLimiter.onAccepted();
+
+        assertTrue(rateLimiter.isBlocked());
+        assertEquals(Duration.ZERO, rateLimiter.getWindow());
+    }
+
+    @Test
+    void testDisabledNeverHoldsBack() {
+        AdaptiveRateLimiter disabled = AdaptiveRateLimiter.disabled();
+        disabled.onAccepted();
+        disabled.onRejected();
+
+        assertEquals(0, disabled.acquire(Priority.READ));
+        assertEquals(0, disabled.getRejectedCount());
+    }
+}
@@ -0,0 +1,140 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private String fail(int status) {
+        calls.incrementAndGet();
+        throw new ApiClientException("error", null, status);
+    }
+
+    private String succeed() {
+        calls.incrementAndGet();
+        return "ok";
+    }
+
+    private static void failTimes(CircuitBreaker breaker, int times, int status) {
+        for (int i = 0; i < times; i++) {
+            assertThrows(
+                    ApiClientException.class,
+                    () -> breaker.execute(() -> {
+                        throw new ApiClientException("error", null, status);
+                    }));
+        }
+    }
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("op", 3, Duration.ofMinutes(1), 1);
+        failTimes(breaker, 2, 500);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        failTimes(breaker, 1, 504);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(1, breaker.getOpenedCount());
+    }
+
+    @Test
+    void testOpenCircuitFailsWithoutCalling() {
+        CircuitBreaker breaker = new CircuitBreaker("op", 1, Duration.ofMinutes(1), 1);
+        failTimes(breaker, 1, 503);
+
+        CircuitBreakerOpenException e =
+                assertThrows(CircuitBreakerOpenException.class, () -> breaker.execute(this::succeed));
+
+        assertEquals(503, e.getStatusCode());
+        assertTrue(e.getRetryAfter().compareTo(Duration.ZERO) > 0);
+        assertEquals(0, calls.get());
+        assertEquals(1, breaker.getRejectedCount());
+    }
+
+    @Test
+    void testSuccessesAndClientErrorsResetTheFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker("op", 2, Duration.ofMinutes(1), 1);
+        failTimes(breaker, 1, 500);
+        assertEquals("ok", breaker.execute(this::succeed));
+        failTimes(breaker, 1, 500);
+        assertThrows(ApiClientException.class, () -> breaker.execute(() -> fail(404)));
+        failTimes(breaker, 1, 500);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testTooManyRequestsCountsAsNeither() {
+        CircuitBreaker breaker = new CircuitBreaker("op", 2, Duration.ofMinutes(1), 1);
+        failTimes(breaker, 1, 500);
+        failTimes(breaker, 1, 429);
+        failTimes(breaker, 1, 500);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testCallerExceptionsCountAsNeither() {
+        CircuitBreaker breaker = new CircuitBreaker("op", 1, Duration.ofMinutes(1), 1);
+        assertThrows(
+                IllegalStateException.class,
+                () -> breaker.execute(() -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testSuccessfulProbeClosesTheCircuit() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("op", 1, Duration.ofMillis(10), 1);
+        failTimes(breaker, 1, 500);
+        Thread.sleep(20);
+
+        assertEquals("ok", breaker.execute(this::succeed));
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testFailedProbeOpensTheCircuitAgain() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("op", 1, Duration.ofMillis(10), 1);
+        failTimes(breaker, 1, 500);
+        Thread.sleep(20);
+
+        failTimes(breaker, 1, 500);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpenedCount());
+        assertThrows(CircuitBreakerOpenException.class, () -> breaker.execute(this::succeed));
+    }
+
+    @Test
+    void testOnlyProbesAreLetThroughWhileHalfOpen() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("op", 1, Duration.ofMillis(10), 1);
+        failTimes(breaker, 1, 500);
+        Thread.sleep(20);
+
+        String result = breaker.execute(() -> {
+            assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+            assertThrows(CircuitBreakerOpenException.class, () -> breaker.execute(this::succeed));
+            return "probe";
+        });
+
+        assertEquals("probe", result);
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void testDisabledNeverOpens() {
+        CircuitBreaker breaker = CircuitBreaker.disabled("op");
+        failTimes(breaker, 10, 500);
+
+        assertEquals("ok", breaker.execute(this::succeed));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
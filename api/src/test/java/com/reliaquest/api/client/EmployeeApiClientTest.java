@@ -4,30 +4,43 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.common.CallDeadline;
 import com.reliaquest.api.model.Employee;
-import java.util.Collections;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 class EmployeeApiClientTest {
     @Mock
     private RestTemplate restTemplate;
 
-    @Mock
-    private ObjectMapper objectMapper;
-
     @InjectMocks
     private EmployeeApiClient employeeApiClient;
 
@@ -40,9 +53,6 @@ class EmployeeApiClientTest {
             var restTemplateField = EmployeeApiClient.class.getDeclaredField("restTemplate");
             restTemplateField.setAccessible(true);
             restTemplateField.set(employeeApiClient, restTemplate);
-            var objectMapperField = EmployeeApiClient.class.getDeclaredField("objectMapper");
-            objectMapperField.setAccessible(true);
-            objectMapperField.set(employeeApiClient, objectMapper);
             var urlField = EmployeeApiClient.class.getDeclaredField("mockApiUrl");
             urlField.setAccessible(true);
             urlField.set(employeeApiClient, "http://mock-api");
@@ -51,35 +61,130 @@ class EmployeeApiClientTest {
         }
     }
 
+    /**
+     * Makes the mocked RestTemplate run the client's response extractor against the given body,
+     * I/O errors are wrapped the same way RestTemplate does.
+     */
+    private void respondWith(HttpMethod method, String json) {
+        when(restTemplate.execute(any(URI.class), eq(method), any(), any())).thenAnswer(invocation -> {
+            ResponseExtractor<?> extractor = invocation.getArgument(3);
+            try {
+                return extractor.extractData(
+                        new MockClientHttpResponse(json.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+            } catch (IOException e) {
+                throw new ResourceAccessException(e.getMessage(), e);
+            }
+        });
+    }
+
+    private void failWith(HttpMethod method, RuntimeException e) {
+        when(restTemplate.execute(any(URI.class), eq(method), any(), any())).thenThrow(e);
+    }
+
+    private static HttpClientErrorException tooManyRequests() {
+        return HttpClientErrorException.create(
+                "429 TOO_MANY_REQUESTS",
+                org.springframework.http.HttpStatusCode.valueOf(429),
+                "Too Many Requests",
+                null,
+                null,
+                null);
+    }
+
     @Test
     void testGetAllEmployeesSuccess() {
-        Map<String, Object> body = new HashMap<>();
-        body.put("data", Collections.emptyList());
-        ResponseEntity<Map<String, Object>> response = ResponseEntity.ok(body);
-        when(restTemplate.getForEntity(anyString(), eq(Map.class))).thenReturn((ResponseEntity) response);
+        respondWith(HttpMethod.GET, "{\"data\":[],\"status\":\"Successfully processed request.\"}");
         List<Employee> result = employeeApiClient.getAllEmployees();
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void testGetAllEmployeesParsesEnvelope() {
+        UUID id = UUID.randomUUID();
+        respondWith(
+                HttpMethod.GET,
+                "{\"data\":[{\"id\":\"" + id + "\",\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800,"
+                        + "\"employee_age\":61,\"employee_title\":\"Vice Chair\","
+                        + "\"employee_email\":\"tnixon@company.com\"}],"
+                        + "\"status\":\"Successfully processed request.\"}");
+        List<Employee> result = employeeApiClient.getAllEmployees();
+        assertEquals(1, result.size());
+        assertEquals(id, result.get(0).getId());
+        assertEquals("Tiger Nixon", result.get(0).getName());
+        assertEquals(320800, result.get(0).getSalary());
+        assertEquals(61, result.get(0).getAge());
+        assertEquals("tnixon@company.com", result.get(0).getEmail());
+    }
+
+    @Test
+    void testGetAllEmployeesReusesRosterOnNotModified() {
+        List<String> ifNoneMatch = new ArrayList<>();
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), any(), any()))
+                .thenAnswer(invocation -> {
+                    MockClientHttpRequest request = new MockClientHttpRequest();
+                    ((RequestCallback) invocation.getArgument(2)).doWithRequest(request);
+                    ifNoneMatch.add(request.getHeaders().getFirst("If-None-Match"));
+                    ResponseExtractor<?> extractor = invocation.getArgument(3);
+                    MockClientHttpResponse response = ifNoneMatch.size() == 1
+                            ? new MockClientHttpResponse(
+                                    "{\"data\":[{\"employee_name\":\"A\"}]}".getBytes(StandardCharsets.UTF_8),
+                                    HttpStatus.OK)
+                            : new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+                    response.getHeaders().setETag("W/\"r-1\"");
+                    return extractor.extractData(response);
+                });
+
+        List<Employee> first = employeeApiClient.getAllEmployees();
+        List<Employee> second = employeeApiClient.getAllEmployees();
+
+        assertEquals(List.of("A"), second.stream().map(Employee::getName).toList());
+        assertSame(first, second);
+        assertEquals(Arrays.asList(null, "W/\"r-1\""), ifNoneMatch);
+        assertEquals(1, employeeApiClient.getNotModifiedCount());
+    }
+
+    @Test
+    void testForEachEmployeeStreamsEveryEmployee() {
+        respondWith(HttpMethod.GET, "{\"data\":[{\"employee_name\":\"A\"},{\"employee_name\":\"B\"}]}");
+        List<String> names = new ArrayList<>();
+        int count = employeeApiClient.forEachEmployee(employee -> names.add(employee.getName()));
+        assertEquals(2, count);
+        assertEquals(List.of("A", "B"), names);
+    }
+
+    @Test
+    void testForEachEmployeeRethrowsConsumerFailureWithoutOpeningTheCircuit() throws Exception {
+        setField("useCircuitBreaker", true);
+        setField("circuitFailureThreshold", 1);
+        setField("circuitOpenDuration", java.time.Duration.ofMinutes(1));
+        setField("circuitHalfOpenProbes", 1);
+        employeeApiClient.init();
+        respondWith(HttpMethod.GET, "{\"data\":[{\"employee_name\":\"A\"},{\"employee_name\":\"B\"}]}");
+        UncheckedIOException gone = new UncheckedIOException(new IOException("Broken pipe"));
+
+        UncheckedIOException thrown = assertThrows(
+                UncheckedIOException.class,
+                () -> employeeApiClient.forEachEmployee(employee -> {
+                    throw gone;
+                }));
+
+        assertSame(gone, thrown);
+        assertEquals(2, employeeApiClient.forEachEmployee(employee -> {}));
+    }
+
     @Test
     void testGetAllEmployeesClientError() {
-        when(restTemplate.getForEntity(anyString(), eq(Map.class)))
-                .thenThrow(HttpClientErrorException.create(
-                        "429 TOO_MANY_REQUESTS",
-                        org.springframework.http.HttpStatusCode.valueOf(429),
-                        "Too Many Requests",
-                        null,
-                        null,
-                        null));
+        failWith(HttpMethod.GET, tooManyRequests());
         ApiClientException ex = assertThrows(ApiClientException.class, () -> employeeApiClient.getAllEmployees());
         assertEquals(429, ex.getStatusCode());
     }
 
     @Test
     void testGetAllEmployeesServerError() {
-        when(restTemplate.getForEntity(anyString(), eq(Map.class)))
-                .thenThrow(HttpServerErrorException.create(
+        failWith(
+                HttpMethod.GET,
+                HttpServerErrorException.create(
                         "500 INTERNAL_SERVER_ERROR",
                         org.springframework.http.HttpStatusCode.valueOf(500),
                         "Internal Server Error",
@@ -90,25 +195,32 @@ class EmployeeApiClientTest {
         assertEquals(500, ex.getStatusCode());
     }
 
+    @Test
+    void testGetAllEmployeesMalformedBody() {
+        respondWith(HttpMethod.GET, "{\"data\":[{\"employee_name\":\"A\"}");
+        ApiClientException ex = assertThrows(ApiClientException.class, () -> employeeApiClient.getAllEmployees());
+        assertEquals(500, ex.getStatusCode());
+    }
+
     @Test
     void testGetEmployeeByIdNotFound() {
-        Map<String, Object> body = new HashMap<>();
-        body.put("data", null);
-        ResponseEntity<Map<String, Object>> response = ResponseEntity.ok(body);
-        when(restTemplate.getForEntity(anyString(), eq(Map.class))).thenReturn((ResponseEntity) response);
+        respondWith(HttpMethod.GET, "{\"data\":null}");
         ApiClientException ex = assertThrows(ApiClientException.class, () -> employeeApiClient.getEmployeeById("id"));
         assertEquals(404, ex.getStatusCode());
     }
 
+    @Test
+    void testGetEmployeeByIdSuccess() {
+        respondWith(HttpMethod.GET, "{\"data\":{\"employee_name\":\"Bill Bob\",\"employee_salary\":89750}}");
+        Employee result = employeeApiClient.getEmployeeById("id");
+        assertEquals("Bill Bob", result.getName());
+        assertEquals(89750, result.getSalary());
+    }
+
     @Test
     void testCreateEmployeeSuccess() {
         com.reliaquest.api.model.CreateEmployeeDTO dto = new com.reliaquest.api.model.CreateEmployeeDTO();
-        Map<String, Object> responseBody = new HashMap<>();
-        Employee employee = new Employee();
-        responseBody.put("data", new HashMap<>());
-        ResponseEntity<Map<String, Object>> response = ResponseEntity.ok(responseBody);
-        when(restTemplate.postForEntity(anyString(), any(), eq(Map.class))).thenReturn((ResponseEntity) response);
-        when(objectMapper.convertValue(any(), eq(Employee.class))).thenReturn(employee);
+        respondWith(HttpMethod.POST, "{\"data\":{}}");
         Employee result = employeeApiClient.createEmployee(dto);
         assertNotNull(result);
     }
@@ -116,14 +228,7 @@ class EmployeeApiClientTest {
     @Test
     void testCreateEmployeeClientError() {
         com.reliaquest.api.model.CreateEmployeeDTO dto = new com.reliaquest.api.model.CreateEmployeeDTO();
-        when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
-                .thenThrow(HttpClientErrorException.create(
-                        "429 TOO_MANY_REQUESTS",
-                        org.springframework.http.HttpStatusCode.valueOf(429),
-                        "Too Many Requests",
-                        null,
-                        null,
-                        null));
+        failWith(HttpMethod.POST, tooManyRequests());
         ApiClientException ex = assertThrows(ApiClientException.class, () -> employeeApiClient.createEmployee(dto));
         assertEquals(429, ex.getStatusCode());
     }
@@ -131,11 +236,7 @@ class EmployeeApiClientTest {
     @Test
     void testDeleteEmployeeByNameSuccess() {
         String name = "John Doe";
-        Map<String, Object> responseBody = new HashMap<>();
-        responseBody.put("data", Boolean.TRUE);
-        ResponseEntity<Map<String, Object>> response = ResponseEntity.ok(responseBody);
-        when(restTemplate.exchange(anyString(), eq(HttpMethod.DELETE), any(), eq(Map.class)))
-                .thenReturn((ResponseEntity) response);
+        respondWith(HttpMethod.DELETE, "{\"data\":true}");
         String result = employeeApiClient.deleteEmployeeByName(name);
         assertEquals(name, result);
     }
@@ -143,11 +244,7 @@ class EmployeeApiClientTest {
     @Test
     void testDeleteEmployeeByNameFailure() {
         String name = "John Doe";
-        Map<String, Object> responseBody = new HashMap<>();
-        responseBody.put("data", Boolean.FALSE);
-        ResponseEntity<Map<String, Object>> response = ResponseEntity.ok(responseBody);
-        when(restTemplate.exchange(anyString(), eq(HttpMethod.DELETE), any(), eq(Map.class)))
-                .thenReturn((ResponseEntity) response);
+        respondWith(HttpMethod.DELETE, "{\"data\":false}");
         ApiClientException ex =
                 assertThrows(ApiClientException.class, () -> employeeApiClient.deleteEmployeeByName(name));
         assertEquals(500, ex.getStatusCode());
@@ -156,16 +253,231 @@ class EmployeeApiClientTest {
     @Test
     void testDeleteEmployeeByNameClientError() {
         String name = "John Doe";
-        when(restTemplate.exchange(anyString(), eq(HttpMethod.DELETE), any(), eq(Map.class)))
-                .thenThrow(HttpClientErrorException.create(
-                        "429 TOO_MANY_REQUESTS",
-                        org.springframework.http.HttpStatusCode.valueOf(429),
-                        "Too Many Requests",
-                        null,
-                        null,
-                        null));
+        failWith(HttpMethod.DELETE, tooManyRequests());
         ApiClientException ex =
                 assertThrows(ApiClientException.class, () -> employeeApiClient.deleteEmployeeByName(name));
         assertEquals(429, ex.getStatusCode());
     }
+
+    /**
+     * Serves a two page roster: A and B on the first page, C on the last.
+     */
+    private void respondWithPages() {
+        try {
+            var pageSizeField = EmployeeApiClient.class.getDeclaredField("pageSize");
+            pageSizeField.setAccessible(true);
+            pageSizeField.set(employeeApiClient, 2);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), any(), any()))
+                .thenAnswer(invocation -> {
+                    URI url = invocation.getArgument(0);
+                    ResponseExtractor<?> extractor = invocation.getArgument(3);
+                    MockClientHttpResponse response;
+                    if (url.getQuery().equals("limit=2")) {
+                        response = new MockClientHttpResponse(
+                                "{\"data\":[{\"employee_name\":\"A\"},{\"employee_name\":\"B\"}]}"
+                                        .getBytes(StandardCharsets.UTF_8),
+                                HttpStatus.OK);
+                        response.getHeaders().add(EmployeeApiClient.NEXT_CURSOR_HEADER, "c1");
+                    } else if (url.getQuery().equals("limit=2&cursor=c1")) {
+                        response = new MockClientHttpResponse(
+                                "{\"data\":[{\"employee_name\":\"C\"}]}".getBytes(StandardCharsets.UTF_8),
+                                HttpStatus.OK);
+                    } else {
+                        throw new AssertionError("Unexpected page request " + url);
+                    }
+                    return extractor.extractData(response);
+                });
+    }
+
+    @Test
+    void testGetAllEmployeesFollowsPageCursors() {
+        respondWithPages();
+        List<Employee> result = employeeApiClient.getAllEmployees();
+        assertEquals(
+                List.of("A", "B", "C"), result.stream().map(Employee::getName).toList());
+        verify(restTemplate, times(2)).execute(any(URI.class), eq(HttpMethod.GET), any(), any());
+    }
+
+    @Test
+    void testForEachEmployeeCountsAcrossPages() {
+        respondWithPages();
+        List<String> names = new ArrayList<>();
+        assertEquals(3, employeeApiClient.forEachEmployee(employee -> names.add(employee.getName())));
+        assertEquals(List.of("A", "B", "C"), names);
+    }
+
+    @Test
+    void testStreamAllEmployeesFetchesPagesOnDemand() {
+        respondWithPages();
+        assertEquals(
+                "A",
+                employeeApiClient.streamAllEmployees().findFirst().orElseThrow().getName());
+        verify(restTemplate, times(1)).execute(any(URI.class), eq(HttpMethod.GET), any(), any());
+    }
+
+    private void enablePushdown() {
+        try {
+            var pushdownField = EmployeeApiClient.class.getDeclaredField("usePushdown");
+            pushdownField.setAccessible(true);
+            pushdownField.set(employeeApiClient, true);
+            var recheckField = EmployeeApiClient.class.getDeclaredField("pushdownRecheckInterval");
+            recheckField.setAccessible(true);
+            recheckField.set(employeeApiClient, java.time.Duration.ofMinutes(5));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void testPushdownDisabledByDefault() {
+        assertTrue(employeeApiClient.getHighestSalary().isEmpty());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testGetHighestSalaryPushedDown() {
+        enablePushdown();
+        respondWith(HttpMethod.GET, "{\"data\":320800,\"status\":\"Successfully processed request.\"}");
+        assertEquals(320800, employeeApiClient.getHighestSalary().orElseThrow());
+        verify(restTemplate).execute(eq(URI.create("http://mock-api/max-salary")), eq(HttpMethod.GET), any(), any());
+    }
+
+    @Test
+    void testSearchPushedDownEncodesQuery() {
+        enablePushdown();
+        respondWith(HttpMethod.GET, "{\"data\":[{\"employee_name\":\"A+B\"}]}");
+        List<Employee> result = employeeApiClient.searchEmployeesByName("a+b").orElseThrow();
+        assertEquals("A+B", result.get(0).getName());
+        verify(restTemplate)
+                .execute(eq(URI.create("http://mock-api/search?q=a%2Bb")), eq(HttpMethod.GET), any(), any());
+    }
+
+    @Test
+    void testPushdownUnsupportedFallsBackUntilRecheck() {
+        enablePushdown();
+        failWith(
+                HttpMethod.GET,
+                HttpServerErrorException.create(
+                        "500 INTERNAL_SERVER_ERROR",
+                        org.springframework.http.HttpStatusCode.valueOf(500),
+                        "Internal Server Error",
+                        null,
+                        null,
+                        null));
+        assertTrue(employeeApiClient.getTopEarners(10).isEmpty());
+        assertTrue(employeeApiClient.getTopEarners(10).isEmpty());
+        verify(restTemplate, times(1)).execute(any(URI.class), eq(HttpMethod.GET), any(), any());
+    }
+
+    @Test
+    void testPushdownRateLimitedFallsBackAndRetriesNextTime() {
+        enablePushdown();
+        failWith(HttpMethod.GET, tooManyRequests());
+        assertTrue(employeeApiClient.getHighestSalary().isEmpty());
+        assertTrue(employeeApiClient.getHighestSalary().isEmpty());
+        verify(restTemplate, times(2)).execute(any(URI.class), eq(HttpMethod.GET), any(), any());
+    }
+
+    @Test
+    void testResponseTimeoutIsGatewayTimeout() {
+        failWith(HttpMethod.GET, new ResourceAccessException("Read timed out", new SocketTimeoutException()));
+        ApiClientException ex = assertThrows(ApiClientException.class, () -> employeeApiClient.getEmployeeById("1"));
+        assertEquals(504, ex.getStatusCode());
+    }
+
+    @Test
+    void testPassedDeadlineFailsWithoutCallingTheMockApi() {
+        ApiClientException ex = assertThrows(
+                ApiClientException.class,
+                () -> CallDeadline.within(System.nanoTime() - 1, () -> employeeApiClient.getAllEmployees()));
+        assertEquals(504, ex.getStatusCode());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testCoalescedCallersEachWaitUntilTheirOwnDeadline() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Duration> upstreamDeadlines = new ArrayList<>();
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), any(), any()))
+                .thenAnswer(invocation -> {
+                    upstreamDeadlines.add(CallDeadline.remaining());
+                    release.await(5, TimeUnit.SECONDS);
+                    ResponseExtractor<?> extractor = invocation.getArgument(3);
+                    return extractor.extractData(new MockClientHttpResponse(
+                            "{\"data\":{\"employee_name\":\"Bill Bob\"}}".getBytes(StandardCharsets.UTF_8),
+                            HttpStatus.OK));
+                });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Employee> shortDeadline = executor.submit(() -> CallDeadline.within(
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100),
+                    () -> employeeApiClient.getEmployeeById("1")));
+            while (employeeApiClient.getRequestCoalescer().getInFlightCount() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<Employee> longDeadline = executor.submit(() -> CallDeadline.within(
+                    System.nanoTime() + TimeUnit.SECONDS.toNanos(10), () -> employeeApiClient.getEmployeeById("1")));
+
+            Exception ex = assertThrows(Exception.class, () -> shortDeadline.get(5, TimeUnit.SECONDS));
+            assertEquals(504, ((ApiClientException) ex.getCause()).getStatusCode());
+            while (employeeApiClient.getRequestCoalescer().getCoalescedCount() == 0) {
+                Thread.onSpinWait();
+            }
+            assertFalse(longDeadline.isDone());
+            release.countDown();
+            assertEquals("Bill Bob", longDeadline.get(5, TimeUnit.SECONDS).getName());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        verify(restTemplate, times(1)).execute(any(URI.class), eq(HttpMethod.GET), any(), any());
+        assertEquals(1, employeeApiClient.getRequestCoalescer().getCoalescedCount());
+        // the shared call has the read budget, not the first caller's 100ms
+        assertTrue(upstreamDeadlines.get(0).compareTo(Duration.ofSeconds(1)) > 0);
+    }
+
+    @Test
+    void testPushdownTimedOutFallsBackAndRetriesNextTime() {
+        enablePushdown();
+        failWith(HttpMethod.GET, new ResourceAccessException("Read timed out", new SocketTimeoutException()));
+        assertTrue(employeeApiClient.getHighestSalary().isEmpty());
+        assertTrue(employeeApiClient.getHighestSalary().isEmpty());
+        verify(restTemplate, times(2)).execute(any(URI.class), eq(HttpMethod.GET), any(), any());
+    }
+
+    @Test
+    void testOpenCircuitStopsCallingTheMockApiForThatOperation() throws Exception {
+        setField("useCircuitBreaker", true);
+        setField("circuitFailureThreshold", 2);
+        setField("circuitOpenDuration", java.time.Duration.ofMinutes(1));
+        setField("circuitHalfOpenProbes", 1);
+        employeeApiClient.init();
+        failWith(
+                HttpMethod.GET,
+                HttpServerErrorException.create(
+                        "503 SERVICE_UNAVAILABLE",
+                        org.springframework.http.HttpStatusCode.valueOf(503),
+                        "Service Unavailable",
+                        null,
+                        null,
+                        null));
+
+        assertThrows(ApiClientException.class, () -> employeeApiClient.getEmployeeById("1"));
+        assertThrows(ApiClientException.class, () -> employeeApiClient.getEmployeeById("2"));
+        assertThrows(CircuitBreakerOpenException.class, () -> employeeApiClient.getEmployeeById("3"));
+        verify(restTemplate, times(2)).execute(any(URI.class), eq(HttpMethod.GET), any(), any());
+
+        ApiClientException roster = assertThrows(ApiClientException.class, () -> employeeApiClient.getAllEmployees());
+        assertFalse(roster instanceof CircuitBreakerOpenException);
+        verify(restTemplate, times(3)).execute(any(URI.class), eq(HttpMethod.GET), any(), any());
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        var field = EmployeeApiClient.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(employeeApiClient, value);
+    }
 }
@@ -0,0 +1,85 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.common.CommonObjectMapper;
+import com.reliaquest.api.model.EmployeeChange;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EmployeeChangeStreamReaderTest {
+    private final EmployeeChangeStreamReader reader =
+            new EmployeeChangeStreamReader(CommonObjectMapper.getObjectMapper());
+
+    private final List<EmployeeChange> changes = new ArrayList<>();
+    private final List<Long> heartbeats = new ArrayList<>();
+
+    private final EmployeeChangeStreamReader.Listener listener = new EmployeeChangeStreamReader.Listener() {
+        @Override
+        public void onChange(EmployeeChange change) {
+            changes.add(change);
+        }
+
+        @Override
+        public void onHeartbeat(long sequence) {
+            heartbeats.add(sequence);
+        }
+    };
+
+    private static InputStream sse(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testReadsChangesAndHeartbeatsInOrder() throws IOException {
+        reader.read(
+                sse("id:7\nevent:change\ndata:{\"sequence\":7,\"type\":\"CREATED\",\"employee\":"
+                        + "{\"id\":\"4a3a170b-22cd-4ac2-aad1-9bb5b34a1507\",\"employee_name\":\"Tiger Nixon\","
+                        + "\"employee_salary\":320800}}\n\n"
+                        + "event: heartbeat\ndata: 7\n\n"
+                        + "id:8\nevent:change\ndata:{\"sequence\":8,\"type\":\"DELETED\",\"employee\":"
+                        + "{\"id\":\"4a3a170b-22cd-4ac2-aad1-9bb5b34a1507\",\"employee_name\":\"Tiger Nixon\"}}\n\n"),
+                listener);
+
+        assertEquals(2, changes.size());
+        assertEquals(7, changes.get(0).getSequence());
+        assertEquals(EmployeeChange.Type.CREATED, changes.get(0).getType());
+        assertEquals("Tiger Nixon", changes.get(0).getEmployee().getName());
+        assertEquals(320800, changes.get(0).getEmployee().getSalary());
+        assertEquals(EmployeeChange.Type.DELETED, changes.get(1).getType());
+        assertEquals(
+                "4a3a170b-22cd-4ac2-aad1-9bb5b34a1507",
+                changes.get(1).getEmployee().getId().toString());
+        assertEquals(List.of(7L), heartbeats);
+    }
+
+    @Test
+    void testSkipsCommentsAndUnknownEvents() throws IOException {
+        reader.read(sse(":connected\n\nevent:other\ndata:x\n\nevent:heartbeat\ndata:3\n\n"), listener);
+
+        assertTrue(changes.isEmpty());
+        assertEquals(List.of(3L), heartbeats);
+    }
+
+    @Test
+    void testEventWithoutTrailingBlankLineIsDropped() throws IOException {
+        reader.read(sse("event:heartbeat\ndata:3\n\nevent:heartbeat\ndata:4"), listener);
+
+        assertEquals(List.of(3L), heartbeats);
+    }
+
+    @Test
+    void testResyncFailsWithGone() {
+        ApiClientException ex = assertThrows(
+                ApiClientException.class,
+                () -> reader.read(sse("event:heartbeat\ndata:3\n\nevent:resync\ndata:3\n\n"), listener));
+
+        assertEquals(410, ex.getStatusCode());
+        assertEquals(List.of(3L), heartbeats);
+    }
+}
@@ -0,0 +1,84 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.reliaquest.api.common.CommonObjectMapper;
+import com.reliaquest.api.model.Employee;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EmployeeEnvelopeReaderTest {
+    private final EmployeeEnvelopeReader reader = new EmployeeEnvelopeReader(CommonObjectMapper.getObjectMapper());
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testReadsEmployeeArrayAndSkipsOtherFields() throws IOException {
+        List<Employee> employees = new ArrayList<>();
+        Integer count = reader.read(
+                json("{\"status\":\"Successfully processed request.\",\"data\":["
+                        + "{\"id\":\"4a3a170b-22cd-4ac2-aad1-9bb5b34a1507\",\"employee_name\":\"Tiger Nixon\","
+                        + "\"employee_salary\":320800,\"employee_age\":61},"
+                        + "{\"employee_name\":\"Bill Bob\",\"employee_salary\":89750}],\"error\":null}"),
+                reader.employees(employees::add));
+
+        assertEquals(2, count);
+        assertEquals("Tiger Nixon", employees.get(0).getName());
+        assertEquals(320800, employees.get(0).getSalary());
+        assertEquals(
+                "4a3a170b-22cd-4ac2-aad1-9bb5b34a1507", employees.get(0).getId().toString());
+        assertEquals("Bill Bob", employees.get(1).getName());
+    }
+
+    @Test
+    void testSkipsArrayItemsThatAreNotObjects() throws IOException {
+        List<Employee> employees = new ArrayList<>();
+        Integer count = reader.read(
+                json("{\"data\":[42,{\"employee_name\":\"A\"},[1,2],null]}"), reader.employees(employees::add));
+
+        assertEquals(1, count);
+        assertEquals("A", employees.get(0).getName());
+    }
+
+    @Test
+    void testEmitsEmployeesBeforeTheWholeBodyIsRead() {
+        List<Employee> employees = new ArrayList<>();
+        assertThrows(
+                JsonParseException.class,
+                () -> reader.read(
+                        json("{\"data\":[{\"employee_name\":\"A\"},{\"employee_name\":"),
+                        reader.employees(employees::add)));
+
+        assertEquals(1, employees.size());
+    }
+
+    @Test
+    void testMissingOrNullDataReadsAsNull() throws IOException {
+        assertNull(reader.read(json("{\"status\":\"Successfully processed request.\"}"), reader.employee()));
+        assertNull(reader.read(json("{\"data\":null}"), reader.employee()));
+    }
+
+    @Test
+    void testReadsSingleEmployeeAndBoolean() throws IOException {
+        Employee employee = reader.read(json("{\"data\":{\"employee_name\":\"Jill Jenkins\"}}"), reader.employee());
+        assertEquals("Jill Jenkins", employee.getName());
+
+        assertTrue(reader.read(json("{\"data\":true}"), reader.bool()));
+        assertFalse(reader.read(json("{\"data\":false}"), reader.bool()));
+    }
+
+    @Test
+    void testRejectsUnexpectedShapes() {
+        assertThrows(JsonParseException.class, () -> reader.read(json("[]"), reader.employee()));
+        assertThrows(JsonParseException.class, () -> reader.read(json("{\"data\":{}}"), reader.employees(e -> {})));
+        assertThrows(JsonParseException.class, () -> reader.read(json("{\"data\":\"yes\"}"), reader.bool()));
+    }
+}
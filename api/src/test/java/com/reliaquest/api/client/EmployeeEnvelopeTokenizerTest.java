@@ -0,0 +1,112 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.reliaquest.api.common.CommonObjectMapper;
+import com.reliaquest.api.model.Employee;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EmployeeEnvelopeTokenizerTest {
+    private static final String ROSTER = "{\"status\":\"Successfully processed request.\","
+            + "\"meta\":{\"data\":[{\"employee_name\":\"Not an employee\"}]},\"data\":["
+            + "{\"id\":\"4a3a170b-22cd-4ac2-aad1-9bb5b34a1507\",\"employee_name\":\"Tiger Nixon\","
+            + "\"employee_salary\":320800,\"employee_age\":61},"
+            + "{\"employee_name\":\"Bill Bob\",\"employee_salary\":89750}],\"error\":null}";
+
+    private static EmployeeEnvelopeTokenizer tokenizer() throws IOException {
+        return new EmployeeEnvelopeTokenizer(CommonObjectMapper.getObjectMapper());
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testReadsEmployeeArrayAndSkipsOtherFields() throws IOException {
+        EmployeeEnvelopeTokenizer tokenizer = tokenizer();
+        byte[] json = bytes(ROSTER);
+        List<Employee> employees = new ArrayList<>(tokenizer.feed(json, 0, json.length));
+        employees.addAll(tokenizer.endOfInput());
+
+        assertEquals(2, employees.size());
+        assertEquals("Tiger Nixon", employees.get(0).getName());
+        assertEquals(320800, employees.get(0).getSalary());
+        assertEquals(
+                "4a3a170b-22cd-4ac2-aad1-9bb5b34a1507", employees.get(0).getId().toString());
+        assertEquals("Bill Bob", employees.get(1).getName());
+    }
+
+    @Test
+    void testReadsTheSameEmployeesWhereverTheBodyIsSplit() throws IOException {
+        byte[] json = bytes(ROSTER);
+        for (int split = 0; split <= json.length; split++) {
+            EmployeeEnvelopeTokenizer tokenizer = tokenizer();
+            List<Employee> employees = new ArrayList<>(tokenizer.feed(json, 0, split));
+            employees.addAll(tokenizer.feed(json, split, json.length - split));
+            employees.addAll(tokenizer.endOfInput());
+
+            assertEquals(2, employees.size(), "split at " + split);
+            assertEquals("Tiger Nixon", employees.get(0).getName(), "split at " + split);
+            assertEquals("Bill Bob", employees.get(1).getName(), "split at " + split);
+        }
+    }
+
+    @Test
+    void testEmitsEachEmployeeWithTheChunkThatCompletesIt() throws IOException {
+        EmployeeEnvelopeTokenizer tokenizer = tokenizer();
+        byte[] first = bytes("{\"data\":[{\"employee_name\":\"A\"},{\"employee_name\":");
+        byte[] rest = bytes("\"B\"}]}");
+
+        List<Employee> employees = tokenizer.feed(first, 0, first.length);
+        assertEquals(1, employees.size());
+        assertEquals("A", employees.get(0).getName());
+
+        employees = tokenizer.feed(rest, 0, rest.length);
+        assertEquals(1, employees.size());
+        assertEquals("B", employees.get(0).getName());
+        assertTrue(tokenizer.endOfInput().isEmpty());
+    }
+
+    @Test
+    void testSkipsArrayItemsThatAreNotObjects() throws IOException {
+        EmployeeEnvelopeTokenizer tokenizer = tokenizer();
+        byte[] json = bytes("{\"data\":[42,{\"employee_name\":\"A\"},[1,{\"employee_name\":\"B\"}],null]}");
+        List<Employee> employees = tokenizer.feed(json, 0, json.length);
+
+        assertEquals(1, employees.size());
+        assertEquals("A", employees.get(0).getName());
+        assertTrue(tokenizer.endOfInput().isEmpty());
+    }
+
+    @Test
+    void testReadsNoEmployeesWhenDataIsMissingOrNull() throws IOException {
+        for (String json : List.of("{\"status\":\"ok\"}", "{\"data\":null,\"error\":\"boom\"}")) {
+            EmployeeEnvelopeTokenizer tokenizer = tokenizer();
+            byte[] body = bytes(json);
+            assertTrue(tokenizer.feed(body, 0, body.length).isEmpty());
+            assertTrue(tokenizer.endOfInput().isEmpty());
+        }
+    }
+
+    @Test
+    void testRejectsTruncatedBody() throws IOException {
+        EmployeeEnvelopeTokenizer tokenizer = tokenizer();
+        byte[] json = bytes("{\"data\":[{\"employee_name\":\"A\"},{\"employee_name\":");
+        assertEquals(1, tokenizer.feed(json, 0, json.length).size());
+
+        assertThrows(JsonParseException.class, tokenizer::endOfInput);
+    }
+
+    @Test
+    void testRejectsBodyThatIsNotAnEnvelope() throws IOException {
+        EmployeeEnvelopeTokenizer tokenizer = tokenizer();
+        byte[] json = bytes("[{\"employee_name\":\"A\"}]");
+
+        assertThrows(JsonParseException.class, () -> tokenizer.feed(json, 0, json.length));
+    }
+}
@@ -0,0 +1,43 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyTrackerTest {
+
+    @Test
+    void testUnknownUntilMinSamples() {
+        LatencyTracker tracker = new LatencyTracker(0.95, 5);
+        for (int i = 0; i < 4; i++) {
+            tracker.record(100);
+        }
+        assertEquals(-1, tracker.percentileNanos());
+
+        tracker.record(100);
+        assertEquals(100, tracker.percentileNanos());
+    }
+
+    @Test
+    void testPercentileOfTheWindow() {
+        LatencyTracker tracker = new LatencyTracker(0.95, 20);
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+        // refreshed at 96 samples, the p95 of 1..96
+        assertEquals(92, tracker.percentileNanos());
+    }
+
+    @Test
+    void testOnlyTheLatestWindowCounts() {
+        LatencyTracker tracker = new LatencyTracker(0.5, 1);
+        for (int i = 0; i < LatencyTracker.WINDOW; i++) {
+            tracker.record(1_000);
+        }
+        for (int i = 0; i < LatencyTracker.WINDOW; i++) {
+            tracker.record(10);
+        }
+        assertEquals(10, tracker.percentileNanos());
+        assertEquals(2L * LatencyTracker.WINDOW, tracker.getCount());
+    }
+}
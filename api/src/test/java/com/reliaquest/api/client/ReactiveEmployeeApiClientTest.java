@@ -0,0 +1,199 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.model.CreateEmployeeDTO;
+import com.reliaquest.api.model.Employee;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ReactiveEmployeeApiClientTest {
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private ReactiveEmployeeApiClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    /**
+     * Client whose calls are answered by the exchange function instead of a mock api.
+     */
+    private ReactiveEmployeeApiClient client(boolean useRetry, ExchangeFunction exchange) {
+        client = new ReactiveEmployeeApiClient(WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return exchange.exchange(request);
+        }));
+        try {
+            set("mockApiUrl", "http://mock-api");
+            set("maxConnections", 10);
+            set("useRetry", useRetry);
+            set("maxRetries", 2);
+            set("retryBaseDelay", Duration.ofMillis(1));
+            set("retryMaxDelay", Duration.ofMillis(10));
+            set("retryDeadline", Duration.ofSeconds(5));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        client.init();
+        return client;
+    }
+
+    private void set(String field, Object value) throws Exception {
+        var declared = ReactiveEmployeeApiClient.class.getDeclaredField(field);
+        declared.setAccessible(true);
+        declared.set(client, value);
+    }
+
+    /**
+     * Response whose body arrives in the given chunks, one buffer each.
+     */
+    private static Mono<ClientResponse> respond(HttpStatus status, String... chunks) {
+        Flux<DataBuffer> body = Flux.fromIterable(Arrays.asList(chunks))
+                .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+        return Mono.just(ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    @Test
+    void testStreamsEmployeesSplitAcrossBuffers() {
+        client(
+                false,
+                request -> respond(
+                        HttpStatus.OK,
+                        "{\"status\":\"ok\",\"data\":[{\"employee_name\":\"A\",\"employee_sal",
+                        "ary\":100},{\"employee_name\":\"B\"",
+                        ",\"employee_salary\":200}]}"));
+
+        List<Employee> employees =
+                client.getAllEmployees().flatMap(Flux::collectList).block();
+
+        assertEquals(2, employees.size());
+        assertEquals("A", employees.get(0).getName());
+        assertEquals(100, employees.get(0).getSalary());
+        assertEquals("B", employees.get(1).getName());
+        assertEquals(HttpMethod.GET, requests.get(0).method());
+    }
+
+    @Test
+    void testFailsWithTheStatusBeforeAnyEmployee() {
+        client(false, request -> respond(HttpStatus.SERVICE_UNAVAILABLE, "{}"));
+
+        ApiClientException e = assertThrows(
+                ApiClientException.class, () -> client.getAllEmployees().block());
+        assertEquals(503, e.getStatusCode());
+    }
+
+    @Test
+    void testTruncatedRosterFailsTheStream() {
+        client(false, request -> respond(HttpStatus.OK, "{\"data\":[{\"employee_name\":\"A\"},{\"employee_"));
+
+        Flux<Employee> employees = client.getAllEmployees().block();
+        assertNotNull(employees);
+        ApiClientException e = assertThrows(
+                ApiClientException.class, () -> employees.collectList().block());
+        assertEquals(500, e.getStatusCode());
+    }
+
+    @Test
+    void testRetriesTooManyRequests() {
+        AtomicInteger calls = new AtomicInteger();
+        client(
+                true,
+                request -> calls.incrementAndGet() == 1
+                        ? respond(HttpStatus.TOO_MANY_REQUESTS, "{}")
+                        : respond(HttpStatus.OK, "{\"data\":{\"employee_name\":\"A\"}}"));
+
+        Employee employee = client.getEmployeeById("1").block();
+
+        assertEquals("A", employee.getName());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testGivesUpAfterMaxRetries() {
+        AtomicInteger calls = new AtomicInteger();
+        client(true, request -> {
+            calls.incrementAndGet();
+            return respond(HttpStatus.TOO_MANY_REQUESTS, "{}");
+        });
+
+        ApiClientException e = assertThrows(
+                ApiClientException.class, () -> client.getEmployeeById("1").block());
+        assertEquals(429, e.getStatusCode());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testDoesNotRetryOtherErrors() {
+        AtomicInteger calls = new AtomicInteger();
+        client(true, request -> {
+            calls.incrementAndGet();
+            return respond(HttpStatus.INTERNAL_SERVER_ERROR, "{}");
+        });
+
+        ApiClientException e = assertThrows(
+                ApiClientException.class, () -> client.getEmployeeById("1").block());
+        assertEquals(500, e.getStatusCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testGetEmployeeByIdWithoutDataIsNotFound() {
+        client(false, request -> respond(HttpStatus.OK, "{\"data\":null,\"status\":\"ok\"}"));
+
+        ApiClientException e = assertThrows(
+                ApiClientException.class, () -> client.getEmployeeById("1").block());
+        assertEquals(404, e.getStatusCode());
+        assertEquals("http://mock-api/1", requests.get(0).url().toString());
+    }
+
+    @Test
+    void testCreateEmployee() {
+        client(false, request -> respond(HttpStatus.OK, "{\"data\":{\"employee_name\":\"A\"}}"));
+
+        Employee employee = client.createEmployee(new CreateEmployeeDTO()).block();
+
+        assertEquals("A", employee.getName());
+        assertEquals(HttpMethod.POST, requests.get(0).method());
+    }
+
+    @Test
+    void testDeleteEmployeeByName() {
+        client(false, request -> respond(HttpStatus.OK, "{\"data\":true}"));
+
+        assertEquals("A", client.deleteEmployeeByName("A").block());
+        assertEquals(HttpMethod.DELETE, requests.get(0).method());
+    }
+
+    @Test
+    void testDeleteEmployeeByNameNotDeleted() {
+        client(false, request -> respond(HttpStatus.OK, "{\"data\":false}"));
+
+        ApiClientException e = assertThrows(
+                ApiClientException.class, () -> client.deleteEmployeeByName("A").block());
+        assertEquals(500, e.getStatusCode());
+    }
+}
@@ -0,0 +1,99 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+    private static final int CALLERS = 8;
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    @Test
+    void testConcurrentCallersShareOneCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> coalescer.execute("all", () -> {
+                    upstreamCalls.incrementAndGet();
+                    awaitQuietly(release);
+                    return "roster";
+                })));
+            }
+            awaitCoalesced(CALLERS - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("roster", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, coalescer.getExecutedCount());
+        assertEquals(CALLERS - 1, coalescer.getCoalescedCount());
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    void testFailureIsSharedWithWaitingCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> leader = executor.submit(() -> coalescer.execute("id:1", () -> {
+                awaitQuietly(release);
+                throw new ApiClientException("rate limited", null, 429);
+            }));
+            while (coalescer.getInFlightCount() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<Object> follower = executor.submit(() -> coalescer.execute("id:1", () -> "unexpected"));
+            awaitCoalesced(1);
+            release.countDown();
+
+            for (Future<Object> result : List.of(leader, follower)) {
+                Exception ex = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertTrue(ex.getCause() instanceof ApiClientException);
+                assertEquals(429, ((ApiClientException) ex.getCause()).getStatusCode());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDifferentKeysAndSequentialCallsAreNotCoalesced() {
+        assertEquals("a", coalescer.execute("id:a", () -> "a"));
+        assertEquals("b", coalescer.execute("id:b", () -> "b"));
+        assertEquals("a", coalescer.execute("id:a", () -> "a"));
+
+        assertEquals(3, coalescer.getExecutedCount());
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescer.getCoalescedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
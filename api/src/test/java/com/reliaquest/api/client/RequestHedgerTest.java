@@ -0,0 +1,182 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.common.CallDeadline;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RequestHedgerTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private RequestHedger requestHedger;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (requestHedger != null) {
+            requestHedger.shutdown();
+        }
+    }
+
+    /**
+     * Records enough 20ms calls for the operation's latency to be known.
+     */
+    private void warmUp(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertEquals("warm", requestHedger.execute("op", () -> {
+                sleep(Duration.ofMillis(20));
+                return "warm";
+            }));
+        }
+        assertTrue(requestHedger.getHedgeDelayNanos("op") >= 0);
+    }
+
+    /**
+     * The first attempt hangs until the test ends or fails with firstError, later ones return "hedge".
+     */
+    private Supplier<String> slowFirst(AtomicInteger calls, RuntimeException firstError) {
+        return () -> {
+            if (calls.incrementAndGet() == 1) {
+                if (firstError != null) {
+                    throw firstError;
+                }
+                await();
+                return "first";
+            }
+            return "hedge";
+        };
+    }
+
+    private void await() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testDisabledRunsOnTheCallersThread() {
+        requestHedger = RequestHedger.disabled();
+        Thread caller = Thread.currentThread();
+
+        assertEquals("ok", requestHedger.execute("op", () -> {
+            assertSame(caller, Thread.currentThread());
+            return "ok";
+        }));
+        assertEquals(-1, requestHedger.getHedgeDelayNanos("op"));
+    }
+
+    @Test
+    void testNothingIsHedgedUntilLatencyIsKnown() {
+        requestHedger = new RequestHedger(0.95, 5, 1.0, false);
+        Thread caller = Thread.currentThread();
+
+        for (int i = 0; i < 4; i++) {
+            requestHedger.execute("op", () -> {
+                assertSame(caller, Thread.currentThread());
+                return "ok";
+            });
+        }
+        assertEquals(-1, requestHedger.getHedgeDelayNanos("op"));
+        assertEquals(0, requestHedger.getSentCount());
+    }
+
+    @Test
+    void testSlowCallIsHedgedAndTheFirstAnswerWins() {
+        requestHedger = new RequestHedger(0.95, 5, 1.0, false);
+        warmUp(5);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("hedge", requestHedger.execute("op", slowFirst(calls, null)));
+        assertEquals(2, calls.get());
+        assertEquals(1, requestHedger.getSentCount());
+        assertEquals(1, requestHedger.getWonCount());
+    }
+
+    @Test
+    void testHedgesAreLimitedToTheBudget() {
+        requestHedger = new RequestHedger(0.95, 5, 0.0, false);
+        warmUp(5);
+        Thread caller = Thread.currentThread();
+
+        assertEquals("ok", requestHedger.execute("op", () -> {
+            assertSame(caller, Thread.currentThread());
+            return "ok";
+        }));
+        assertEquals(0, requestHedger.getSentCount());
+    }
+
+    @Test
+    void testFailureBeforeTheHedgeFailsTheCall() {
+        requestHedger = new RequestHedger(0.95, 5, 1.0, false);
+        warmUp(5);
+        AtomicInteger calls = new AtomicInteger();
+
+        ApiClientException e = assertThrows(
+                ApiClientException.class,
+                () -> requestHedger.execute("op", slowFirst(calls, new ApiClientException("error", null, 503))));
+        assertEquals(503, e.getStatusCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testFailedHedgeWaitsForTheFirstAttempt() {
+        requestHedger = new RequestHedger(0.95, 5, 1.0, false);
+        warmUp(5);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = requestHedger.execute("op", () -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(Duration.ofMillis(200));
+                return "first";
+            }
+            throw new ApiClientException("Mock api rate limit reached", null, 429);
+        });
+
+        assertEquals("first", result);
+        assertEquals(1, requestHedger.getSentCount());
+        assertEquals(0, requestHedger.getWonCount());
+    }
+
+    @Test
+    void testCallerNeverWaitsPastTheDeadline() {
+        requestHedger = new RequestHedger(0.95, 5, 1.0, false);
+        warmUp(5);
+        long deadline = System.nanoTime() + Duration.ofMillis(200).toNanos();
+
+        ApiClientException e = assertThrows(
+                ApiClientException.class,
+                () -> CallDeadline.within(
+                        deadline,
+                        () -> requestHedger.execute("op", () -> {
+                            await();
+                            return "late";
+                        })));
+        assertEquals(504, e.getStatusCode());
+    }
+
+    @Test
+    void testAttemptsCarryTheCallersDeadline() {
+        requestHedger = new RequestHedger(0.95, 5, 1.0, false);
+        warmUp(5);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+
+        long seen = CallDeadline.within(deadline, () -> requestHedger.execute("op", CallDeadline::current));
+
+        assertEquals(deadline, seen);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
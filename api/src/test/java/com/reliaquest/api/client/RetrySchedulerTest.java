@@ -0,0 +1,178 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RetrySchedulerTest {
+    private RetryScheduler retryScheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (retryScheduler != null) {
+            retryScheduler.shutdown();
+        }
+    }
+
+    /**
+     * Fails with the given status the first failures times, then returns "ok".
+     */
+    private static Supplier<String> failing(int failures, int status, AtomicInteger calls) {
+        return () -> {
+            if (calls.incrementAndGet() <= failures) {
+                throw new ApiClientException("error", null, status);
+            }
+            return "ok";
+        };
+    }
+
+    @Test
+    void testSuccessRunsOnceWithoutScheduling() {
+        retryScheduler = new RetryScheduler(2, Duration.ofMillis(1), Duration.ofMillis(5), 10, Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("ok", retryScheduler.execute(failing(0, 429, calls)));
+        assertEquals(1, calls.get());
+        assertEquals(0, retryScheduler.getScheduledCount());
+    }
+
+    @Test
+    void testRetriesTooManyRequestsUntilSuccess() {
+        retryScheduler = new RetryScheduler(3, Duration.ofMillis(1), Duration.ofMillis(5), 10, Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("ok", retryScheduler.execute(failing(2, 429, calls)));
+        assertEquals(3, calls.get());
+        assertEquals(2, retryScheduler.getScheduledCount());
+        assertEquals(0, retryScheduler.getPendingCount());
+    }
+
+    @Test
+    void testOtherErrorsAreNotRetried() {
+        retryScheduler = new RetryScheduler(3, Duration.ofMillis(1), Duration.ofMillis(5), 10, Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+
+        ApiClientException ex =
+                assertThrows(ApiClientException.class, () -> retryScheduler.execute(failing(1, 500, calls)));
+        assertEquals(500, ex.getStatusCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testGivesUpAfterMaxRetries() {
+        retryScheduler = new RetryScheduler(2, Duration.ofMillis(1), Duration.ofMillis(5), 10, Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+
+        ApiClientException ex =
+                assertThrows(ApiClientException.class, () -> retryScheduler.execute(failing(10, 429, calls)));
+        assertEquals(429, ex.getStatusCode());
+        assertEquals(3, calls.get());
+        assertEquals(1, retryScheduler.getExhaustedCount());
+    }
+
+    @Test
+    void testRetryAfterBeyondDeadlineFailsImmediately() {
+        retryScheduler = new RetryScheduler(2, Duration.ofMillis(1), Duration.ofMillis(5), 10, Duration.ofMillis(200));
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> call = () -> {
+            calls.incrementAndGet();
+            throw new ApiClientException("error", null, 429, Duration.ofSeconds(80));
+        };
+
+        long start = System.nanoTime();
+        assertThrows(ApiClientException.class, () -> retryScheduler.execute(call));
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(200).toNanos());
+        assertEquals(1, calls.get());
+        assertEquals(1, retryScheduler.getDeadlineExceededCount());
+    }
+
+    @Test
+    void testShedsRetriesWhenQueueIsFull() {
+        retryScheduler = new RetryScheduler(2, Duration.ofMillis(1), Duration.ofMillis(5), 0, Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ApiClientException.class, () -> retryScheduler.execute(failing(1, 429, calls)));
+        assertEquals(1, calls.get());
+        assertEquals(1, retryScheduler.getShedCount());
+    }
+
+    @Test
+    void testExecuteAsyncReturnsBeforeRetrying() throws Exception {
+        retryScheduler = new RetryScheduler(2, Duration.ofMillis(1), Duration.ofMillis(5), 10, Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> call = () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ApiClientException("error", null, 429);
+            }
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "ok";
+        };
+
+        CompletableFuture<String> result = retryScheduler.executeAsync(call);
+        assertFalse(result.isDone());
+        release.countDown();
+        assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testExecuteAsyncFailsAtDeadline() {
+        retryScheduler = new RetryScheduler(2, Duration.ofMillis(1), Duration.ofMillis(5), 10, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> call = () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ApiClientException("error", null, 429);
+            }
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "ok";
+        };
+
+        CompletableFuture<String> result = retryScheduler.executeAsync(call);
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals(429, ((ApiClientException) ex.getCause()).getStatusCode());
+        assertEquals(1, retryScheduler.getDeadlineExceededCount());
+    }
+
+    @Test
+    void testDisabledNeverRetries() {
+        retryScheduler = RetryScheduler.disabled();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ApiClientException.class, () -> retryScheduler.execute(failing(1, 429, calls)));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testRetriesRunOnVirtualThreadsWhenEnabled() {
+        retryScheduler =
+                new RetryScheduler(2, Duration.ofMillis(1), Duration.ofMillis(5), 10, Duration.ofSeconds(5), true);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("virtual", retryScheduler.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ApiClientException("error", null, 429);
+            }
+            return Thread.currentThread().isVirtual() ? "virtual" : "platform";
+        }));
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,128 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class WriteBatcherTest {
+    private final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+    private WriteBatcher<Integer, String> writeBatcher;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (writeBatcher != null) {
+            writeBatcher.shutdown();
+        }
+    }
+
+    private Function<List<Integer>, List<String>> recording() {
+        return inputs -> {
+            batches.add(inputs);
+            return inputs.stream().map(i -> "r" + i).toList();
+        };
+    }
+
+    /**
+     * Submits the inputs from concurrent threads, all released at once, and returns each one's result.
+     */
+    private List<String> executeConcurrently(List<Integer> inputs) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (Integer input : inputs) {
+            futures.add(callers.submit(() -> {
+                start.await();
+                return writeBatcher.execute(input);
+            }));
+        }
+        start.countDown();
+        List<String> results = new ArrayList<>();
+        for (Future<String> future : futures) {
+            results.add(future.get(5, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    @Test
+    void testConcurrentWritesShareOneBatchAndGetTheirOwnResults() throws Exception {
+        writeBatcher = new WriteBatcher<>("test", Duration.ofMillis(200), 100, i -> "single", recording());
+
+        List<String> results = executeConcurrently(List.of(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertEquals(List.of("r1", "r2", "r3", "r4", "r5", "r6", "r7", "r8"), results);
+        assertEquals(1, batches.size());
+        assertEquals(8, batches.get(0).size());
+        assertEquals(1, writeBatcher.getFlushedBatchCount());
+        assertEquals(8, writeBatcher.getFlushedWriteCount());
+    }
+
+    @Test
+    void testFullBatchIsFlushedWithoutWaitingForTheWindow() throws Exception {
+        writeBatcher = new WriteBatcher<>("test", Duration.ofMinutes(1), 4, i -> "single", recording());
+
+        List<String> results = executeConcurrently(List.of(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertEquals(List.of("r1", "r2", "r3", "r4", "r5", "r6", "r7", "r8"), results);
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    void testLoneWriteUsesSingleCall() {
+        writeBatcher = new WriteBatcher<>("test", Duration.ofMillis(1), 100, i -> "single" + i, recording());
+
+        assertEquals("single7", writeBatcher.execute(7));
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void testBatchFailureFailsEveryWrite() throws Exception {
+        writeBatcher = new WriteBatcher<>("test", Duration.ofMinutes(1), 2, i -> "single", inputs -> {
+            throw new ApiClientException("error", null, 429);
+        });
+
+        for (Future<String> future :
+                List.of(callers.submit(() -> writeBatcher.execute(1)), callers.submit(() -> writeBatcher.execute(2)))) {
+            Exception ex = assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ApiClientException.class, ex.getCause());
+            assertEquals(429, ((ApiClientException) ex.getCause()).getStatusCode());
+        }
+    }
+
+    @Test
+    void testMismatchedResultsFailTheBatch() throws Exception {
+        writeBatcher = new WriteBatcher<>("test", Duration.ofMinutes(1), 2, i -> "single", inputs -> List.of("one"));
+
+        for (Future<String> future :
+                List.of(callers.submit(() -> writeBatcher.execute(1)), callers.submit(() -> writeBatcher.execute(2)))) {
+            Exception ex = assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertEquals(500, ((ApiClientException) ex.getCause()).getStatusCode());
+        }
+    }
+
+    @Test
+    void testBatchesFlushOnVirtualThreadsWhenEnabled() throws Exception {
+        writeBatcher = new WriteBatcher<>(
+                "test",
+                Duration.ofMillis(200),
+                100,
+                i -> "single",
+                inputs -> inputs.stream()
+                        .map(i -> Thread.currentThread().isVirtual() ? "virtual" : "platform")
+                        .toList(),
+                true);
+
+        assertEquals(List.of("virtual", "virtual"), executeConcurrently(List.of(1, 2)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.reliaquest.api.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class CallDeadlineTest {
+
+    @Test
+    void testNoDeadlineByDefault() {
+        assertEquals(Long.MAX_VALUE, CallDeadline.current());
+        assertNull(CallDeadline.remaining());
+    }
+
+    @Test
+    void testScopeRestoresTheOuterDeadline() {
+        long outer = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        long inner = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        try (CallDeadline.Scope ignored = CallDeadline.enter(outer)) {
+            try (CallDeadline.Scope alsoIgnored = CallDeadline.enter(inner)) {
+                assertEquals(inner, CallDeadline.current());
+            }
+            assertEquals(outer, CallDeadline.current());
+        }
+        assertEquals(Long.MAX_VALUE, CallDeadline.current());
+    }
+
+    @Test
+    void testLaterDeadlineDoesNotExtendTheCurrentOne() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        CallDeadline.within(deadline, () -> {
+            assertEquals(deadline, CallDeadline.within(deadline + 1_000_000_000L, CallDeadline::current));
+            assertEquals(deadline, CallDeadline.after(Duration.ofSeconds(5)));
+            return null;
+        });
+    }
+
+    @Test
+    void testAfterIsBoundedByTheBudget() {
+        long before = System.nanoTime();
+        long deadline = CallDeadline.after(Duration.ofMillis(100));
+
+        assertTrue(deadline - before >= Duration.ofMillis(100).toNanos());
+        assertTrue(deadline - System.nanoTime() <= Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    void testRemainingIsNeverNegative() {
+        assertEquals(Duration.ZERO, CallDeadline.within(System.nanoTime() - 1_000, CallDeadline::remaining));
+    }
+}
@@ -2,6 +2,10 @@ package com.reliaquest.api.common;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.lang.reflect.Field;
+import java.time.Duration;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.client.RestTemplate;
 
@@ -14,4 +18,54 @@ class CommonRestTemplateTest {
         assertNotNull(rt2);
         assertSame(rt1, rt2, "RestTemplate should be singleton");
     }
+
+    @Test
+    void testConfigurePoolResizesTheSharedPool() throws Exception {
+        CommonRestTemplate commonRestTemplate = new CommonRestTemplate();
+        setField(commonRestTemplate, "maxTotal", 400);
+        setField(commonRestTemplate, "maxPerRoute", 300);
+        PoolingHttpClientConnectionManager connectionManager = CommonRestTemplate.getConnectionManager();
+        try {
+            commonRestTemplate.configurePool();
+
+            assertEquals(400, connectionManager.getMaxTotal());
+            assertEquals(300, connectionManager.getDefaultMaxPerRoute());
+        } finally {
+            connectionManager.setMaxTotal(50);
+            connectionManager.setDefaultMaxPerRoute(20);
+        }
+    }
+
+    @Test
+    void testRequestContextUsesTheDefaultResponseTimeout() {
+        RequestConfig config = CommonRestTemplate.requestContext().getRequestConfig();
+
+        assertEquals(30_000, config.getResponseTimeout().toMilliseconds());
+        assertEquals(5_000, config.getConnectionRequestTimeout().toMilliseconds());
+    }
+
+    @Test
+    void testRequestContextTimesOutByTheCallDeadline() {
+        long deadline = System.nanoTime() + Duration.ofMillis(500).toNanos();
+        RequestConfig config = CallDeadline.within(
+                deadline, () -> CommonRestTemplate.requestContext().getRequestConfig());
+
+        assertTrue(config.getResponseTimeout().toMilliseconds() <= 500);
+        assertTrue(config.getResponseTimeout().toMilliseconds() > 0);
+        assertTrue(config.getConnectionRequestTimeout().toMilliseconds() <= 500);
+    }
+
+    @Test
+    void testRequestContextAfterTheDeadlineStillHasATimeout() {
+        RequestConfig config = CallDeadline.within(
+                System.nanoTime() - 1, () -> CommonRestTemplate.requestContext().getRequestConfig());
+
+        assertEquals(1, config.getResponseTimeout().toMilliseconds());
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = CommonRestTemplate.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
 }
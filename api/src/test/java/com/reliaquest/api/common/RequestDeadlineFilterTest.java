@@ -0,0 +1,55 @@
+package com.reliaquest.api.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestDeadlineFilterTest {
+    private final RequestDeadlineFilter filter = new RequestDeadlineFilter();
+
+    /**
+     * Time left to the deadline the request was handled with, null if it had none.
+     */
+    private Duration remainingWhileHandling(String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (header != null) {
+            request.addHeader(RequestDeadlineFilter.REQUEST_TIMEOUT_HEADER, header);
+        }
+        List<Duration> remaining = new ArrayList<>();
+        filter.doFilterInternal(
+                request, new MockHttpServletResponse(), (req, res) -> remaining.add(CallDeadline.remaining()));
+        assertEquals(Long.MAX_VALUE, CallDeadline.current(), "deadline must not outlive the request");
+        return remaining.get(0);
+    }
+
+    @Test
+    void testHeaderSetsTheDeadline() throws Exception {
+        Duration remaining = remainingWhileHandling("800ms");
+
+        assertTrue(remaining.compareTo(Duration.ofMillis(800)) <= 0);
+        assertTrue(remaining.compareTo(Duration.ofMillis(500)) > 0);
+    }
+
+    @Test
+    void testPlainNumberIsMilliseconds() throws Exception {
+        Duration remaining = remainingWhileHandling("2000");
+
+        assertTrue(remaining.compareTo(Duration.ofSeconds(2)) <= 0);
+        assertTrue(remaining.compareTo(Duration.ofSeconds(1)) > 0);
+    }
+
+    @Test
+    void testWithoutHeaderThereIsNoDeadline() throws Exception {
+        assertNull(remainingWhileHandling(null));
+    }
+
+    @Test
+    void testInvalidHeaderIsIgnored() throws Exception {
+        assertNull(remainingWhileHandling("soon"));
+    }
+}
@@ -1,8 +1,10 @@
 package com.reliaquest.api.controller;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -14,6 +16,7 @@ import com.reliaquest.api.model.CreateEmployeeDTO;
 import com.reliaquest.api.model.Employee;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +26,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @ActiveProfiles("test")
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -71,6 +75,31 @@ class EmployeeControllerIntegrationTest {
         mockMvc.perform(get("/employee")).andExpect(status().isInternalServerError());
     }
 
+    @Test
+    @DisplayName("GET /employee accepting NDJSON -> employees streamed one per line from the mock api")
+    void getAllEmployees_acceptingNdjson_streamsFromMockApi() throws Exception {
+        given(employeeApiClient.forEachEmployee(any())).willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(Employee.builder().name("Alice").build());
+            consumer.accept(Employee.builder().name("Bob").build());
+            return 2;
+        });
+
+        MvcResult result = mockMvc.perform(get("/employee").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Bob", objectMapper.readValue(lines[1], Employee.class).getName());
+    }
+
     @Test
     @DisplayName("POST /employee -> 200 Ok")
     void createEmployee_returns200AndBody() throws Exception {
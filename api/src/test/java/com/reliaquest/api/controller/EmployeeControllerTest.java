@@ -3,20 +3,32 @@ package com.reliaquest.api.controller;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.common.CommonObjectMapper;
 import com.reliaquest.api.model.CreateEmployeeDTO;
 import com.reliaquest.api.model.Employee;
 import com.reliaquest.api.service.EmployeeService;
+import com.reliaquest.api.service.EmployeeService.Served;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 class EmployeeControllerTest {
     @Mock
@@ -25,6 +37,8 @@ class EmployeeControllerTest {
     @InjectMocks
     private EmployeeController employeeController;
 
+    private final ObjectMapper mapper = CommonObjectMapper.getObjectMapper();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -33,12 +47,39 @@ class EmployeeControllerTest {
     @Test
     void getAllEmployees_success() {
         List<Employee> employees = Arrays.asList(new Employee(), new Employee());
-        when(employeeService.getAllEmployees()).thenReturn(employees);
+        when(employeeService.getAllEmployees()).thenReturn(Served.fresh(employees));
+        ResponseEntity<List<Employee>> response = employeeController.getAllEmployees();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(employees, response.getBody());
+    }
+
+    @Test
+    void getAllEmployees_sendsETag() {
+        List<Employee> employees = List.of(new Employee());
+        when(employeeService.getAllEmployees()).thenReturn(Served.fresh(employees));
+        when(employeeService.getAllEmployeesETag(employees)).thenReturn(Optional.of("W/\"e-1\""));
         ResponseEntity<List<Employee>> response = employeeController.getAllEmployees();
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("W/\"e-1\"", response.getHeaders().getETag());
         assertEquals(employees, response.getBody());
     }
 
+    @Test
+    void getAllEmployees_freshAnswerIsNotMarkedStale() {
+        when(employeeService.getAllEmployees()).thenReturn(Served.fresh(List.of(new Employee())));
+        ResponseEntity<List<Employee>> response = employeeController.getAllEmployees();
+        assertNull(response.getHeaders().getFirst(HttpHeaders.AGE));
+    }
+
+    @Test
+    void getHighestSalaryOfEmployees_staleAnswerIsMarkedStale() {
+        when(employeeService.getHighestSalaryOfEmployees()).thenReturn(Served.stale(10000, Duration.ofSeconds(75)));
+        ResponseEntity<Integer> response = employeeController.getHighestSalaryOfEmployees();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(10000, response.getBody());
+        assertEquals("75", response.getHeaders().getFirst(HttpHeaders.AGE));
+    }
+
     @Test
     void getAllEmployees_error() {
         when(employeeService.getAllEmployees())
@@ -48,10 +89,46 @@ class EmployeeControllerTest {
         assertNull(response.getBody());
     }
 
+    @Test
+    void streamAllEmployeesAsNdjson_success() throws Exception {
+        when(employeeService.streamAllEmployees()).thenReturn(Served.fresh(source(employee("A"), employee("B"))));
+        ResponseEntity<StreamingResponseBody> response = employeeController.streamAllEmployeesAsNdjson();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+
+        String[] lines = write(response.getBody()).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("A", mapper.readValue(lines[0], Employee.class).getName());
+        assertEquals("B", mapper.readValue(lines[1], Employee.class).getName());
+    }
+
+    @Test
+    void streamAllEmployeesAsJsonArray_success() throws Exception {
+        when(employeeService.streamAllEmployees()).thenReturn(Served.fresh(source(employee("A"), employee("B"))));
+        ResponseEntity<StreamingResponseBody> response = employeeController.streamAllEmployeesAsJsonArray();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(
+                MediaType.valueOf(EmployeeController.EMPLOYEE_STREAM_VALUE),
+                response.getHeaders().getContentType());
+
+        List<Employee> employees = mapper.readValue(write(response.getBody()), new TypeReference<List<Employee>>() {});
+        assertEquals(
+                List.of("A", "B"), employees.stream().map(Employee::getName).toList());
+    }
+
+    @Test
+    void streamAllEmployees_error() {
+        when(employeeService.streamAllEmployees())
+                .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Circuit open"));
+        ResponseEntity<StreamingResponseBody> response = employeeController.streamAllEmployeesAsNdjson();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
     @Test
     void getEmployeeById_success() {
         Employee employee = new Employee();
-        when(employeeService.getEmployeeById("1")).thenReturn(employee);
+        when(employeeService.getEmployeeById("1")).thenReturn(Served.fresh(employee));
         ResponseEntity<Employee> response = employeeController.getEmployeeById("1");
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(employee, response.getBody());
@@ -69,7 +146,7 @@ class EmployeeControllerTest {
     @Test
     void getEmployeesByNameSearch_success() {
         List<Employee> employees = Collections.singletonList(new Employee());
-        when(employeeService.getEmployeesByNameSearch("John")).thenReturn(employees);
+        when(employeeService.getEmployeesByNameSearch("John")).thenReturn(Served.fresh(employees));
         ResponseEntity<List<Employee>> response = employeeController.getEmployeesByNameSearch("John");
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(employees, response.getBody());
@@ -86,7 +163,7 @@ class EmployeeControllerTest {
 
     @Test
     void getHighestSalaryOfEmployees_success() {
-        when(employeeService.getHighestSalaryOfEmployees()).thenReturn(10000);
+        when(employeeService.getHighestSalaryOfEmployees()).thenReturn(Served.fresh(10000));
         ResponseEntity<Integer> response = employeeController.getHighestSalaryOfEmployees();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(10000, response.getBody());
@@ -104,7 +181,7 @@ class EmployeeControllerTest {
     @Test
     void getTopTenHighestEarningEmployeeNames_success() {
         List<String> names = Arrays.asList("John", "Jane");
-        when(employeeService.getTopTenHighestEarningEmployeeNames()).thenReturn(names);
+        when(employeeService.getTopTenHighestEarningEmployeeNames()).thenReturn(Served.fresh(names));
         ResponseEntity<List<String>> response = employeeController.getTopTenHighestEarningEmployeeNames();
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(names, response.getBody());
@@ -164,4 +241,23 @@ class EmployeeControllerTest {
         assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
         assertNull(response.getBody());
     }
+
+    private static Employee employee(String name) {
+        return Employee.builder().id(UUID.randomUUID()).name(name).salary(100).build();
+    }
+
+    private static EmployeeService.RosterSource source(Employee... employees) {
+        return consumer -> {
+            for (Employee employee : employees) {
+                consumer.accept(employee);
+            }
+            return employees.length;
+        };
+    }
+
+    private static String write(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
 }
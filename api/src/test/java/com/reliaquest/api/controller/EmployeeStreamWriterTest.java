@@ -0,0 +1,112 @@
+package com.reliaquest.api.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.api.client.ApiClientException;
+import com.reliaquest.api.common.CallDeadline;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.service.EmployeeService.RosterSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+class EmployeeStreamWriterTest {
+
+    @Test
+    void testNdjsonWritesOneEmployeePerLine() throws Exception {
+        String body = write(EmployeeStreamWriter.ndjson(source("A", "B", "C")));
+
+        assertEquals(3, body.split("\n").length);
+        assertTrue(body.endsWith("}\n"));
+        assertTrue(body.startsWith("{\"id\":null,\"employee_name\":\"A\""));
+    }
+
+    @Test
+    void testJsonArrayOfNoEmployees() throws Exception {
+        assertEquals("[]", write(EmployeeStreamWriter.jsonArray(source())));
+    }
+
+    @Test
+    void testFailureReadingTheRosterLeavesTheArrayOpen() {
+        RosterSource failing = consumer -> {
+            consumer.accept(Employee.builder().name("A").build());
+            throw new ApiClientException("Connection reset", null, 500);
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(ApiClientException.class, () -> EmployeeStreamWriter.jsonArray(failing)
+                .writeTo(out));
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.startsWith("[{"));
+        assertFalse(body.endsWith("]"));
+    }
+
+    @Test
+    void testClientGoneStopsReadingTheRoster() throws Exception {
+        int[] read = {0};
+        RosterSource counting = consumer -> {
+            for (int i = 0; i < 10_000; i++) {
+                consumer.accept(Employee.builder().name("Employee " + i).build());
+                read[0]++;
+            }
+            return read[0];
+        };
+        OutputStream gone = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        EmployeeStreamWriter.ndjson(counting).writeTo(gone);
+
+        assertTrue(read[0] < 10_000);
+    }
+
+    @Test
+    void testBodyWrittenOnAnotherThreadKeepsTheRequestDeadline() throws Exception {
+        AtomicLong seen = new AtomicLong();
+        RosterSource source = consumer -> {
+            seen.set(CallDeadline.current());
+            return 0;
+        };
+        long deadline = CallDeadline.after(Duration.ofSeconds(5));
+        StreamingResponseBody body;
+        try (CallDeadline.Scope ignored = CallDeadline.enter(deadline)) {
+            body = EmployeeStreamWriter.ndjson(source);
+        }
+
+        CompletableFuture.runAsync(() -> {
+                    try {
+                        body.writeTo(new ByteArrayOutputStream());
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                })
+                .get();
+
+        assertEquals(deadline, seen.get());
+    }
+
+    private static RosterSource source(String... names) {
+        return consumer -> {
+            for (String name : names) {
+                consumer.accept(Employee.builder().name(name).build());
+            }
+            return names.length;
+        };
+    }
+
+    private static String write(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,127 @@
+package com.reliaquest.api.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.reliaquest.api.model.CreateEmployeeDTO;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.service.ReactiveEmployeeService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ReactiveEmployeeControllerTest {
+    @Mock
+    private ReactiveEmployeeService employeeService;
+
+    private ReactiveEmployeeController employeeController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        employeeController = new ReactiveEmployeeController(employeeService);
+    }
+
+    @Test
+    void getAllEmployees_streamsTheRoster() {
+        Employee a = Employee.builder().name("A").build();
+        Employee b = Employee.builder().name("B").build();
+        when(employeeService.getAllEmployees()).thenReturn(Mono.just(Flux.just(a, b)));
+
+        ResponseEntity<Flux<Employee>> response =
+                employeeController.getAllEmployees().block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(a, b), response.getBody().collectList().block());
+    }
+
+    @Test
+    void getAllEmployees_error() {
+        when(employeeService.getAllEmployees())
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Slow down")));
+
+        ResponseEntity<Flux<Employee>> response =
+                employeeController.getAllEmployees().block();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void getEmployeesByNameSearch_success() {
+        List<Employee> employees = List.of(Employee.builder().name("A").build());
+        when(employeeService.getEmployeesByNameSearch("a")).thenReturn(Mono.just(employees));
+
+        ResponseEntity<List<Employee>> response =
+                employeeController.getEmployeesByNameSearch("a").block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(employees, response.getBody());
+    }
+
+    @Test
+    void getEmployeeById_notFound() {
+        when(employeeService.getEmployeeById("1"))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found")));
+
+        ResponseEntity<Employee> response =
+                employeeController.getEmployeeById("1").block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void getHighestSalaryOfEmployees_success() {
+        when(employeeService.getHighestSalaryOfEmployees()).thenReturn(Mono.just(500));
+
+        ResponseEntity<Integer> response =
+                employeeController.getHighestSalaryOfEmployees().block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(500, response.getBody());
+    }
+
+    @Test
+    void getTopTenHighestEarningEmployeeNames_unexpectedError() {
+        when(employeeService.getTopTenHighestEarningEmployeeNames())
+                .thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        ResponseEntity<List<String>> response =
+                employeeController.getTopTenHighestEarningEmployeeNames().block();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void createEmployee_success() {
+        CreateEmployeeDTO input = new CreateEmployeeDTO();
+        Employee employee = Employee.builder().name("A").build();
+        when(employeeService.createEmployee(input)).thenReturn(Mono.just(employee));
+
+        ResponseEntity<Employee> response =
+                employeeController.createEmployee(input).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(employee, response.getBody());
+    }
+
+    @Test
+    void deleteEmployeeById_success() {
+        when(employeeService.deleteEmployeeById("1")).thenReturn(Mono.just("A"));
+
+        ResponseEntity<String> response =
+                employeeController.deleteEmployeeById("1").block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("A", response.getBody());
+    }
+}
@@ -4,11 +4,18 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
 import com.reliaquest.api.client.ApiClientException;
+import com.reliaquest.api.client.CircuitBreakerOpenException;
 import com.reliaquest.api.client.EmployeeApiClient;
 import com.reliaquest.api.model.Employee;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -26,14 +33,17 @@ class EmployeeServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        employeeService = new EmployeeService(employeeApiClient);
+        employeeService = new EmployeeService(
+                employeeApiClient,
+                new EmployeeSnapshotCache(
+                        employeeApiClient, Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO, Duration.ZERO));
     }
 
     @Test
     void testGetAllEmployeesSuccess() {
         Employee emp = Employee.builder().name("John").build();
         when(employeeApiClient.getAllEmployees()).thenReturn(Arrays.asList(emp));
-        List<Employee> result = employeeService.getAllEmployees();
+        List<Employee> result = employeeService.getAllEmployees().value();
         assertEquals(1, result.size());
         assertEquals("John", result.get(0).getName());
     }
@@ -54,12 +64,57 @@ class EmployeeServiceTest {
         assertEquals(500, ex.getStatusCode().value());
     }
 
+    @Test
+    void testStreamAllEmployeesFromSnapshot() {
+        when(employeeApiClient.getAllEmployees())
+                .thenReturn(List.of(
+                        Employee.builder().name("A").build(),
+                        Employee.builder().name("B").build()));
+        List<String> names = new ArrayList<>();
+
+        int count = employeeService.streamAllEmployees().value().forEach(employee -> names.add(employee.getName()));
+
+        assertEquals(2, count);
+        assertEquals(List.of("A", "B"), names);
+        verify(employeeApiClient, never()).forEachEmployee(any());
+    }
+
+    @Test
+    void testStreamAllEmployeesWithoutCacheStreamsFromTheMockApi() {
+        employeeService = new EmployeeService(
+                employeeApiClient,
+                new EmployeeSnapshotCache(
+                        employeeApiClient, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO));
+        when(employeeApiClient.forEachEmployee(any())).thenAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(Employee.builder().name("A").build());
+            return 1;
+        });
+
+        EmployeeService.RosterSource source =
+                employeeService.streamAllEmployees().value();
+        verify(employeeApiClient, never()).forEachEmployee(any());
+        List<String> names = new ArrayList<>();
+
+        assertEquals(1, source.forEach(employee -> names.add(employee.getName())));
+        assertEquals(List.of("A"), names);
+        verify(employeeApiClient, never()).getAllEmployees();
+    }
+
+    @Test
+    void testStreamAllEmployeesApiClientException() {
+        when(employeeApiClient.getAllEmployees()).thenThrow(new ApiClientException("error", null, 503));
+        ResponseStatusException ex =
+                assertThrows(ResponseStatusException.class, () -> employeeService.streamAllEmployees());
+        assertEquals(503, ex.getStatusCode().value());
+    }
+
     @Test
     void testGetEmployeesByNameSearchSuccess() {
         Employee emp1 = Employee.builder().name("Alice").build();
         Employee emp2 = Employee.builder().name("Bob").build();
         when(employeeApiClient.getAllEmployees()).thenReturn(Arrays.asList(emp1, emp2));
-        List<Employee> result = employeeService.getEmployeesByNameSearch("bob");
+        List<Employee> result = employeeService.getEmployeesByNameSearch("bob").value();
         assertEquals(1, result.size());
         assertEquals("Bob", result.get(0).getName());
     }
@@ -76,10 +131,33 @@ class EmployeeServiceTest {
     void testGetEmployeeByIdSuccess() {
         Employee emp = Employee.builder().name("Jane").build();
         when(employeeApiClient.getEmployeeById(anyString())).thenReturn(emp);
-        Employee result = employeeService.getEmployeeById("id");
+        Employee result = employeeService.getEmployeeById("id").value();
         assertEquals("Jane", result.getName());
     }
 
+    @Test
+    void testGetEmployeeByIdServedFromSnapshot() {
+        UUID id = UUID.randomUUID();
+        Employee emp = Employee.builder().id(id).name("Jane").build();
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(emp));
+        employeeService.getAllEmployees();
+
+        Employee result = employeeService.getEmployeeById(id.toString()).value();
+
+        assertSame(emp, result);
+        verify(employeeApiClient, never()).getEmployeeById(anyString());
+    }
+
+    @Test
+    void testGetEmployeeByIdNotInSnapshotGoesUpstream() {
+        Employee emp = Employee.builder().id(UUID.randomUUID()).name("Jane").build();
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of());
+        when(employeeApiClient.getEmployeeById(emp.getId().toString())).thenReturn(emp);
+        employeeService.getAllEmployees();
+
+        assertSame(emp, employeeService.getEmployeeById(emp.getId().toString()).value());
+    }
+
     @Test
     void testGetEmployeeByIdApiClientException() {
         when(employeeApiClient.getEmployeeById(anyString())).thenThrow(new ApiClientException("error", null, 404));
@@ -101,7 +179,7 @@ class EmployeeServiceTest {
         Employee emp1 = Employee.builder().salary(1000).build();
         Employee emp2 = Employee.builder().salary(2000).build();
         when(employeeApiClient.getAllEmployees()).thenReturn(Arrays.asList(emp1, emp2));
-        int result = employeeService.getHighestSalaryOfEmployees();
+        int result = employeeService.getHighestSalaryOfEmployees().value();
         assertEquals(2000, result);
     }
 
@@ -118,10 +196,44 @@ class EmployeeServiceTest {
         Employee emp1 = Employee.builder().name("A").salary(100).build();
         Employee emp2 = Employee.builder().name("B").salary(200).build();
         when(employeeApiClient.getAllEmployees()).thenReturn(Arrays.asList(emp1, emp2));
-        List<String> result = employeeService.getTopTenHighestEarningEmployeeNames();
+        List<String> result =
+                employeeService.getTopTenHighestEarningEmployeeNames().value();
         assertEquals(Arrays.asList("B", "A"), result);
     }
 
+    @Test
+    void testQueriesPushedDownWithoutLoadedRoster() {
+        Employee emp = Employee.builder().name("Bob").salary(2000).build();
+        when(employeeApiClient.getHighestSalary()).thenReturn(Optional.of(2000));
+        when(employeeApiClient.getTopEarners(10)).thenReturn(Optional.of(List.of(emp)));
+        when(employeeApiClient.searchEmployeesByName("bo")).thenReturn(Optional.of(List.of(emp)));
+
+        assertEquals(2000, employeeService.getHighestSalaryOfEmployees().value());
+        assertEquals(
+                List.of("Bob"),
+                employeeService.getTopTenHighestEarningEmployeeNames().value());
+        assertEquals(
+                List.of(emp), employeeService.getEmployeesByNameSearch("bo").value());
+        verify(employeeApiClient, never()).getAllEmployees();
+    }
+
+    @Test
+    void testQueriesAnsweredFromLoadedRosterWithoutPushdown() {
+        Employee emp = Employee.builder().name("Bob").salary(2000).build();
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(emp));
+        employeeService.getAllEmployees();
+
+        assertEquals(2000, employeeService.getHighestSalaryOfEmployees().value());
+        assertEquals(
+                List.of("Bob"),
+                employeeService.getTopTenHighestEarningEmployeeNames().value());
+        assertEquals(
+                List.of(emp), employeeService.getEmployeesByNameSearch("bo").value());
+        verify(employeeApiClient, never()).getHighestSalary();
+        verify(employeeApiClient, never()).getTopEarners(anyInt());
+        verify(employeeApiClient, never()).searchEmployeesByName(anyString());
+    }
+
     @Test
     void testGetTopTenHighestEarningEmployeeNamesApiClientException() {
         when(employeeApiClient.getAllEmployees()).thenThrow(new ApiClientException("error", null, 429));
@@ -172,4 +284,69 @@ class EmployeeServiceTest {
                 assertThrows(ResponseStatusException.class, () -> employeeService.deleteEmployeeById("id"));
         assertEquals(429, ex.getStatusCode().value());
     }
+
+    @Test
+    void testDeleteEmployeeByIdResolvesNameFromSnapshot() {
+        Employee emp = Employee.builder().id(UUID.randomUUID()).name("Del").build();
+        Employee other = Employee.builder().id(UUID.randomUUID()).name("Other").build();
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(other, emp));
+        when(employeeApiClient.deleteEmployeeByName("Del")).thenReturn("Del");
+        employeeService.getAllEmployees();
+
+        assertEquals("Del", employeeService.deleteEmployeeById(emp.getId().toString()));
+
+        verify(employeeApiClient, never()).getEmployeeById(anyString());
+        assertEquals(List.of(other), employeeService.getAllEmployees().value());
+    }
+
+    @Test
+    void testDeleteEmployeeByIdRefusesWhenNamesakeWouldBeDeleted() {
+        Employee first =
+                Employee.builder().id(UUID.randomUUID()).name("Jo Smith").build();
+        Employee second =
+                Employee.builder().id(UUID.randomUUID()).name("JO SMITH").build();
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(first, second));
+        employeeService.getAllEmployees();
+
+        ResponseStatusException ex = assertThrows(
+                ResponseStatusException.class,
+                () -> employeeService.deleteEmployeeById(second.getId().toString()));
+
+        assertEquals(409, ex.getStatusCode().value());
+        verify(employeeApiClient, never()).deleteEmployeeByName(anyString());
+    }
+
+    @Test
+    void testDeleteEmployeeByIdFirstNamesakeIsDeleted() {
+        Employee first =
+                Employee.builder().id(UUID.randomUUID()).name("Jo Smith").build();
+        Employee second =
+                Employee.builder().id(UUID.randomUUID()).name("JO SMITH").build();
+        when(employeeApiClient.getAllEmployees()).thenReturn(List.of(first, second));
+        when(employeeApiClient.deleteEmployeeByName("Jo Smith")).thenReturn("Jo Smith");
+        employeeService.getAllEmployees();
+
+        assertEquals(
+                "Jo Smith", employeeService.deleteEmployeeById(first.getId().toString()));
+        assertEquals(List.of(second), employeeService.getAllEmployees().value());
+    }
+
+    @Test
+    void testStaleSnapshotServedWhileCircuitOpenComesWithItsAge() throws Exception {
+        employeeService = new EmployeeService(
+                employeeApiClient,
+                new EmployeeSnapshotCache(
+                        employeeApiClient, Duration.ofMillis(1), Duration.ZERO, Duration.ZERO, Duration.ZERO));
+        when(employeeApiClient.getAllEmployees())
+                .thenReturn(List.of(Employee.builder().name("John").salary(100).build()))
+                .thenThrow(new CircuitBreakerOpenException("roster", Duration.ofSeconds(10)));
+        assertFalse(employeeService.getAllEmployees().isStale());
+        Thread.sleep(5);
+
+        EmployeeService.Served<Integer> served = employeeService.getHighestSalaryOfEmployees();
+
+        assertEquals(100, served.value());
+        assertTrue(served.isStale());
+        assertFalse(served.staleAge().isNegative());
+    }
 }
@@ -0,0 +1,151 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.reliaquest.api.client.ApiClientException;
+import com.reliaquest.api.client.ReactiveEmployeeApiClient;
+import com.reliaquest.api.model.CreateEmployeeDTO;
+import com.reliaquest.api.model.Employee;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ReactiveEmployeeServiceTest {
+    @Mock
+    private ReactiveEmployeeApiClient employeeApiClient;
+
+    private ReactiveEmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        employeeService = new ReactiveEmployeeService(employeeApiClient);
+    }
+
+    private void roster(Employee... employees) {
+        when(employeeApiClient.getAllEmployees()).thenReturn(Mono.just(Flux.just(employees)));
+    }
+
+    private static Employee employee(String name, Integer salary) {
+        return Employee.builder().name(name).salary(salary).build();
+    }
+
+    @Test
+    void testGetAllEmployees() {
+        roster(employee("A", 1), employee("B", 2));
+
+        List<Employee> employees =
+                employeeService.getAllEmployees().flatMap(Flux::collectList).block();
+
+        assertEquals(2, employees.size());
+        assertEquals("B", employees.get(1).getName());
+    }
+
+    @Test
+    void testGetAllEmployeesMapsApiClientException() {
+        when(employeeApiClient.getAllEmployees()).thenReturn(Mono.error(new ApiClientException("error", null, 429)));
+
+        ResponseStatusException e = assertThrows(
+                ResponseStatusException.class,
+                () -> employeeService.getAllEmployees().block());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+    }
+
+    @Test
+    void testSearchIgnoresCaseAndKeepsRosterOrder() {
+        roster(employee("Tiger Nixon", 1), employee("Bill Bob", 2), employee(null, 3), employee("Nick", 4));
+
+        List<Employee> result = employeeService.getEmployeesByNameSearch("NI").block();
+
+        assertEquals(
+                List.of("Tiger Nixon", "Nick"),
+                result.stream().map(Employee::getName).toList());
+    }
+
+    @Test
+    void testHighestSalarySkipsMissingSalaries() {
+        roster(employee("A", 10), employee("B", null), employee("C", 30), employee("D", 20));
+
+        assertEquals(30, employeeService.getHighestSalaryOfEmployees().block());
+    }
+
+    @Test
+    void testHighestSalaryOfEmptyRosterIsZero() {
+        roster();
+
+        assertEquals(0, employeeService.getHighestSalaryOfEmployees().block());
+    }
+
+    @Test
+    void testTopTenHighestFirstTiesInRosterOrder() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            employees.add(employee("E" + i, i % 5 == 0 ? 1000 : i));
+        }
+        employees.add(employee("NoSalary", null));
+        roster(employees.toArray(new Employee[0]));
+
+        List<String> names =
+                employeeService.getTopTenHighestEarningEmployeeNames().block();
+
+        assertEquals(List.of("E0", "E5", "E10", "E14", "E13", "E12", "E11", "E9", "E8", "E7"), names);
+    }
+
+    @Test
+    void testGetEmployeeByIdNotFound() {
+        when(employeeApiClient.getEmployeeById("1"))
+                .thenReturn(Mono.error(new ApiClientException("Employee not found", null, 404)));
+
+        ResponseStatusException e = assertThrows(
+                ResponseStatusException.class,
+                () -> employeeService.getEmployeeById("1").block());
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+    }
+
+    @Test
+    void testCreateEmployee() {
+        CreateEmployeeDTO input = new CreateEmployeeDTO();
+        when(employeeApiClient.createEmployee(input)).thenReturn(Mono.just(employee("A", 1)));
+
+        assertEquals("A", employeeService.createEmployee(input).block().getName());
+    }
+
+    @Test
+    void testDeleteEmployeeByIdDeletesByName() {
+        when(employeeApiClient.getEmployeeById("1")).thenReturn(Mono.just(employee("A", 1)));
+        when(employeeApiClient.deleteEmployeeByName("A")).thenReturn(Mono.just("A"));
+
+        assertEquals("A", employeeService.deleteEmployeeById("1").block());
+    }
+
+    @Test
+    void testDeleteEmployeeByIdMapsServerErrorsTo500() {
+        when(employeeApiClient.getEmployeeById("1")).thenReturn(Mono.just(employee("A", 1)));
+        when(employeeApiClient.deleteEmployeeByName("A"))
+                .thenReturn(Mono.error(new ApiClientException("error", null, 503)));
+
+        ResponseStatusException e = assertThrows(
+                ResponseStatusException.class,
+                () -> employeeService.deleteEmployeeById("1").block());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, e.getStatusCode());
+    }
+
+    @Test
+    void testDeleteEmployeeByIdWithoutNameIsNotFound() {
+        when(employeeApiClient.getEmployeeById("1")).thenReturn(Mono.just(employee(null, 1)));
+
+        ResponseStatusException e = assertThrows(
+                ResponseStatusException.class,
+                () -> employeeService.deleteEmployeeById("1").block());
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+        verify(employeeApiClient, never()).deleteEmployeeByName(any());
+    }
+}
@@ -0,0 +1,91 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.client.EmployeeApiClient;
+import com.reliaquest.api.model.Employee;
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link EmployeeApiClient} end to end: HTTP round trip through the shared RestTemplate and response parsing,
+ * against an embedded JDK HttpServer standing in for the mock api. The stand-in serves pre-serialized bytes and
+ * never rate limits, so the score is the client's cost plus loopback I/O.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class EmployeeApiClientBenchmark {
+
+    private static final String PATH = "/api/v1/employee";
+
+    @Param({"50", "1000", "10000", "100000", "1000000"})
+    public int rosterSize;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private EmployeeApiClient employeeApiClient;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<Employee> roster = Rosters.generate(rosterSize);
+        byte[] rosterResponse = Rosters.envelope(roster);
+        byte[] employeeResponse = Rosters.envelope(roster.get(0));
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(PATH, exchange -> {
+            boolean byId = exchange.getRequestURI().getPath().length() > PATH.length();
+            byte[] body = byId ? employeeResponse : rosterResponse;
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        employeeApiClient = new EmployeeApiClient();
+        // same as the unit tests, the url is normally injected from application.yml
+        var urlField = EmployeeApiClient.class.getDeclaredField("mockApiUrl");
+        urlField.setAccessible(true);
+        urlField.set(
+                employeeApiClient, "http://localhost:" + server.getAddress().getPort() + PATH);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Employee> getAllEmployees() {
+        return employeeApiClient.getAllEmployees();
+    }
+
+    @Benchmark
+    public int forEachEmployee(Blackhole blackhole) {
+        return employeeApiClient.forEachEmployee(blackhole::consume);
+    }
+
+    @Benchmark
+    public Employee getEmployeeById() {
+        return employeeApiClient.getEmployeeById("4a3a170b-22cd-4ac2-aad1-9bb5b34a1507");
+    }
+}
@@ -0,0 +1,66 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.reliaquest.api.client.EmployeeEnvelopeReader;
+import com.reliaquest.api.common.CommonObjectMapper;
+import com.reliaquest.api.model.Employee;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link Employee} deserialization through its <code>employee_*</code> naming strategy, and the mock api response
+ * envelope parsed by {@link EmployeeEnvelopeReader}, both from in-memory bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class EmployeeJsonBenchmark {
+
+    @Param({"50", "1000", "10000", "100000", "1000000"})
+    public int rosterSize;
+
+    private ObjectReader employeeReader;
+    private ObjectReader rosterReader;
+    private EmployeeEnvelopeReader envelopeReader;
+    private byte[] employeeJson;
+    private byte[] rosterJson;
+    private byte[] envelopeJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        employeeReader = CommonObjectMapper.getObjectMapper().readerFor(Employee.class);
+        rosterReader = CommonObjectMapper.getObjectMapper().readerForListOf(Employee.class);
+        envelopeReader = new EmployeeEnvelopeReader(CommonObjectMapper.getObjectMapper());
+        List<Employee> roster = Rosters.generate(rosterSize);
+        employeeJson = CommonObjectMapper.getObjectMapper().writeValueAsBytes(roster.get(0));
+        rosterJson = CommonObjectMapper.getObjectMapper().writeValueAsBytes(roster);
+        envelopeJson = Rosters.envelope(roster);
+    }
+
+    @Benchmark
+    public Employee readEmployee() throws IOException {
+        return employeeReader.readValue(employeeJson);
+    }
+
+    @Benchmark
+    public List<Employee> readRoster() throws IOException {
+        return rosterReader.readValue(rosterJson);
+    }
+
+    @Benchmark
+    public Integer readEnvelope(Blackhole blackhole) throws IOException {
+        ByteArrayInputStream body = new ByteArrayInputStream(envelopeJson);
+        return envelopeReader.read(body, envelopeReader.employees(blackhole::consume));
+    }
+}
@@ -0,0 +1,82 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
+import com.reliaquest.api.client.EmployeeApiClient;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.service.EmployeeService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link EmployeeService} read paths over a cached roster, i.e. what a request costs once the roster snapshot is
+ * loaded. The mock api is replaced by an in-memory roster, so no HTTP is involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class EmployeeServiceBenchmark {
+
+    @Param({"50", "1000", "10000", "100000", "1000000"})
+    public int rosterSize;
+
+    private EmployeeService employeeService;
+    private String[] ids;
+
+    @Setup
+    public void setUp() {
+        List<Employee> roster = Rosters.generate(rosterSize);
+        EmployeeApiClient employeeApiClient = new EmployeeApiClient() {
+            @Override
+            public List<Employee> getAllEmployees() {
+                return roster;
+            }
+        };
+        EmployeeSnapshotCache snapshotCache = new EmployeeSnapshotCache(
+                employeeApiClient, Duration.ofDays(1), Duration.ZERO, Duration.ZERO, Duration.ZERO);
+        employeeService = new EmployeeService(employeeApiClient, snapshotCache);
+        employeeService.getAllEmployees();
+        ids = roster.stream().map(e -> e.getId().toString()).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public List<Employee> searchByName() {
+        return employeeService.getEmployeesByNameSearch("ander").value();
+    }
+
+    @Benchmark
+    public List<Employee> searchByShortFragment() {
+        return employeeService.getEmployeesByNameSearch("jo").value();
+    }
+
+    @Benchmark
+    public List<Employee> searchWithoutMatch() {
+        return employeeService.getEmployeesByNameSearch("xyzzy").value();
+    }
+
+    @Benchmark
+    public int highestSalary() {
+        return employeeService.getHighestSalaryOfEmployees().value();
+    }
+
+    @Benchmark
+    public List<String> topTenNames() {
+        return employeeService.getTopTenHighestEarningEmployeeNames().value();
+    }
+
+    @Benchmark
+    public Employee getById() {
+        return employeeService
+                .getEmployeeById(ids[ThreadLocalRandom.current().nextInt(ids.length)])
+                .value();
+    }
+}
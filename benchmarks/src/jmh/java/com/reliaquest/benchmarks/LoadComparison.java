@@ -0,0 +1,210 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.ApiApplication;
+import com.reliaquest.api.model.Employee;
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load comparison of the API module's two execution modes: Tomcat's platform thread pool, and the virtual-threads
+ * profile. Not a JMH benchmark, a driver: for each mode it starts the API application against an embedded stand-in for
+ * the mock api that answers every call after a fixed latency, then has clients concurrent clients, each on a virtual
+ * thread of its own, look up employees by random ids for the given duration. Every lookup misses the cache and costs
+ * the API one mock api call, so the API spends most of each request waiting on the mock api.
+ * <p>
+ * <code>./gradlew :benchmarks:loadComparison -Pclients=10000 -Pduration=30s -Pwarmup=10s -Platency=50ms</code>
+ * <p>
+ * 10k clients hold about 10k connections to the API, plus up to the pool size to the stand-in; the open file limit
+ * (<code>ulimit -n</code>) has to allow for both.
+ */
+public final class LoadComparison {
+
+    private static final String PATH = "/api/v1/employee";
+    private static final int MAX_LATENCY_MILLIS = 60_000;
+
+    private LoadComparison() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0], option[1]);
+        }
+        int clients = Integer.parseInt(options.getOrDefault("clients", "10000"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        Duration latency = DurationStyle.detectAndParse(options.getOrDefault("latency", "50ms"));
+
+        byte[] employeeResponse = Rosters.envelope(Rosters.generate(1).get(0));
+        byte[] rosterResponse = Rosters.envelope(List.<Employee>of());
+        HttpServer upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        upstream.createContext(PATH, exchange -> {
+            boolean byId = exchange.getRequestURI().getPath().length() > PATH.length();
+            byte[] body = byId ? employeeResponse : rosterResponse;
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        ExecutorService upstreamExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        upstream.setExecutor(upstreamExecutor);
+        upstream.start();
+
+        List<Result> results = new ArrayList<>();
+        try {
+            for (boolean virtualThreads : new boolean[] {false, true}) {
+                results.add(run(virtualThreads, upstream.getAddress().getPort(), clients, duration, warmup));
+            }
+        } finally {
+            upstream.stop(0);
+            upstreamExecutor.shutdownNow();
+        }
+
+        System.out.printf(
+                "%n%d clients, %s measured after %s warmup, mock api latency %s%n", clients, duration, warmup, latency);
+        System.out.printf(
+                "%-10s %12s %10s %10s %10s %10s%n", "mode", "requests/s", "errors", "p50 ms", "p99 ms", "max ms");
+        for (Result result : results) {
+            System.out.printf(
+                    "%-10s %12.0f %10d %10d %10d %10d%n",
+                    result.mode(),
+                    result.completed() / (duration.toMillis() / 1000.0),
+                    result.errors(),
+                    result.percentile(0.50),
+                    result.percentile(0.99),
+                    result.percentile(1.0));
+        }
+    }
+
+    private static Result run(
+            boolean virtualThreads, int upstreamPort, int clients, Duration duration, Duration warmup) {
+        String mode = virtualThreads ? "virtual" : "platform";
+        SpringApplicationBuilder application = new SpringApplicationBuilder(ApiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "mock.api.url=http://localhost:" + upstreamPort + PATH,
+                        "employee.cache.change-feed.enabled=false",
+                        // same connection limits in both modes, so only the threads and the pool differ
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=1000",
+                        "logging.level.root=WARN",
+                        "logging.level.com.reliaquest=WARN");
+        if (virtualThreads) {
+            application.profiles("virtual-threads");
+        }
+        try (ConfigurableApplicationContext context = application.run()) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            URI base = URI.create("http://localhost:" + port + "/api/v1/employee/");
+            System.out.printf("%s: %d clients for %s, warming up for %s%n", mode, clients, duration, warmup);
+
+            Result result = new Result(mode);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            long measureFrom = System.nanoTime() + warmup.toNanos();
+            long measureUntil = measureFrom + duration.toNanos();
+            try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clients; i++) {
+                    callers.execute(() -> {
+                        while (System.nanoTime() < measureUntil) {
+                            HttpRequest request = HttpRequest.newBuilder(
+                                            base.resolve(UUID.randomUUID().toString()))
+                                    .timeout(Duration.ofSeconds(30))
+                                    .build();
+                            long start = System.nanoTime();
+                            boolean ok;
+                            try {
+                                HttpResponse<Void> response =
+                                        client.send(request, HttpResponse.BodyHandlers.discarding());
+                                ok = response.statusCode() == 200;
+                            } catch (InterruptedException e) {
+                                return;
+                            } catch (Exception e) {
+                                ok = false;
+                            }
+                            long end = System.nanoTime();
+                            if (start >= measureFrom && end <= measureUntil) {
+                                result.record(ok, end - start);
+                            }
+                        }
+                    });
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Requests completed within the measured window, with a latency histogram in 1ms buckets.
+     */
+    private static final class Result {
+        private final String mode;
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicLongArray latencies = new AtomicLongArray(MAX_LATENCY_MILLIS + 1);
+
+        Result(String mode) {
+            this.mode = mode;
+        }
+
+        void record(boolean ok, long nanos) {
+            if (!ok) {
+                errors.increment();
+                return;
+            }
+            completed.increment();
+            latencies.incrementAndGet((int) Math.min(MAX_LATENCY_MILLIS, nanos / 1_000_000));
+        }
+
+        String mode() {
+            return mode;
+        }
+
+        long completed() {
+            return completed.sum();
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        long percentile(double percentile) {
+            long total = completed();
+            long rank = Math.max(1, (long) Math.ceil(total * percentile));
+            long seen = 0;
+            for (int millis = 0; millis <= MAX_LATENCY_MILLIS; millis++) {
+                seen += latencies.get(millis);
+                if (seen >= rank) {
+                    return millis;
+                }
+            }
+            return 0;
+        }
+    }
+}
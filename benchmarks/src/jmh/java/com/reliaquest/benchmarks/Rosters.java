@@ -0,0 +1,67 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.common.CommonObjectMapper;
+import com.reliaquest.api.model.Employee;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic rosters shaped like the mock api's: same size, same employees on every run.
+ */
+final class Rosters {
+
+    private static final String[] FIRST_NAMES = {
+        "Tiger", "Bill", "Jill", "Anna", "Joseph", "Maria", "Ashton", "Cedric", "Airi", "Brielle", "Herrod", "Rhona",
+        "Colleen", "Sonya", "Jena", "Quinn", "Charde", "Haley", "Tatyana", "Michael", "Paul", "Gloria", "Bradley", "Dai"
+    };
+    private static final String[] LAST_NAMES = {
+        "Nixon", "Bob", "Jenkins", "Anderson", "Johnson", "Garcia", "Cox", "Kelly", "Satou", "Williamson", "Chandler",
+        "Davidson", "Hurst", "Frost", "Gaines", "Flynn", "Marshall", "Kennedy", "Fitzpatrick", "Silva", "Byrd", "Little"
+    };
+    private static final String[] TITLES = {
+        "Vice Chair", "Documentation Engineer", "Financial Advisor", "Accountant", "Integration Specialist",
+        "Javascript Developer", "Software Engineer", "Office Manager", "Regional Director", "Support Lead"
+    };
+
+    private Rosters() {}
+
+    static List<Employee> generate(int size) {
+        Random random = new Random(size);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            employees.add(Employee.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .name(first + " " + last)
+                    .salary(30_000 + random.nextInt(470_000))
+                    .age(16 + random.nextInt(60))
+                    .title(TITLES[random.nextInt(TITLES.length)])
+                    .email((first.charAt(0) + last).toLowerCase() + i + "@company.com")
+                    .build());
+        }
+        return employees;
+    }
+
+    /**
+     * The roster wrapped in the mock api's response envelope, as sent by GET /api/v1/employee.
+     */
+    static byte[] envelope(Object data) {
+        ObjectMapper objectMapper = CommonObjectMapper.getObjectMapper();
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("data", data);
+        envelope.put("status", "Successfully processed request.");
+        try {
+            return objectMapper.writeValueAsBytes(envelope);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.reliaquest.server.config;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import net.datafaker.Faker;
+
+/**
+ * Generates large mock rosters quickly and reproducibly.
+ * <p>
+ * Faker is only used up front, to sample dictionaries of names, titles and usernames. Employees are then filled in
+ * parallel over index ranges on the common fork/join pool, each from its own random stream derived from the seed and
+ * its index, so the same seed and size always produce the same roster however the work is split.
+ */
+@Slf4j
+public final class ParallelMockEmployeeGenerator {
+
+    private static final int NAME_DICTIONARY_SIZE = 2048;
+    private static final int TITLE_DICTIONARY_SIZE = 512;
+    private static final int USERNAME_DICTIONARY_SIZE = 4096;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final String[] titles;
+    private final String[] usernames;
+
+    public ParallelMockEmployeeGenerator(long seed) {
+        this.seed = seed;
+        // a fixed locale, so the dictionaries are the same on every machine
+        final var faker = new Faker(Locale.ENGLISH, new Random(seed));
+        this.firstNames = sample(NAME_DICTIONARY_SIZE, () -> faker.name().firstName());
+        this.lastNames = sample(NAME_DICTIONARY_SIZE, () -> faker.name().lastName());
+        this.titles = sample(TITLE_DICTIONARY_SIZE, () -> faker.job().title());
+        this.usernames = sample(
+                USERNAME_DICTIONARY_SIZE, () -> faker.twitter().userName().toLowerCase(Locale.ROOT));
+    }
+
+    public List<MockEmployee> generate(int count) {
+        final var startedAt = System.nanoTime();
+        final var mockEmployees = new MockEmployee[count];
+        IntStream.range(0, count).parallel().forEach(index -> mockEmployees[index] = generateOne(index));
+        final var elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Generated {} employees with seed {} in {} ms", count, seed, elapsedMillis);
+        return Arrays.asList(mockEmployees);
+    }
+
+    private MockEmployee generateOne(int index) {
+        // mixed, so the streams of neighbouring indexes don't overlap
+        final var random = new SplittableRandom(mix64(seed + GOLDEN_GAMMA * index));
+        // random version 4 ids, drawn from the employee's own stream
+        final var mostSigBits = (random.nextLong() & ~0xf000L) | 0x4000L;
+        final var leastSigBits = (random.nextLong() & ~(0xcL << 60)) | (0x8L << 60);
+        return new MockEmployee(
+                new UUID(mostSigBits, leastSigBits),
+                pick(random, firstNames) + " " + pick(random, lastNames),
+                random.nextInt(30000, 500000),
+                random.nextInt(16, 70),
+                pick(random, titles),
+                // the index keeps emails unique however many employees share a sampled username
+                ServerConfiguration.EMAIL_TEMPLATE.formatted(pick(random, usernames) + index));
+    }
+
+    private static String pick(SplittableRandom random, String[] dictionary) {
+        return dictionary[random.nextInt(dictionary.length)];
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static String[] sample(int size, Supplier<String> supplier) {
+        final var values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = supplier.get();
+        }
+        return values;
+    }
+}
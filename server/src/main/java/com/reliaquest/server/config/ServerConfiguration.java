@@ -1,13 +1,19 @@
 package com.reliaquest.server.config;
 
 import com.reliaquest.server.model.MockEmployee;
-import com.reliaquest.server.web.RandomRequestLimitInterceptor;
-import java.util.ArrayList;
+import com.reliaquest.server.repository.MockEmployeeRepository;
+import com.reliaquest.server.repository.MockEmployeeStore;
+import com.reliaquest.server.web.FaultInjectionInterceptor;
+import com.reliaquest.server.web.RequestLimitInterceptor;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
 import net.datafaker.transformations.Field;
@@ -21,20 +27,49 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Slf4j
 @Configuration
+@RequiredArgsConstructor
 public class ServerConfiguration implements WebMvcConfigurer {
 
     public static final String EMAIL_TEMPLATE = "%s@company.com";
 
+    private final RequestLimitInterceptor requestLimitInterceptor;
+
+    private final FaultInjectionInterceptor faultInjectionInterceptor;
+
     @Bean
     public Faker faker() {
         return new Faker(Locale.getDefault());
     }
 
     /*
-     * This list is modifiable by design for CRUD operations.
+     * The repository is modifiable by design for CRUD operations.
+     * With mock.employees.store.path set, the roster is saved there and a restart picks up where the last run left off
+     * instead of generating a new one.
      */
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
+    public MockEmployeeRepository mockEmployeeRepository(
+            Faker faker,
+            @Value("${mock.employees.max:20}") int maxEmployees,
+            @Value("${mock.employees.generation:faker}") Generation generation,
+            @Value("${mock.employees.seed:#{null}}") Long seed,
+            @Value("${mock.employees.change-log.retention:10000}") int changeRetention,
+            @Value("${mock.employees.store.path:}") String storePath)
+            throws IOException {
+        if (!storePath.isBlank()) {
+            return MockEmployeeRepository.open(
+                    new MockEmployeeStore(Path.of(storePath)),
+                    () -> generate(faker, maxEmployees, generation, seed),
+                    changeRetention);
+        }
+        return new MockEmployeeRepository(generate(faker, maxEmployees, generation, seed), changeRetention);
+    }
+
+    private static List<MockEmployee> generate(Faker faker, int maxEmployees, Generation generation, Long seed) {
+        if (generation == Generation.PARALLEL) {
+            final var generator = new ParallelMockEmployeeGenerator(
+                    seed != null ? seed : RandomGenerator.getDefault().nextLong());
+            return generator.generate(maxEmployees);
+        }
         final var transformer = new JavaObjectTransformer();
         final var schema = Schema.of(
                 Field.field("id", UUID::randomUUID),
@@ -49,11 +84,21 @@ public class ServerConfiguration implements WebMvcConfigurer {
         return IntStream.rangeClosed(1, maxEmployees)
                 .mapToObj(ignored -> (MockEmployee) transformer.apply(MockEmployee.class, schema))
                 .peek(mockEmployee -> log.debug("Created employee: {}", mockEmployee))
-                .collect(Collectors.toCollection(ArrayList::new));
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * How the mock roster is generated on startup. FAKER builds each employee through Faker and logs it, which is fine
+     * for a few dozen employees. PARALLEL uses {@link ParallelMockEmployeeGenerator} and is meant for large rosters.
+     */
+    public enum Generation {
+        FAKER,
+        PARALLEL
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new RandomRequestLimitInterceptor());
+        registry.addInterceptor(requestLimitInterceptor);
+        registry.addInterceptor(faultInjectionInterceptor);
     }
 }
@@ -0,0 +1,92 @@
+package com.reliaquest.server.config;
+
+import com.reliaquest.server.web.BurstBackoffRequestLimiter;
+import com.reliaquest.server.web.FaultInjectionInterceptor;
+import com.reliaquest.server.web.RequestLimitInterceptor;
+import com.reliaquest.server.web.SlidingWindowRequestLimiter;
+import com.reliaquest.server.web.TokenBucketRequestLimiter;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * How the mock api limits and disrupts requests, from the mock.rate-limit and mock.faults properties, so a load test
+ * can be run against the same behaviour again.
+ */
+@Slf4j
+@Configuration
+public class TrafficConfiguration {
+
+    @Bean
+    public RequestLimitInterceptor requestLimitInterceptor(
+            @Value("${mock.rate-limit.profile:random}") RateLimitProfile profile,
+            @Value("${mock.rate-limit.limit:10}") int limit,
+            @Value("${mock.rate-limit.window:60s}") Duration window,
+            @Value("${mock.rate-limit.per-client:false}") boolean perClient,
+            @Value("${mock.rate-limit.seed:#{null}}") Long seed) {
+        return switch (profile) {
+            case NONE -> {
+                log.info("Rate limit: none");
+                yield RequestLimitInterceptor.unlimited();
+            }
+            case RANDOM -> {
+                final var random = seed != null ? new SplittableRandom(seed) : RandomGenerator.getDefault();
+                final var randomLimit = random.nextInt(5, 10);
+                final var backoff = Duration.ofSeconds(random.nextInt(30, 90));
+                log.info("Rate limit: {} requests, then {} backoff, per client: {}", randomLimit, backoff, perClient);
+                yield new RequestLimitInterceptor(
+                        () -> new BurstBackoffRequestLimiter(randomLimit, backoff), perClient);
+            }
+            case TOKEN_BUCKET -> {
+                log.info("Rate limit: token bucket of {} per {}, per client: {}", limit, window, perClient);
+                yield new RequestLimitInterceptor(() -> new TokenBucketRequestLimiter(limit, window), perClient);
+            }
+            case SLIDING_WINDOW -> {
+                log.info("Rate limit: {} per sliding {}, per client: {}", limit, window, perClient);
+                yield new RequestLimitInterceptor(() -> new SlidingWindowRequestLimiter(limit, window), perClient);
+            }
+        };
+    }
+
+    @Bean
+    public FaultInjectionInterceptor faultInjectionInterceptor(
+            @Value("${mock.faults.latency:none}") FaultInjectionInterceptor.Latency latency,
+            @Value("${mock.faults.latency-mean:0ms}") Duration latencyMean,
+            @Value("${mock.faults.latency-max:10s}") Duration latencyMax,
+            @Value("${mock.faults.error-rate:0}") double errorRate,
+            @Value("${mock.faults.error-status:503}") int errorStatus,
+            @Value("${mock.faults.seed:#{null}}") Long seed) {
+        final var interceptor = new FaultInjectionInterceptor(
+                latency,
+                latencyMean,
+                latencyMax,
+                errorRate,
+                errorStatus,
+                seed != null ? seed : RandomGenerator.getDefault().nextLong());
+        if (interceptor.isEnabled()) {
+            log.info(
+                    "Faults: {} latency, mean {}, {} of requests fail with {}",
+                    latency,
+                    latencyMean,
+                    errorRate,
+                    errorStatus);
+        }
+        return interceptor;
+    }
+
+    /**
+     * RANDOM is how the mock api has always limited requests: between 5 and 9 requests, then a backoff of 30 to 89
+     * seconds, both picked at startup, from the seed if there is one. TOKEN_BUCKET and SLIDING_WINDOW allow limit
+     * requests per window, the former in bursts of up to limit.
+     */
+    public enum RateLimitProfile {
+        NONE,
+        RANDOM,
+        TOKEN_BUCKET,
+        SLIDING_WINDOW
+    }
+}
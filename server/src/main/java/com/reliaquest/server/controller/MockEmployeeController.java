@@ -1,23 +1,32 @@
 package com.reliaquest.server.controller;
 
 import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.CreateMockEmployeesInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.DeleteMockEmployeesInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
 import com.reliaquest.server.model.Response;
+import com.reliaquest.server.service.MockEmployeeRosterBodyCache;
 import com.reliaquest.server.service.MockEmployeeService;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/employee")
@@ -26,9 +35,87 @@ public class MockEmployeeController {
 
     private final MockEmployeeService mockEmployeeService;
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String CHANGE_SEQUENCE_HEADER = "X-Change-Sequence";
+
+    /**
+     * The whole roster. The response carries the number of the last change it includes in the X-Change-Sequence
+     * header, and a weak ETag of the roster's version: a request with that ETag in If-None-Match is answered 304
+     * without a body until the roster changes. The ETag is weak so the response can still be compressed.
+     * The body is serialized and gzipped once per roster version, see {@link MockEmployeeRosterBodyCache}, and written
+     * as is; the gzipped copy goes to clients that accept gzip, which keeps the server from compressing it again.
+     */
+    @GetMapping(params = {"!limit", "!cursor"})
+    public ResponseEntity<byte[]> getAllEmployees(
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        final var body = mockEmployeeService.getMockEmployeeRosterBody();
+        final var response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag("W/\"" + body.version() + "\"")
+                .header(CHANGE_SEQUENCE_HEADER, Long.toString(body.changeSequence()))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzipped());
+        }
+        return response.body(body.json());
+    }
+
+    /**
+     * One page of at most limit employees. The response carries the cursor of the next page in the X-Next-Cursor
+     * header, which is absent on the last page.
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public ResponseEntity<Response<List<MockEmployee>>> getEmployees(
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        final var page = mockEmployeeService.getMockEmployeePage(cursor, limit);
+        final var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(Response.handledWith(page.mockEmployees()));
+    }
+
+    /**
+     * Creates and deletes made after change number since, oldest first. The X-Change-Sequence header carries the
+     * number of the last change returned, to ask for the next ones with. Without since there are no changes and the
+     * header carries the number of the last change made. 410 if the changes are no longer kept.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Response<List<MockEmployeeChange>>> getChanges(
+            @RequestParam(name = "since", required = false) Long since,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        final var changes = mockEmployeeService.getChanges(since, limit);
+        return ResponseEntity.ok()
+                .header(CHANGE_SEQUENCE_HEADER, Long.toString(changes.changeSequence()))
+                .body(Response.handledWith(changes.changes()));
+    }
+
+    /**
+     * Server-Sent Events stream of the changes made after change number since, or from now on without it.
+     * See {@link com.reliaquest.server.service.MockEmployeeChangePublisher} for the events sent.
+     */
+    @GetMapping(path = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(name = "since", required = false) Long since) {
+        return mockEmployeeService.subscribeToChanges(since);
+    }
+
+    @GetMapping("/search")
+    public Response<List<MockEmployee>> searchEmployees(@RequestParam("q") String searchString) {
+        return Response.handledWith(mockEmployeeService.searchByName(searchString));
+    }
+
+    @GetMapping("/max-salary")
+    public Response<Integer> getHighestSalary() {
+        return Response.handledWith(mockEmployeeService.getHighestSalary());
+    }
+
+    /**
+     * The n highest paid employees, highest salary first.
+     */
+    @GetMapping("/top")
+    public Response<List<MockEmployee>> getTopEarners(@RequestParam(name = "n", defaultValue = "10") int limit) {
+        return Response.handledWith(mockEmployeeService.getTopEarners(limit));
     }
 
     @GetMapping("/{id}")
@@ -44,8 +131,37 @@ public class MockEmployeeController {
         return Response.handledWith(mockEmployeeService.create(input));
     }
 
+    /**
+     * Creates all employees in one request, the response lists them in the order given.
+     */
+    @PostMapping("/batch")
+    public Response<List<MockEmployee>> createEmployees(@Valid @RequestBody CreateMockEmployeesInput input) {
+        return Response.handledWith(mockEmployeeService.createAll(input));
+    }
+
     @DeleteMapping()
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    /**
+     * Deletes by each name in turn in one request, the response says for each name whether an employee was deleted.
+     */
+    @DeleteMapping("/batch")
+    public Response<List<Boolean>> deleteEmployees(@Valid @RequestBody DeleteMockEmployeesInput input) {
+        return Response.handledWith(mockEmployeeService.deleteAll(input));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final var coding : acceptEncoding.split(",")) {
+            final var parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,13 @@
+package com.reliaquest.server.model;
+
+/**
+ * One create or delete, numbered in the order the repository applied them. A delete carries the employee as it was
+ * when it was removed.
+ */
+public record MockEmployeeChange(long sequence, Type type, MockEmployee employee) {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+}
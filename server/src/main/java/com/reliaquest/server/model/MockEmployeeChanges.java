@@ -0,0 +1,8 @@
+package com.reliaquest.server.model;
+
+import java.util.List;
+
+/**
+ * Changes in the order they were made, and the number of the last change they bring a reader up to.
+ */
+public record MockEmployeeChanges(List<MockEmployeeChange> changes, long changeSequence) {}
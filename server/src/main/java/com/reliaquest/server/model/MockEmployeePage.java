@@ -0,0 +1,8 @@
+package com.reliaquest.server.model;
+
+import java.util.List;
+
+/**
+ * One page of employees, with the cursor of the next page or null if this is the last one.
+ */
+public record MockEmployeePage(List<MockEmployee> mockEmployees, String nextCursor) {}
@@ -0,0 +1,67 @@
+package com.reliaquest.server.repository;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The most recent changes made to a {@link MockEmployeeRepository}, numbered 1, 2, 3... in the order they were made.
+ * Keeps at most retention changes in a ring buffer, the oldest one is dropped when a new one doesn't fit.
+ * Not thread-safe, the repository guards it with its own lock.
+ */
+class ChangeLog {
+
+    private final MockEmployeeChange[] changes;
+    private final long firstSequence;
+    private long lastSequence;
+
+    ChangeLog(int retention) {
+        this(retention, 0);
+    }
+
+    /**
+     * @param lastSequence the number of the last change made before this log, e.g. before a restart; the next change
+     * is numbered after it and changes up to it can't be read from this log
+     */
+    ChangeLog(int retention, long lastSequence) {
+        if (retention < 1) {
+            throw new IllegalArgumentException("retention must be at least 1");
+        }
+        this.changes = new MockEmployeeChange[retention];
+        this.firstSequence = lastSequence + 1;
+        this.lastSequence = lastSequence;
+    }
+
+    MockEmployeeChange append(MockEmployeeChange.Type type, MockEmployee mockEmployee) {
+        final var change = new MockEmployeeChange(++lastSequence, type, mockEmployee);
+        changes[slot(change.sequence())] = change;
+        return change;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Up to limit changes made after the given sequence number, oldest first.
+     * @return null if changes after it have already been dropped, or if the sequence number is ahead of the log,
+     * in both cases the caller can't catch up from the log
+     */
+    List<MockEmployeeChange> since(long sequence, int limit) {
+        final var oldestRetained = Math.max(firstSequence, lastSequence - changes.length + 1);
+        if (sequence < oldestRetained - 1 || sequence > lastSequence) {
+            return null;
+        }
+        final var to = Math.min(lastSequence, sequence + limit);
+        final var result = new ArrayList<MockEmployeeChange>((int) (to - sequence));
+        for (long next = sequence + 1; next <= to; next++) {
+            result.add(changes[slot(next)]);
+        }
+        return result;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % changes.length);
+    }
+}
@@ -0,0 +1,382 @@
+package com.reliaquest.server.repository;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import lombok.NonNull;
+
+/**
+ * Thread-safe store of mock employees, in creation order.
+ * <p>
+ * Lookups by id go straight to a {@link ConcurrentHashMap} without locking, unless a batch write is under way: they
+ * then wait for it, so a batch shows up all at once. Writes are serialized on the repository
+ * and keep a creation-order index and a case-insensitive name index in step with it, so neither a write nor a delete
+ * by name scans the roster. Name search goes through a trigram index ({@link NameTrigramIndex}) and top earners are
+ * read off a salary-ordered index.
+ * {@link #findAll()} returns an immutable copy of the roster as of one point in time; the copy is made on the first
+ * read after a write and shared by every read until the next one.
+ * <p>
+ * Every create and delete made after construction is also recorded in a {@link ChangeLog}, numbered in the order it
+ * was made, so a client holding a copy of the roster can catch up on what changed since instead of reading it again.
+ * <p>
+ * A repository opened with {@link #open} keeps its roster in a {@link MockEmployeeStore}, every change is journaled
+ * as it is recorded, and carries on from the stored roster, version and change number when opened again.
+ */
+public class MockEmployeeRepository implements AutoCloseable {
+
+    public static final int DEFAULT_CHANGE_RETENTION = 10_000;
+
+    private final Map<UUID, MockEmployee> byId = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private final TreeMap<Long, MockEmployee> bySequence = new TreeMap<>();
+    private final Map<UUID, Long> sequences = new HashMap<>();
+    private final Map<String, TreeMap<Long, MockEmployee>> byName = new HashMap<>();
+    private final NameTrigramIndex nameTrigrams = new NameTrigramIndex();
+    private final TreeMap<SalaryKey, MockEmployee> bySalary = new TreeMap<>();
+    private final ChangeLog changeLog;
+    private final String epoch;
+    private final MockEmployeeStore store;
+    private long nextSequence;
+
+    // odd while a batch is being written, see findById
+    private volatile long batchStamp;
+
+    private volatile Roster snapshot;
+
+    public MockEmployeeRepository(@NonNull Collection<MockEmployee> mockEmployees) {
+        this(mockEmployees, DEFAULT_CHANGE_RETENTION);
+    }
+
+    /**
+     * @param changeRetention how many of the most recent changes are kept; the initial employees aren't changes
+     */
+    public MockEmployeeRepository(@NonNull Collection<MockEmployee> mockEmployees, int changeRetention) {
+        this(mockEmployees, changeRetention, newEpoch(), 0, null);
+    }
+
+    private MockEmployeeRepository(
+            Collection<MockEmployee> mockEmployees,
+            int changeRetention,
+            String epoch,
+            long lastChangeSequence,
+            MockEmployeeStore store) {
+        this.changeLog = new ChangeLog(changeRetention, lastChangeSequence);
+        this.epoch = epoch;
+        this.store = store;
+        mockEmployees.forEach(mockEmployee -> {
+            remove(mockEmployee.getId());
+            insert(mockEmployee);
+        });
+    }
+
+    /**
+     * Loads the roster saved in the store, or if there is none, starts from the generated one and saves it.
+     * Either way the store is left with a fresh snapshot and journals every change from then on; changes made before
+     * opening can't be read from {@link #findChangesSince}, their numbers only carry on.
+     */
+    public static MockEmployeeRepository open(
+            @NonNull MockEmployeeStore store,
+            @NonNull Supplier<Collection<MockEmployee>> generator,
+            int changeRetention)
+            throws IOException {
+        final var contents = store.load()
+                .orElseGet(() -> new MockEmployeeStore.Contents(newEpoch(), 0, List.copyOf(generator.get())));
+        store.save(contents);
+        return new MockEmployeeRepository(
+                contents.mockEmployees(), changeRetention, contents.epoch(), contents.changeSequence(), store);
+    }
+
+    /**
+     * @return every employee in creation order, unaffected by later writes
+     */
+    public List<MockEmployee> findAll() {
+        return findRoster().mockEmployees();
+    }
+
+    /**
+     * Same as {@link #findAll()}, together with the number of the last change the roster includes.
+     */
+    public Roster findRoster() {
+        Roster result = snapshot;
+        if (result == null) {
+            synchronized (this) {
+                result = snapshot;
+                if (result == null) {
+                    result = new Roster(
+                            List.copyOf(bySequence.values()),
+                            changeLog.lastSequence(),
+                            epoch + "-" + changeLog.lastSequence());
+                    snapshot = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Up to limit changes made after the given change number, oldest first. 0 starts from the first change.
+     * @return empty if changes after it are no longer kept, or the number is unknown, e.g. from before a restart;
+     * the caller then has to read the whole roster again
+     */
+    public synchronized Optional<List<MockEmployeeChange>> findChangesSince(long sequence, int limit) {
+        return Optional.ofNullable(changeLog.since(sequence, limit));
+    }
+
+    /**
+     * @return the number of the last change made, 0 if there hasn't been one
+     */
+    public synchronized long lastChangeSequence() {
+        return changeLog.lastSequence();
+    }
+
+    /**
+     * Up to limit employees created after the given position, in creation order; -1 starts from the first employee.
+     * Positions are never reused, so paging on from the returned position neither skips nor repeats employees while
+     * others are created or deleted: deleted ones drop out and new ones show up at the end.
+     */
+    public synchronized Page findPage(long afterPosition, int limit) {
+        final var mockEmployees = new ArrayList<MockEmployee>(Math.min(limit, bySequence.size()));
+        long lastPosition = afterPosition;
+        for (var entry : bySequence.tailMap(afterPosition, false).entrySet()) {
+            if (mockEmployees.size() == limit) {
+                return new Page(mockEmployees, lastPosition);
+            }
+            mockEmployees.add(entry.getValue());
+            lastPosition = entry.getKey();
+        }
+        return new Page(mockEmployees, null);
+    }
+
+    public Optional<MockEmployee> findById(@NonNull UUID id) {
+        long stamp = batchStamp;
+        MockEmployee mockEmployee = byId.get(id);
+        if ((stamp & 1) == 0 && batchStamp == stamp) {
+            return Optional.ofNullable(mockEmployee);
+        }
+        // a batch was being written while we looked, read again once it's done
+        synchronized (this) {
+            return Optional.ofNullable(byId.get(id));
+        }
+    }
+
+    /**
+     * @return the first employee in creation order whose name equals the given one ignoring case
+     */
+    public synchronized Optional<MockEmployee> findFirstByName(@NonNull String name) {
+        TreeMap<Long, MockEmployee> namesakes = byName.get(nameKey(name));
+        return namesakes == null
+                ? Optional.empty()
+                : Optional.of(namesakes.firstEntry().getValue());
+    }
+
+    /**
+     * Employees whose name contains the search string ignoring case, in creation order.
+     */
+    public synchronized List<MockEmployee> searchByName(@NonNull String searchString) {
+        final var needle = searchString.toLowerCase(Locale.ROOT);
+        final var candidates = nameTrigrams.candidates(needle);
+        final var mockEmployees = new ArrayList<MockEmployee>();
+        if (candidates == null) {
+            for (MockEmployee mockEmployee : bySequence.values()) {
+                if (nameContains(mockEmployee, needle)) {
+                    mockEmployees.add(mockEmployee);
+                }
+            }
+            return mockEmployees;
+        }
+        for (long position : candidates) {
+            final var mockEmployee = bySequence.get(position);
+            if (mockEmployee != null && nameContains(mockEmployee, needle)) {
+                mockEmployees.add(mockEmployee);
+            }
+        }
+        return mockEmployees;
+    }
+
+    /**
+     * @return the highest salary, empty if no employee has one
+     */
+    public synchronized Optional<Integer> findHighestSalary() {
+        return bySalary.isEmpty()
+                ? Optional.empty()
+                : Optional.of(bySalary.firstKey().salary());
+    }
+
+    /**
+     * Up to limit employees with the highest salaries, highest first and equal salaries in creation order.
+     */
+    public synchronized List<MockEmployee> findTopBySalary(int limit) {
+        return bySalary.values().stream().limit(limit).toList();
+    }
+
+    /**
+     * Adds the employee after all others, replacing any employee with the same id.
+     */
+    public synchronized MockEmployee save(@NonNull MockEmployee mockEmployee) {
+        final var replaced = remove(mockEmployee.getId());
+        if (replaced != null) {
+            record(MockEmployeeChange.Type.DELETED, replaced);
+        }
+        insert(mockEmployee);
+        record(MockEmployeeChange.Type.CREATED, mockEmployee);
+        return mockEmployee;
+    }
+
+    private void record(MockEmployeeChange.Type type, MockEmployee mockEmployee) {
+        final var change = changeLog.append(type, mockEmployee);
+        if (store != null) {
+            store.append(change);
+        }
+    }
+
+    private void insert(MockEmployee mockEmployee) {
+        long sequence = nextSequence++;
+        byId.put(mockEmployee.getId(), mockEmployee);
+        bySequence.put(sequence, mockEmployee);
+        sequences.put(mockEmployee.getId(), sequence);
+        if (mockEmployee.getName() != null) {
+            byName.computeIfAbsent(nameKey(mockEmployee.getName()), key -> new TreeMap<>())
+                    .put(sequence, mockEmployee);
+            nameTrigrams.add(sequence, mockEmployee.getName().toLowerCase(Locale.ROOT));
+        }
+        if (mockEmployee.getSalary() != null) {
+            bySalary.put(new SalaryKey(mockEmployee.getSalary(), sequence), mockEmployee);
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Adds the employees in order, as one write: readers see either none or all of them.
+     */
+    public synchronized List<MockEmployee> saveAll(@NonNull List<MockEmployee> mockEmployees) {
+        batchStamp++;
+        try {
+            mockEmployees.forEach(this::save);
+        } finally {
+            batchStamp++;
+        }
+        return mockEmployees;
+    }
+
+    /**
+     * Deletes by each name in turn, as {@link #deleteFirstByName} would, as one write. A name given twice deletes the
+     * first two employees with that name.
+     * @return for each name, the removed employee if there was one
+     */
+    public synchronized List<Optional<MockEmployee>> deleteFirstByNames(@NonNull List<String> names) {
+        batchStamp++;
+        try {
+            return names.stream().map(this::deleteFirstByName).toList();
+        } finally {
+            batchStamp++;
+        }
+    }
+
+    /**
+     * Removes the first employee in creation order whose name equals the given one ignoring case.
+     * @return the removed employee, if there was one
+     */
+    public synchronized Optional<MockEmployee> deleteFirstByName(@NonNull String name) {
+        Optional<MockEmployee> mockEmployee = findFirstByName(name);
+        mockEmployee.ifPresent(employee -> deleteById(employee.getId()));
+        return mockEmployee;
+    }
+
+    public synchronized boolean deleteById(@NonNull UUID id) {
+        final var mockEmployee = remove(id);
+        if (mockEmployee == null) {
+            return false;
+        }
+        record(MockEmployeeChange.Type.DELETED, mockEmployee);
+        return true;
+    }
+
+    /**
+     * @return the removed employee, null if there was none with this id
+     */
+    private MockEmployee remove(UUID id) {
+        MockEmployee mockEmployee = byId.remove(id);
+        if (mockEmployee == null) {
+            return null;
+        }
+        long sequence = sequences.remove(id);
+        bySequence.remove(sequence);
+        if (mockEmployee.getName() != null) {
+            String key = nameKey(mockEmployee.getName());
+            TreeMap<Long, MockEmployee> namesakes = byName.get(key);
+            namesakes.remove(sequence);
+            if (namesakes.isEmpty()) {
+                byName.remove(key);
+            }
+            nameTrigrams.remove(mockEmployee.getName().toLowerCase(Locale.ROOT), bySequence::containsKey);
+        }
+        if (mockEmployee.getSalary() != null) {
+            bySalary.remove(new SalaryKey(mockEmployee.getSalary(), sequence));
+        }
+        snapshot = null;
+        return mockEmployee;
+    }
+
+    public int count() {
+        return byId.size();
+    }
+
+    /**
+     * Closes the store, if there is one. Changes made afterwards are no longer saved.
+     */
+    @Override
+    public synchronized void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    /**
+     * @param changeSequence the number of the last change made before the roster was read
+     * @param version changes whenever the roster does, and between two repositories, e.g. across a restart
+     */
+    public record Roster(List<MockEmployee> mockEmployees, long changeSequence, String version) {}
+
+    /**
+     * @param nextPosition where the next page starts, null if this is the last page
+     */
+    public record Page(List<MockEmployee> mockEmployees, Long nextPosition) {}
+
+    /**
+     * Orders by salary, highest first, then by creation.
+     */
+    private record SalaryKey(int salary, long sequence) implements Comparable<SalaryKey> {
+        @Override
+        public int compareTo(SalaryKey other) {
+            int bySalary = Integer.compare(other.salary, salary);
+            return bySalary != 0 ? bySalary : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static String newEpoch() {
+        return Long.toHexString(RandomGenerator.getDefault().nextLong());
+    }
+
+    private static boolean nameContains(MockEmployee mockEmployee, String lowerNeedle) {
+        return mockEmployee.getName() != null
+                && mockEmployee.getName().toLowerCase(Locale.ROOT).contains(lowerNeedle);
+    }
+
+    private static String nameKey(String name) {
+        // same folding as equalsIgnoreCase, which is how names have always been matched
+        return name.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+}
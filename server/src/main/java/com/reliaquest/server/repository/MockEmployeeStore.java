@@ -0,0 +1,353 @@
+package com.reliaquest.server.repository;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a {@link MockEmployeeRepository}'s roster on disk so a restarted server comes back with the same employees,
+ * roster version and change numbers.
+ * <ul>
+ *     <li><code>employees.snapshot</code> holds the whole roster in a compact binary form, it is read into memory
+ *     and decoded in one pass on startup</li>
+ *     <li><code>employees.journal</code> gets every create and delete appended as it is made, each record with its
+ *     change number and a checksum</li>
+ *     <li>on startup the journal is replayed on top of the snapshot, up to the first incomplete or damaged record,
+ *     then the result is written as the new snapshot, if anything was replayed, and the journal is started
+ *     afresh</li>
+ * </ul>
+ * Both files are read into heap buffers rather than memory-mapped: a mapping stays open until it's garbage
+ * collected, and on Windows an open mapping keeps the files from being replaced or truncated by {@link #save}.
+ * A snapshot is written to a temporary file and moved into place, so there is always a whole one. Journal records
+ * already in the snapshot are skipped by their change number, so a crash between the two steps loses nothing.
+ * Journal writes aren't forced to disk one by one: they survive the process, not the machine.
+ * Not thread-safe, the repository guards it with its own lock.
+ */
+@Slf4j
+public class MockEmployeeStore implements Closeable {
+
+    private static final int SNAPSHOT_MAGIC = 0x4D454D53; // MEMS
+    private static final int FORMAT_VERSION = 1;
+    private static final byte CREATED = 'C';
+    private static final byte DELETED = 'D';
+    private static final int SALARY_PRESENT = 1;
+    private static final int AGE_PRESENT = 2;
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+
+    private FileChannel journal;
+    private Contents loadedSnapshot;
+    private ByteBuffer record = ByteBuffer.allocate(4096);
+
+    public MockEmployeeStore(@NonNull Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.snapshotFile = directory.resolve("employees.snapshot");
+        this.journalFile = directory.resolve("employees.journal");
+    }
+
+    /**
+     * Reads the snapshot and replays the journal on top of it.
+     * @return empty if nothing has been saved yet
+     */
+    public Optional<Contents> load() throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return Optional.empty();
+        }
+        final var start = System.nanoTime();
+        final Contents snapshot;
+        try (final var channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            snapshot = readSnapshot(read(channel));
+        }
+        final var changes = new ArrayList<MockEmployeeChange>();
+        var changeSequence = snapshot.changeSequence();
+        if (Files.exists(journalFile)) {
+            try (final var channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+                final var buffer = read(channel);
+                for (var change = readChange(buffer); change != null; change = readChange(buffer)) {
+                    if (change.sequence() <= changeSequence) {
+                        continue;
+                    }
+                    if (change.sequence() != changeSequence + 1) {
+                        log.warn(
+                                "Journal skips from change {} to {}, ignoring the rest",
+                                changeSequence,
+                                change.sequence());
+                        break;
+                    }
+                    changes.add(change);
+                    changeSequence = change.sequence();
+                }
+            }
+        }
+        var mockEmployees = snapshot.mockEmployees();
+        if (!changes.isEmpty()) {
+            final var byId = new LinkedHashMap<UUID, MockEmployee>();
+            mockEmployees.forEach(mockEmployee -> byId.put(mockEmployee.getId(), mockEmployee));
+            for (MockEmployeeChange change : changes) {
+                byId.remove(change.employee().getId());
+                if (change.type() == MockEmployeeChange.Type.CREATED) {
+                    byId.put(change.employee().getId(), change.employee());
+                }
+            }
+            mockEmployees = new ArrayList<>(byId.values());
+        }
+        log.info(
+                "Loaded {} employees from {} and replayed {} changes in {} ms",
+                snapshot.mockEmployees().size(),
+                snapshotFile,
+                changes.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        final var contents = new Contents(snapshot.epoch(), changeSequence, mockEmployees);
+        loadedSnapshot = changes.isEmpty() ? contents : null;
+        return Optional.of(contents);
+    }
+
+    /**
+     * Writes the contents as the new snapshot and starts an empty journal for the changes made after it. Contents
+     * just loaded without replaying any changes are already the snapshot and aren't written again.
+     */
+    public void save(@NonNull Contents contents) throws IOException {
+        closeJournal();
+        if (contents != loadedSnapshot) {
+            writeSnapshot(contents);
+        }
+        loadedSnapshot = null;
+        journal = FileChannel.open(
+                journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void writeSnapshot(Contents contents) throws IOException {
+        final var start = System.nanoTime();
+        final var temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (final var file = new FileOutputStream(temporary.toFile());
+                final var out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, contents.epoch());
+            out.writeLong(contents.changeSequence());
+            out.writeInt(contents.mockEmployees().size());
+            for (MockEmployee mockEmployee : contents.mockEmployees()) {
+                writeEmployee(out, mockEmployee);
+            }
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info(
+                "Saved {} employees to {} in {} ms",
+                contents.mockEmployees().size(),
+                snapshotFile,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Appends the change to the journal. If that fails the error is logged and the journal is closed, the files keep
+     * the roster as it was up to the change before.
+     */
+    void append(MockEmployeeChange change) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            final var payload = encode(change);
+            final var crc = new CRC32();
+            crc.update(payload, 0, payload.length);
+            ensureRecordCapacity(payload.length + 8);
+            record.clear()
+                    .putInt(payload.length)
+                    .putInt((int) crc.getValue())
+                    .put(payload)
+                    .flip();
+            while (record.hasRemaining()) {
+                journal.write(record);
+            }
+        } catch (IOException e) {
+            log.error("Failed to journal change {}, no longer saving changes to {}", change.sequence(), journalFile, e);
+            closeJournal();
+        }
+    }
+
+    @Override
+    public void close() {
+        closeJournal();
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.force(false);
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Failed to close {}", journalFile, e);
+        }
+        journal = null;
+    }
+
+    private void ensureRecordCapacity(int capacity) {
+        if (record.capacity() < capacity) {
+            record = ByteBuffer.allocate(Math.max(capacity, record.capacity() * 2));
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel) throws IOException {
+        final var size = channel.size();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("File too large to load: " + size + " bytes");
+        }
+        final var buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static Contents readSnapshot(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not an employee snapshot, or written by another version");
+            }
+            final var decoder = new Decoder(buffer);
+            final var epoch = decoder.string();
+            final var changeSequence = buffer.getLong();
+            final var count = buffer.getInt();
+            final var mockEmployees = new ArrayList<MockEmployee>(count);
+            for (int i = 0; i < count; i++) {
+                mockEmployees.add(decoder.employee());
+            }
+            return new Contents(epoch, changeSequence, mockEmployees);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Employee snapshot is truncated", e);
+        }
+    }
+
+    /**
+     * @return the next change, null at the end of the journal or at the first record that is incomplete or damaged
+     */
+    private MockEmployeeChange readChange(ByteBuffer buffer) {
+        if (buffer.remaining() < 8) {
+            return null;
+        }
+        final var length = buffer.getInt();
+        final var expectedCrc = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+            log.warn("Journal {} ends with an incomplete change, ignoring it", journalFile);
+            return null;
+        }
+        final var payload = buffer.slice(buffer.position(), length);
+        final var crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            log.warn("Journal {} has a damaged change at byte {}, ignoring the rest", journalFile, buffer.position());
+            return null;
+        }
+        buffer.position(buffer.position() + length);
+        final var type = payload.get() == CREATED ? MockEmployeeChange.Type.CREATED : MockEmployeeChange.Type.DELETED;
+        final var sequence = payload.getLong();
+        return new MockEmployeeChange(sequence, type, new Decoder(payload).employee());
+    }
+
+    private static byte[] encode(MockEmployeeChange change) throws IOException {
+        final var bytes = new ByteArrayOutputStream(128);
+        final var out = new DataOutputStream(bytes);
+        out.writeByte(change.type() == MockEmployeeChange.Type.CREATED ? CREATED : DELETED);
+        out.writeLong(change.sequence());
+        writeEmployee(out, change.employee());
+        return bytes.toByteArray();
+    }
+
+    private static void writeEmployee(DataOutputStream out, MockEmployee mockEmployee) throws IOException {
+        out.writeLong(mockEmployee.getId().getMostSignificantBits());
+        out.writeLong(mockEmployee.getId().getLeastSignificantBits());
+        out.writeByte((mockEmployee.getSalary() != null ? SALARY_PRESENT : 0)
+                | (mockEmployee.getAge() != null ? AGE_PRESENT : 0));
+        out.writeInt(mockEmployee.getSalary() != null ? mockEmployee.getSalary() : 0);
+        out.writeInt(mockEmployee.getAge() != null ? mockEmployee.getAge() : 0);
+        writeString(out, mockEmployee.getName());
+        writeString(out, mockEmployee.getTitle());
+        writeString(out, mockEmployee.getEmail());
+    }
+
+    /**
+     * Length in bytes, -1 for null, then UTF-8.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads what {@link #writeEmployee} and {@link #writeString} wrote, reusing one scratch array for the strings.
+     */
+    private static final class Decoder {
+        private final ByteBuffer buffer;
+        private byte[] scratch = new byte[256];
+
+        Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        MockEmployee employee() {
+            final var id = new UUID(buffer.getLong(), buffer.getLong());
+            final var present = buffer.get();
+            final var salary = buffer.getInt();
+            final var age = buffer.getInt();
+            return new MockEmployee(
+                    id,
+                    string(),
+                    (present & SALARY_PRESENT) != 0 ? salary : null,
+                    (present & AGE_PRESENT) != 0 ? age : null,
+                    string(),
+                    string());
+        }
+
+        String string() {
+            final var length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * @param epoch the repository's epoch, part of its roster version
+     * @param changeSequence the number of the last change the employees include
+     * @param mockEmployees in creation order
+     */
+    public record Contents(String epoch, long changeSequence, List<MockEmployee> mockEmployees) {}
+}
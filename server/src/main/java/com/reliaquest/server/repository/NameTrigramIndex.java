@@ -0,0 +1,124 @@
+package com.reliaquest.server.repository;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+/**
+ * Trigram index over lower-cased names, for case-insensitive substring search. Not thread-safe, the repository
+ * guards it.
+ * <p>
+ * Each 3-char sequence of a name maps to the creation positions of the names containing it. Positions only ever
+ * grow, so a new name is appended to its posting lists and the lists stay sorted without any reordering. Deleted
+ * names are left in place and filtered out by the caller; once they make up a quarter of the entries the lists are
+ * rebuilt without them.
+ */
+final class NameTrigramIndex {
+
+    private final Map<Long, Posting> postings = new HashMap<>();
+    private long entries;
+    private long deletedEntries;
+
+    void add(long position, String lowerName) {
+        for (int start = 0; start + 3 <= lowerName.length(); start++) {
+            if (postings.computeIfAbsent(trigram(lowerName, start), t -> new Posting())
+                    .add(position)) {
+                entries++;
+            }
+        }
+    }
+
+    /**
+     * Records that the name at a position was deleted, compacting the lists with the predicate telling which
+     * positions are still live if enough deleted entries have built up.
+     */
+    void remove(String lowerName, LongPredicate live) {
+        deletedEntries += Math.max(0, lowerName.length() - 2);
+        if (deletedEntries > 1024 && deletedEntries * 4 > entries) {
+            entries = 0;
+            postings.values().removeIf(posting -> {
+                posting.retain(live);
+                entries += posting.size;
+                return posting.size == 0;
+            });
+            deletedEntries = 0;
+        }
+    }
+
+    /**
+     * Ascending positions that may hold a name containing the query: every name that does is among them, deleted and
+     * false positives still need to be filtered out. Null if the query is too short to use the index.
+     */
+    long[] candidates(String lowerQuery) {
+        if (lowerQuery.length() < 3) {
+            return null;
+        }
+        Posting[] lists = new Posting[lowerQuery.length() - 2];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(trigram(lowerQuery, i));
+            if (lists[i] == null) {
+                return new long[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        long[] candidates = Arrays.copyOf(lists[0].positions, lists[0].size);
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+        return candidates;
+    }
+
+    private static long[] intersect(long[] smaller, Posting larger) {
+        long[] result = new long[smaller.length];
+        int count = 0;
+        int from = 0;
+        for (long position : smaller) {
+            int found = Arrays.binarySearch(larger.positions, from, larger.size, position);
+            if (found >= 0) {
+                result[count++] = position;
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+            if (from == larger.size) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static long trigram(String s, int start) {
+        return ((long) s.charAt(start) << 32) | ((long) s.charAt(start + 1) << 16) | s.charAt(start + 2);
+    }
+
+    /**
+     * Growable sorted list of positions, a trigram repeated within one name is added once.
+     */
+    private static final class Posting {
+        private long[] positions = new long[4];
+        private int size;
+
+        boolean add(long position) {
+            if (size > 0 && positions[size - 1] == position) {
+                return false;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+            return true;
+        }
+
+        void retain(LongPredicate live) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (live.test(positions[i])) {
+                    positions[kept++] = positions[i];
+                }
+            }
+            size = kept;
+            positions = Arrays.copyOf(positions, Math.max(4, kept));
+        }
+    }
+}
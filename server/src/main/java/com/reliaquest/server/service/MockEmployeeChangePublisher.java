@@ -0,0 +1,166 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.repository.MockEmployeeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes the repository's change log to Server-Sent Events subscribers.
+ * <ul>
+ *     <li>each subscriber has its own position in the change log, after every write it is sent a <code>change</code>
+ *     event for each change past its position, with the change number as the event id</li>
+ *     <li>a subscriber whose position is no longer in the log is sent a <code>resync</code> event and disconnected,
+ *     it has to read the whole roster again</li>
+ *     <li>every heartbeat interval each subscriber is sent a <code>heartbeat</code> event carrying its position, so an
+ *     idle subscriber can tell it's still connected and up to date</li>
+ * </ul>
+ * All events are sent from one thread, so each subscriber gets them in order.
+ */
+@Slf4j
+@Component
+public class MockEmployeeChangePublisher {
+
+    public static final String CHANGE_EVENT = "change";
+    public static final String HEARTBEAT_EVENT = "heartbeat";
+    public static final String RESYNC_EVENT = "resync";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MockEmployeeRepository mockEmployeeRepository;
+    private final Duration heartbeatInterval;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        final var thread = new Thread(r, "mock-employee-changes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MockEmployeeChangePublisher(
+            MockEmployeeRepository mockEmployeeRepository,
+            @Value("${mock.employees.change-feed.heartbeat:15s}") Duration heartbeatInterval) {
+        this.mockEmployeeRepository = mockEmployeeRepository;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        executor.scheduleWithFixedDelay(
+                this::heartbeat, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of the changes made after the given change number.
+     */
+    public SseEmitter subscribe(long since) {
+        final var subscriber = new Subscriber(newEmitter(), since);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        log.debug("Change feed subscriber added since {}, {} subscribers", since, subscribers.size());
+        changed();
+        return subscriber.emitter;
+    }
+
+    SseEmitter newEmitter() {
+        // never times out, the heartbeat keeps idle connections alive
+        return new SseEmitter(0L);
+    }
+
+    /**
+     * Called after every write. Writes in quick succession are sent in one pass.
+     */
+    public void changed() {
+        if (!subscribers.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                drainScheduled.set(false);
+                subscribers.forEach(this::drain);
+            });
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (drain(subscriber)) {
+                send(subscriber, SseEmitter.event().name(HEARTBEAT_EVENT).data(subscriber.position));
+            }
+        }
+    }
+
+    /**
+     * @return false if the subscriber was disconnected
+     */
+    private boolean drain(Subscriber subscriber) {
+        while (true) {
+            final var changes = mockEmployeeRepository.findChangesSince(subscriber.position, BATCH_SIZE);
+            if (changes.isEmpty()) {
+                log.debug(
+                        "Change feed subscriber at {} is behind the change log, asking it to resync",
+                        subscriber.position);
+                if (send(subscriber, SseEmitter.event().name(RESYNC_EVENT).data(subscriber.position))) {
+                    subscriber.emitter.complete();
+                }
+                subscribers.remove(subscriber);
+                return false;
+            }
+            for (final var change : changes.get()) {
+                final var event = SseEmitter.event()
+                        .id(Long.toString(change.sequence()))
+                        .name(CHANGE_EVENT)
+                        .data(change, MediaType.APPLICATION_JSON);
+                if (!send(subscriber, event)) {
+                    return false;
+                }
+                subscriber.position = change.sequence();
+            }
+            if (changes.get().size() < BATCH_SIZE) {
+                return true;
+            }
+        }
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Change feed subscriber gone: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        // only read and written on the executor thread once subscribed
+        private long position;
+
+        private Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.reliaquest.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.Response;
+import com.reliaquest.server.repository.MockEmployeeRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * The whole roster's response body, serialized once per roster version instead of on every request, together with a
+ * gzipped copy. Every create and delete gives the roster a new version, so a body is never served for a roster that
+ * has since changed; the first request after a change serializes the new one while concurrent requests wait for it.
+ * Only the latest version is kept.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MockEmployeeRosterBodyCache {
+
+    private final ObjectMapper objectMapper;
+
+    private volatile RosterBody current;
+
+    public RosterBody get(MockEmployeeRepository.Roster roster) {
+        var body = current;
+        if (body != null && body.version().equals(roster.version())) {
+            return body;
+        }
+        synchronized (this) {
+            body = current;
+            if (body != null && body.version().equals(roster.version())) {
+                return body;
+            }
+            final var serialized = serialize(roster);
+            if (body == null || body.changeSequence() < roster.changeSequence()) {
+                current = serialized;
+            }
+            return serialized;
+        }
+    }
+
+    private RosterBody serialize(MockEmployeeRepository.Roster roster) {
+        final var start = System.nanoTime();
+        try {
+            final var json = objectMapper.writeValueAsBytes(Response.handledWith(roster.mockEmployees()));
+            final var gzipped = new ByteArrayOutputStream(json.length / 4);
+            try (final var gzip = new GZIPOutputStream(gzipped, 64 * 1024)) {
+                gzip.write(json);
+            }
+            final var body = new RosterBody(roster.version(), roster.changeSequence(), json, gzipped.toByteArray());
+            log.debug(
+                    "Serialized roster {}: {} employees, {} bytes, {} gzipped, in {}ms",
+                    roster.version(),
+                    roster.mockEmployees().size(),
+                    json.length,
+                    body.gzipped().length,
+                    (System.nanoTime() - start) / 1_000_000);
+            return body;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param json the <code>Response</code> envelope around the roster, as the message converters would write it
+     * @param gzipped json, gzipped
+     */
+    public record RosterBody(String version, long changeSequence, byte[] json, byte[] gzipped) {}
+}
@@ -2,34 +2,122 @@ package com.reliaquest.server.service;
 
 import com.reliaquest.server.config.ServerConfiguration;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.CreateMockEmployeesInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.DeleteMockEmployeesInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.model.MockEmployeePage;
+import com.reliaquest.server.repository.MockEmployeeRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MockEmployeeService {
 
+    public static final int DEFAULT_PAGE_SIZE = 1_000;
+    public static final int MAX_PAGE_SIZE = 10_000;
+
+    private static final String CURSOR_PREFIX = "p1:";
+
     private final Faker faker;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    private final MockEmployeeRepository mockEmployeeRepository;
+
+    private final MockEmployeeChangePublisher changePublisher;
+
+    private final MockEmployeeRosterBodyCache rosterBodyCache;
+
+    public List<MockEmployee> getMockEmployees() {
+        return mockEmployeeRepository.findAll();
+    }
+
+    /**
+     * The whole roster, already serialized as the response body, with the number of the last change it includes;
+     * changes after it can be read from {@link #getChanges} or {@link #subscribeToChanges}.
+     */
+    public MockEmployeeRosterBodyCache.RosterBody getMockEmployeeRosterBody() {
+        return rosterBodyCache.get(mockEmployeeRepository.findRoster());
+    }
+
+    /**
+     * Up to limit changes made after the given change number. Without one, no changes and the number of the last
+     * change made, which is where a reader that is about to read the whole roster can start from.
+     * @throws ResponseStatusException 410 if the changes are no longer kept, the reader has to read the whole roster
+     */
+    public MockEmployeeChanges getChanges(Long since, Integer limit) {
+        if (since == null) {
+            return new MockEmployeeChanges(List.of(), mockEmployeeRepository.lastChangeSequence());
+        }
+        final var pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (since < 0 || pageSize < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must be at least 0 and limit at least 1");
+        }
+        final var changes = mockEmployeeRepository
+                .findChangesSince(since, Math.min(pageSize, MAX_PAGE_SIZE))
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.GONE, "Changes since " + since + " are no longer available, read all employees"));
+        return new MockEmployeeChanges(changes, since + changes.size());
+    }
+
+    /**
+     * Streams the changes made after the given change number, or from now on without one.
+     */
+    public SseEmitter subscribeToChanges(Long since) {
+        if (since != null && since < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must be at least 0");
+        }
+        return changePublisher.subscribe(since != null ? since : mockEmployeeRepository.lastChangeSequence());
+    }
+
+    /**
+     * A page of at most limit employees in creation order, starting after the cursor, or from the first employee
+     * without one. The cursor is opaque to callers; it stays valid while employees are created and deleted.
+     */
+    public MockEmployeePage getMockEmployeePage(String cursor, Integer limit) {
+        final var pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+        final var page = mockEmployeeRepository.findPage(
+                cursor == null ? -1 : decodeCursor(cursor), Math.min(pageSize, MAX_PAGE_SIZE));
+        final var nextCursor = page.nextPosition() == null ? null : encodeCursor(page.nextPosition());
+        return new MockEmployeePage(page.mockEmployees(), nextCursor);
+    }
+
+    public List<MockEmployee> searchByName(@NonNull String searchString) {
+        return mockEmployeeRepository.searchByName(searchString);
+    }
+
+    /**
+     * @return the highest salary, 0 if there are no employees
+     */
+    public int getHighestSalary() {
+        return mockEmployeeRepository.findHighestSalary().orElse(0);
+    }
+
+    public List<MockEmployee> getTopEarners(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "n must be at least 1");
+        }
+        return mockEmployeeRepository.findTopBySalary(Math.min(limit, MAX_PAGE_SIZE));
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return mockEmployeeRepository.findById(uuid);
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
@@ -37,22 +125,64 @@ public class MockEmployeeService {
                 ServerConfiguration.EMAIL_TEMPLATE.formatted(
                         faker.twitter().userName().toLowerCase()),
                 input);
-        mockEmployees.add(mockEmployee);
+        mockEmployeeRepository.save(mockEmployee);
+        changePublisher.changed();
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
+    public List<MockEmployee> createAll(@NonNull CreateMockEmployeesInput input) {
+        final var mockEmployees = input.getEmployees().stream()
+                .map(employeeInput -> MockEmployee.from(
+                        ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                                faker.twitter().userName().toLowerCase()),
+                        employeeInput))
+                .toList();
+        mockEmployeeRepository.saveAll(mockEmployees);
+        changePublisher.changed();
+        log.debug("Added {} employees", mockEmployees.size());
+        return mockEmployees;
+    }
+
+    /**
+     * @return for each name, in order, whether an employee was deleted
+     */
+    public List<Boolean> deleteAll(@NonNull DeleteMockEmployeesInput input) {
+        final var deleted = mockEmployeeRepository.deleteFirstByNames(input.getNames());
+        changePublisher.changed();
+        log.debug(
+                "Removed {} of {} employees",
+                deleted.stream().filter(Optional::isPresent).count(),
+                deleted.size());
+        return deleted.stream().map(Optional::isPresent).toList();
+    }
+
     public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
+        final var mockEmployee = mockEmployeeRepository.deleteFirstByName(input.getName());
         if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
+            changePublisher.changed();
             log.debug("Removed employee: {}", mockEmployee.get());
             return true;
         }
 
         return false;
     }
+
+    private static String encodeCursor(long position) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((CURSOR_PREFIX + position).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            final var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the bad request below, NumberFormatException included
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
 }
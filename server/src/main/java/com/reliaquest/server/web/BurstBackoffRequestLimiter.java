@@ -0,0 +1,43 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Allows limit requests, then rejects every request until backoff has passed since the last one allowed, and starts
+ * over. This is how the mock api has always limited requests; the count and the time of the last request are
+ * swapped in together, so concurrent requests can't both take the last slot.
+ */
+public class BurstBackoffRequestLimiter implements RequestLimiter {
+
+    private final int limit;
+    private final long backoffNanos;
+    private final AtomicReference<State> state = new AtomicReference<>(new State(0, Long.MIN_VALUE));
+
+    public BurstBackoffRequestLimiter(int limit, Duration backoff) {
+        this.limit = limit;
+        this.backoffNanos = backoff.toNanos();
+    }
+
+    @Override
+    public long acquire(long nowNanos) {
+        while (true) {
+            final var current = state.get();
+            if (current.count() < limit) {
+                if (state.compareAndSet(current, new State(current.count() + 1, nowNanos))) {
+                    return 0;
+                }
+                continue;
+            }
+            final var wait = current.lastAllowedNanos() + backoffNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (state.compareAndSet(current, new State(1, nowNanos))) {
+                return 0;
+            }
+        }
+    }
+
+    private record State(int count, long lastAllowedNanos) {}
+}
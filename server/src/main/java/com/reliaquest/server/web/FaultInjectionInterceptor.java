@@ -0,0 +1,112 @@
+package com.reliaquest.server.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Delays requests and fails a share of them, to see how clients cope with a slow or flaky api.
+ * Delays are drawn from the latency distribution and capped at latencyMax; a request then fails with errorStatus
+ * with probability errorRate. With a seed the n-th request gets the same delay and outcome on every run.
+ */
+@Slf4j
+public class FaultInjectionInterceptor implements HandlerInterceptor {
+
+    private final Latency latency;
+    private final long latencyMeanNanos;
+    private final long latencyMaxNanos;
+    private final double errorRate;
+    private final int errorStatus;
+
+    // guarded by this
+    private final SplittableRandom random;
+
+    public FaultInjectionInterceptor(
+            Latency latency, Duration latencyMean, Duration latencyMax, double errorRate, int errorStatus, long seed) {
+        this.latency = latency;
+        this.latencyMeanNanos = latencyMean.toNanos();
+        this.latencyMaxNanos = latencyMax.toNanos();
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public boolean isEnabled() {
+        return (latency != Latency.NONE && latencyMeanNanos > 0) || errorRate > 0;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        final var fault = nextFault();
+        final var delayNanos = fault.delayNanos();
+        if (delayNanos > 0) {
+            Thread.sleep(delayNanos / 1_000_000, (int) (delayNanos % 1_000_000));
+        }
+        if (fault.fail()) {
+            log.debug("Failing {} {} with {}", request.getMethod(), request.getRequestURI(), errorStatus);
+            response.setStatus(errorStatus);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Draws the delay and outcome of the next request.
+     */
+    Fault nextFault() {
+        final double latencySample;
+        final double errorSample;
+        synchronized (this) {
+            latencySample = random.nextDouble();
+            errorSample = random.nextDouble();
+        }
+        return new Fault(
+                Math.min(latencyMaxNanos, latency.delayNanos(latencyMeanNanos, latencySample)),
+                errorSample < errorRate);
+    }
+
+    record Fault(long delayNanos, boolean fail) {}
+
+    /**
+     * How delays are spread around their mean.
+     */
+    public enum Latency {
+        /** no delay */
+        NONE {
+            @Override
+            long delayNanos(long meanNanos, double sample) {
+                return 0;
+            }
+        },
+        /** every request is delayed by the mean */
+        FIXED {
+            @Override
+            long delayNanos(long meanNanos, double sample) {
+                return meanNanos;
+            }
+        },
+        /** uniform between 0 and twice the mean */
+        UNIFORM {
+            @Override
+            long delayNanos(long meanNanos, double sample) {
+                return (long) (2 * meanNanos * sample);
+            }
+        },
+        /** exponential: mostly short, with a long tail, which is what real latencies tend to look like */
+        EXPONENTIAL {
+            @Override
+            long delayNanos(long meanNanos, double sample) {
+                return (long) (-meanNanos * Math.log(1 - sample));
+            }
+        };
+
+        /**
+         * @param sample uniform in [0, 1)
+         */
+        abstract long delayNanos(long meanNanos, double sample);
+    }
+}
@@ -0,0 +1,76 @@
+package com.reliaquest.server.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers 429 with a Retry-After header, in whole seconds rounded up, once the {@link RequestLimiter} has no budget
+ * left. Either all requests share one limiter, or each client address gets its own; only the most recently seen
+ * clients are remembered, the least recently seen one is forgotten to make room for a new one.
+ */
+@Slf4j
+public class RequestLimitInterceptor implements HandlerInterceptor {
+
+    private static final int MAX_CLIENTS = 10_000;
+
+    private final Supplier<RequestLimiter> limiters;
+    private final RequestLimiter shared;
+
+    // guarded by itself, least recently seen client first
+    private final Map<String, RequestLimiter> byClient;
+
+    /**
+     * @param perClient whether each client address gets a limiter of its own
+     */
+    public RequestLimitInterceptor(Supplier<RequestLimiter> limiters, boolean perClient) {
+        this(limiters, perClient, MAX_CLIENTS);
+    }
+
+    RequestLimitInterceptor(Supplier<RequestLimiter> limiters, boolean perClient, int maxClients) {
+        this.limiters = limiters;
+        this.shared = perClient ? null : limiters.get();
+        this.byClient = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RequestLimiter> eldest) {
+                return size() > maxClients;
+            }
+        };
+    }
+
+    /**
+     * Lets every request through.
+     */
+    public static RequestLimitInterceptor unlimited() {
+        return new RequestLimitInterceptor(() -> nowNanos -> 0, false);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        final var waitNanos = limiterFor(request).acquire(System.nanoTime());
+        if (waitNanos <= 0) {
+            return true;
+        }
+        final var retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+        log.debug(
+                "Rate limited {} {}, retry after {}s", request.getMethod(), request.getRequestURI(), retryAfterSeconds);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return false;
+    }
+
+    private RequestLimiter limiterFor(HttpServletRequest request) {
+        if (shared != null) {
+            return shared;
+        }
+        synchronized (byClient) {
+            return byClient.computeIfAbsent(request.getRemoteAddr(), client -> limiters.get());
+        }
+    }
+}
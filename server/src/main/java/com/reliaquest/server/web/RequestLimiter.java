@@ -0,0 +1,14 @@
+package com.reliaquest.server.web;
+
+/**
+ * Decides whether a request may go ahead. Implementations are thread-safe.
+ */
+public interface RequestLimiter {
+
+    /**
+     * Takes one request from the budget if there's one left.
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return 0 if the request may go ahead, otherwise how many nanoseconds until one would be allowed
+     */
+    long acquire(long nowNanos);
+}
@@ -0,0 +1,41 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+
+/**
+ * Allows at most limit requests in any window, however the window is placed. Remembers when each of the last limit
+ * allowed requests was made, in a ring, so a request is allowed if the oldest of them is at least a window old,
+ * and the wait until it is is exact.
+ */
+public class SlidingWindowRequestLimiter implements RequestLimiter {
+
+    private final long windowNanos;
+
+    // guarded by this
+    private final long[] allowedAtNanos;
+    private int count;
+    private int oldest;
+
+    public SlidingWindowRequestLimiter(int limit, Duration window) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        this.windowNanos = window.toNanos();
+        this.allowedAtNanos = new long[limit];
+    }
+
+    @Override
+    public synchronized long acquire(long nowNanos) {
+        if (count < allowedAtNanos.length) {
+            allowedAtNanos[(oldest + count++) % allowedAtNanos.length] = nowNanos;
+            return 0;
+        }
+        final var wait = allowedAtNanos[oldest] + windowNanos - nowNanos;
+        if (wait > 0) {
+            return wait;
+        }
+        allowedAtNanos[oldest] = nowNanos;
+        oldest = (oldest + 1) % allowedAtNanos.length;
+        return 0;
+    }
+}
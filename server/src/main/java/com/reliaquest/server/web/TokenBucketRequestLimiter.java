@@ -0,0 +1,42 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket holding up to limit tokens, refilled at limit tokens per window, so it allows bursts of up to limit
+ * requests and limit requests per window on average.
+ * <p>
+ * Kept as a single theoretical arrival time (the generic cell rate algorithm): the time at which the bucket will be
+ * full again. A request is allowed if, once it's accounted for, that time is at most a window ahead. A compare and
+ * set on one long makes it lock-free, and the wait returned is exact.
+ */
+public class TokenBucketRequestLimiter implements RequestLimiter {
+
+    private final long intervalNanos;
+    private final long windowNanos;
+    private final AtomicLong fullAtNanos = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucketRequestLimiter(int limit, Duration window) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        this.intervalNanos = Math.max(1, window.toNanos() / limit);
+        this.windowNanos = intervalNanos * limit;
+    }
+
+    @Override
+    public long acquire(long nowNanos) {
+        while (true) {
+            final var fullAt = fullAtNanos.get();
+            final var next = Math.max(fullAt, nowNanos) + intervalNanos;
+            final var wait = next - windowNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAtNanos.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+}
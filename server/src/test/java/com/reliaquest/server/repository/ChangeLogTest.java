@@ -0,0 +1,65 @@
+package com.reliaquest.server.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ChangeLogTest {
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder().id(UUID.randomUUID()).name(name).build();
+    }
+
+    private static List<Long> sequences(List<MockEmployeeChange> changes) {
+        return changes.stream().map(MockEmployeeChange::sequence).toList();
+    }
+
+    @Test
+    void testChangesAreNumberedInOrder() {
+        ChangeLog changeLog = new ChangeLog(10);
+        MockEmployee alice = employee("Alice");
+
+        assertEquals(1, changeLog.append(MockEmployeeChange.Type.CREATED, alice).sequence());
+        assertEquals(2, changeLog.append(MockEmployeeChange.Type.DELETED, alice).sequence());
+        assertEquals(2, changeLog.lastSequence());
+
+        List<MockEmployeeChange> changes = changeLog.since(0, 10);
+        assertEquals(List.of(1L, 2L), sequences(changes));
+        assertEquals(MockEmployeeChange.Type.CREATED, changes.get(0).type());
+        assertEquals(MockEmployeeChange.Type.DELETED, changes.get(1).type());
+        assertEquals(List.of(), changeLog.since(2, 10));
+    }
+
+    @Test
+    void testSinceIsLimited() {
+        ChangeLog changeLog = new ChangeLog(10);
+        for (int i = 0; i < 5; i++) {
+            changeLog.append(MockEmployeeChange.Type.CREATED, employee("Employee " + i));
+        }
+
+        assertEquals(List.of(2L, 3L), sequences(changeLog.since(1, 2)));
+        assertEquals(List.of(4L, 5L), sequences(changeLog.since(3, 10)));
+    }
+
+    @Test
+    void testDroppedChangesCantBeCaughtUpOn() {
+        ChangeLog changeLog = new ChangeLog(3);
+        for (int i = 0; i < 5; i++) {
+            changeLog.append(MockEmployeeChange.Type.CREATED, employee("Employee " + i));
+        }
+
+        // 3, 4 and 5 are kept, so a reader at 2 can still catch up but one at 1 can't
+        assertEquals(List.of(3L, 4L, 5L), sequences(changeLog.since(2, 10)));
+        assertNull(changeLog.since(1, 10));
+        assertNull(changeLog.since(6, 10));
+    }
+
+    @Test
+    void testRetentionMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ChangeLog(0));
+    }
+}
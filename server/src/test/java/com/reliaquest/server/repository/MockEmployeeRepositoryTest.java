@@ -0,0 +1,168 @@
+package com.reliaquest.server.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeRepositoryTest {
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(1000)
+                .build();
+    }
+
+    @Test
+    void testFindAllKeepsCreationOrder() {
+        MockEmployee alice = employee("Alice");
+        MockEmployee bob = employee("Bob");
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of(alice, bob));
+        MockEmployee carol = repository.save(employee("Carol"));
+
+        assertEquals(List.of(alice, bob, carol), repository.findAll());
+        assertEquals(Optional.of(bob), repository.findById(bob.getId()));
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    void testSaveReplacesEmployeeWithSameId() {
+        MockEmployee alice = employee("Alice");
+        MockEmployee bob = employee("Bob");
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of(alice, bob));
+
+        MockEmployee renamed = alice.toBuilder().name("Alicia").build();
+        repository.save(renamed);
+
+        assertEquals(List.of(bob, renamed), repository.findAll());
+        assertTrue(repository.findFirstByName("Alice").isEmpty());
+        assertEquals(Optional.of(renamed), repository.findFirstByName("alicia"));
+    }
+
+    @Test
+    void testDeleteByNameRemovesFirstMatchIgnoringCase() {
+        MockEmployee first = employee("Alice");
+        MockEmployee second = employee("ALICE");
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of(first, second));
+
+        assertEquals(Optional.of(first), repository.deleteFirstByName("alice"));
+        assertEquals(Optional.of(second), repository.deleteFirstByName("alice"));
+        assertTrue(repository.deleteFirstByName("alice").isEmpty());
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void testFindAllIsUnaffectedByLaterWrites() {
+        MockEmployee alice = employee("Alice");
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of(alice));
+
+        List<MockEmployee> before = repository.findAll();
+        repository.save(employee("Bob"));
+        repository.deleteById(alice.getId());
+
+        assertEquals(List.of(alice), before);
+        assertSame(repository.findAll(), repository.findAll());
+    }
+
+    @Test
+    void testConcurrentWritesKeepIndexesConsistent() throws Exception {
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of());
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<MockEmployee>>> kept = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                kept.add(executor.submit(() -> {
+                    start.await();
+                    List<MockEmployee> survivors = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        MockEmployee employee = repository.save(employee("Employee " + thread + "-" + i));
+                        if (i % 2 == 0) {
+                            assertTrue(repository.deleteById(employee.getId()));
+                        } else {
+                            survivors.add(employee);
+                        }
+                    }
+                    return survivors;
+                }));
+            }
+            start.countDown();
+
+            List<List<MockEmployee>> survivors = new ArrayList<>();
+            for (Future<List<MockEmployee>> future : kept) {
+                survivors.add(future.get(30, TimeUnit.SECONDS));
+            }
+
+            List<MockEmployee> all = repository.findAll();
+            List<MockEmployee> expected = new ArrayList<>();
+            for (List<MockEmployee> saved : survivors) {
+                // each thread's employees keep the order they were saved in
+                assertEquals(saved, all.stream().filter(saved::contains).toList());
+                expected.addAll(saved);
+            }
+            assertEquals(expected.size(), all.size());
+            assertEquals(expected.size(), repository.count());
+            for (MockEmployee employee : expected) {
+                assertEquals(Optional.of(employee), repository.findById(employee.getId()));
+                assertEquals(Optional.of(employee), repository.findFirstByName(employee.getName()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBatchesAreSeenAllAtOnce() throws Exception {
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of());
+        List<List<MockEmployee>> batches = new ArrayList<>();
+        for (int b = 0; b < 200; b++) {
+            List<MockEmployee> batch = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                batch.add(employee("Batch " + b + "-" + i));
+            }
+            batches.add(batch);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> reader = executor.submit(() -> {
+                int torn = 0;
+                while (writing.get()) {
+                    for (List<MockEmployee> batch : batches) {
+                        // employees are only ever added and the first of a batch is saved first, so if it's there the
+                        // last one must be too
+                        if (repository.findById(batch.get(0).getId()).isPresent()
+                                && repository.findById(batch.get(49).getId()).isEmpty()) {
+                            torn++;
+                        }
+                    }
+                }
+                return torn;
+            });
+            for (List<MockEmployee> batch : batches) {
+                repository.saveAll(batch);
+            }
+            writing.set(false);
+
+            assertEquals(0, reader.get(30, TimeUnit.SECONDS));
+            assertEquals(200 * 50, repository.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.reliaquest.server.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MockEmployeeStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final MockEmployee alice = new MockEmployee(UUID.randomUUID(), "Alice", 100, 30, "Engineer", "a@x.com");
+    private final MockEmployee bob = new MockEmployee(UUID.randomUUID(), "Bob", null, null, null, "b@x.com");
+    private final MockEmployee carol = new MockEmployee(UUID.randomUUID(), "Carol Ünal", 300, 50, "Lead", null);
+
+    @Test
+    void testNothingToLoadBeforeFirstSave() throws IOException {
+        try (final var store = new MockEmployeeStore(directory)) {
+            assertTrue(store.load().isEmpty());
+        }
+    }
+
+    @Test
+    void testSaveAndLoadRoundTrip() throws IOException {
+        final var saved = new MockEmployeeStore.Contents("e1", 7, List.of(alice, bob, carol));
+        try (final var store = new MockEmployeeStore(directory)) {
+            store.save(saved);
+        }
+
+        try (final var store = new MockEmployeeStore(directory)) {
+            assertEquals(saved, store.load().orElseThrow());
+        }
+    }
+
+    @Test
+    void testJournalIsReplayedAfterRestart() throws IOException {
+        try (final var store = new MockEmployeeStore(directory)) {
+            store.save(new MockEmployeeStore.Contents("e1", 0, List.of(alice, bob)));
+            store.append(new MockEmployeeChange(1, MockEmployeeChange.Type.CREATED, carol));
+            store.append(new MockEmployeeChange(2, MockEmployeeChange.Type.DELETED, alice));
+        }
+
+        try (final var store = new MockEmployeeStore(directory)) {
+            final var loaded = store.load().orElseThrow();
+            assertEquals(new MockEmployeeStore.Contents("e1", 2, List.of(bob, carol)), loaded);
+            // the replayed roster becomes the new snapshot, the journal starts afresh
+            store.save(loaded);
+            assertEquals(0, Files.size(directory.resolve("employees.journal")));
+        }
+
+        try (final var store = new MockEmployeeStore(directory)) {
+            assertEquals(
+                    new MockEmployeeStore.Contents("e1", 2, List.of(bob, carol)),
+                    store.load().orElseThrow());
+        }
+    }
+
+    @Test
+    void testTruncatedLastRecordIsIgnored() throws IOException {
+        try (final var store = new MockEmployeeStore(directory)) {
+            store.save(new MockEmployeeStore.Contents("e1", 0, List.of(alice)));
+            store.append(new MockEmployeeChange(1, MockEmployeeChange.Type.CREATED, bob));
+            store.append(new MockEmployeeChange(2, MockEmployeeChange.Type.CREATED, carol));
+        }
+        final var journal = directory.resolve("employees.journal");
+        try (final var channel = Files.newByteChannel(journal, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        try (final var store = new MockEmployeeStore(directory)) {
+            assertEquals(
+                    new MockEmployeeStore.Contents("e1", 1, List.of(alice, bob)),
+                    store.load().orElseThrow());
+        }
+    }
+
+    @Test
+    void testDamagedRecordEndsTheReplay() throws IOException {
+        try (final var store = new MockEmployeeStore(directory)) {
+            store.save(new MockEmployeeStore.Contents("e1", 0, List.of(alice)));
+            store.append(new MockEmployeeChange(1, MockEmployeeChange.Type.CREATED, bob));
+            store.append(new MockEmployeeChange(2, MockEmployeeChange.Type.CREATED, carol));
+        }
+        final var journal = directory.resolve("employees.journal");
+        final var bytes = Files.readAllBytes(journal);
+        // flip a byte inside the last record's payload, its checksum no longer matches
+        bytes[bytes.length - 3] ^= 0x7f;
+        Files.write(journal, bytes);
+
+        try (final var store = new MockEmployeeStore(directory)) {
+            assertEquals(
+                    new MockEmployeeStore.Contents("e1", 1, List.of(alice, bob)),
+                    store.load().orElseThrow());
+        }
+    }
+
+    @Test
+    void testCrashBetweenSnapshotAndJournalTruncationReplaysNothingTwice() throws IOException {
+        try (final var store = new MockEmployeeStore(directory)) {
+            store.save(new MockEmployeeStore.Contents("e1", 0, List.of(alice)));
+            store.append(new MockEmployeeChange(1, MockEmployeeChange.Type.CREATED, bob));
+            store.append(new MockEmployeeChange(2, MockEmployeeChange.Type.DELETED, alice));
+        }
+        final var journal = directory.resolve("employees.journal");
+        final var oldJournal = directory.resolve("journal.before-save");
+        Files.copy(journal, oldJournal);
+
+        try (final var store = new MockEmployeeStore(directory)) {
+            store.save(store.load().orElseThrow());
+        }
+        // as if the process died after the new snapshot was moved into place, before the journal was truncated
+        Files.move(oldJournal, journal, StandardCopyOption.REPLACE_EXISTING);
+
+        try (final var store = new MockEmployeeStore(directory)) {
+            assertEquals(
+                    new MockEmployeeStore.Contents("e1", 2, List.of(bob)),
+                    store.load().orElseThrow());
+        }
+    }
+
+    @Test
+    void testChangesAfterRestartAreJournaledAfterTheReplayedOnes() throws IOException {
+        try (final var store = new MockEmployeeStore(directory)) {
+            store.save(new MockEmployeeStore.Contents("e1", 0, List.of(alice)));
+            store.append(new MockEmployeeChange(1, MockEmployeeChange.Type.CREATED, bob));
+        }
+        try (final var store = new MockEmployeeStore(directory)) {
+            store.save(store.load().orElseThrow());
+            store.append(new MockEmployeeChange(2, MockEmployeeChange.Type.CREATED, carol));
+        }
+
+        try (final var store = new MockEmployeeStore(directory)) {
+            assertEquals(
+                    new MockEmployeeStore.Contents("e1", 2, List.of(alice, bob, carol)),
+                    store.load().orElseThrow());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.reliaquest.server.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class NameTrigramIndexTest {
+
+    // a small alphabet so names share plenty of trigrams
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(10);
+        for (int i = 0; i < length; i++) {
+            name.append("abAB c".charAt(random.nextInt(6)));
+        }
+        return name.toString();
+    }
+
+    private static List<Long> containing(TreeMap<Long, String> names, String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        return names.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(needle))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static List<Long> live(long[] candidates, TreeMap<Long, String> names, String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<Long> result = new ArrayList<>();
+        for (long position : candidates) {
+            String name = names.get(position);
+            if (name != null && name.contains(needle)) {
+                result.add(position);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void testCandidatesAreAscendingAndIncludeEveryMatch() {
+        NameTrigramIndex index = new NameTrigramIndex();
+        TreeMap<Long, String> names = new TreeMap<>();
+        Random random = new Random(42);
+        long position = 0;
+        // enough deletes to compact the posting lists several times
+        for (int i = 0; i < 20_000; i++) {
+            if (names.isEmpty() || random.nextInt(3) > 0) {
+                String name = randomName(random).toLowerCase(Locale.ROOT);
+                names.put(position, name);
+                index.add(position++, name);
+            } else {
+                Long deleted = names.ceilingKey((long) random.nextInt((int) position));
+                if (deleted == null) {
+                    deleted = names.firstKey();
+                }
+                index.remove(names.remove(deleted), names::containsKey);
+                if (names.isEmpty()) {
+                    continue;
+                }
+            }
+            if (i % 100 == 0) {
+                String query = randomName(random);
+                long[] candidates = index.candidates(query.toLowerCase(Locale.ROOT));
+                if (candidates == null) {
+                    assertTrue(query.length() < 3);
+                    continue;
+                }
+                for (int c = 1; c < candidates.length; c++) {
+                    assertTrue(candidates[c - 1] < candidates[c]);
+                }
+                assertEquals(containing(names, query), live(candidates, names, query), query);
+            }
+        }
+    }
+
+    @Test
+    void testShortQueriesAreNotIndexed() {
+        NameTrigramIndex index = new NameTrigramIndex();
+        index.add(0, "ab");
+
+        assertNull(index.candidates("ab"));
+        assertArrayEquals(new long[0], index.candidates("abc"));
+    }
+
+    @Test
+    void testSearchByNameMatchesContains() {
+        Random random = new Random(7);
+        List<MockEmployee> roster = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            roster.add(MockEmployee.builder()
+                    .id(UUID.randomUUID())
+                    .name(randomName(random))
+                    .build());
+        }
+        MockEmployeeRepository repository = new MockEmployeeRepository(roster);
+        for (int i = 0; i < 1_500; i++) {
+            repository.deleteById(roster.get(random.nextInt(roster.size())).getId());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            String query = randomName(random);
+            String needle = query.toLowerCase(Locale.ROOT);
+            List<MockEmployee> expected = repository.findAll().stream()
+                    .filter(e -> e.getName().toLowerCase(Locale.ROOT).contains(needle))
+                    .toList();
+            assertEquals(expected, repository.searchByName(query), query);
+        }
+    }
+}
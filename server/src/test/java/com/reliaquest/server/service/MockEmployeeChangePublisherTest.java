@@ -0,0 +1,137 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.repository.MockEmployeeRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class MockEmployeeChangePublisherTest {
+
+    private MockEmployeeChangePublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.stop();
+        }
+    }
+
+    /**
+     * An event as the subscriber received it: its name, id and data.
+     */
+    private record Event(String name, String id, Object data) {}
+
+    /**
+     * Records what's sent to it instead of writing it to a response.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            Set<ResponseBodyEmitter.DataWithMediaType> parts = builder.build();
+            StringBuilder text = new StringBuilder();
+            Object data = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : parts) {
+                if (part.getData() instanceof String s) {
+                    text.append(s);
+                } else {
+                    data = part.getData();
+                }
+            }
+            String name = null;
+            String id = null;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("event:")) {
+                    name = line.substring("event:".length());
+                } else if (line.startsWith("id:")) {
+                    id = line.substring("id:".length());
+                }
+            }
+            events.add(new Event(name, id, data));
+        }
+
+        Event next() throws InterruptedException {
+            Event event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "no event sent");
+            return event;
+        }
+    }
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder().id(UUID.randomUUID()).name(name).build();
+    }
+
+    private RecordingEmitter subscribe(MockEmployeeRepository repository, Duration heartbeat, long since) {
+        publisher = new MockEmployeeChangePublisher(repository, heartbeat) {
+            @Override
+            SseEmitter newEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+        publisher.start();
+        return (RecordingEmitter) publisher.subscribe(since);
+    }
+
+    @Test
+    void testChangesAreSentInOrderWithTheirNumbers() throws Exception {
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of());
+        MockEmployee alice = repository.save(employee("Alice"));
+        RecordingEmitter emitter = subscribe(repository, Duration.ofMinutes(1), 0);
+
+        MockEmployee bob = repository.save(employee("Bob"));
+        publisher.changed();
+        repository.deleteById(alice.getId());
+        publisher.changed();
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            events.add(emitter.next());
+        }
+        assertEquals(List.of("1", "2", "3"), events.stream().map(Event::id).toList());
+        events.forEach(event -> assertEquals(MockEmployeeChangePublisher.CHANGE_EVENT, event.name()));
+        MockEmployeeChange last = (MockEmployeeChange) events.get(2).data();
+        assertEquals(MockEmployeeChange.Type.DELETED, last.type());
+        assertEquals(alice, last.employee());
+        assertEquals(bob, ((MockEmployeeChange) events.get(1).data()).employee());
+    }
+
+    @Test
+    void testSubscriberBehindTheLogIsAskedToResync() throws Exception {
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of(), 2);
+        for (int i = 0; i < 5; i++) {
+            repository.save(employee("Employee " + i));
+        }
+
+        RecordingEmitter emitter = subscribe(repository, Duration.ofMinutes(1), 1);
+
+        Event event = emitter.next();
+        assertEquals(MockEmployeeChangePublisher.RESYNC_EVENT, event.name());
+        assertEquals(1L, event.data());
+    }
+
+    @Test
+    void testHeartbeatCarriesPosition() throws Exception {
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of());
+        repository.save(employee("Alice"));
+        RecordingEmitter emitter = subscribe(repository, Duration.ofMillis(20), 0);
+
+        assertEquals("1", emitter.next().id());
+        Event heartbeat = emitter.next();
+        assertEquals(MockEmployeeChangePublisher.HEARTBEAT_EVENT, heartbeat.name());
+        assertEquals(1L, heartbeat.data());
+    }
+}
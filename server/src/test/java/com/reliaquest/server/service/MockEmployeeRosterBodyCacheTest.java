@@ -0,0 +1,79 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.repository.MockEmployeeRepository;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeRosterBodyCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MockEmployeeRosterBodyCache bodyCache = new MockEmployeeRosterBodyCache(objectMapper);
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(1000)
+                .build();
+    }
+
+    private List<String> names(byte[] json) throws Exception {
+        JsonNode data = objectMapper.readTree(json).get("data");
+        return data.findValuesAsText("employee_name");
+    }
+
+    @Test
+    void testBodyIsReusedWhileRosterIsUnchanged() throws Exception {
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of(employee("Alice"), employee("Bob")));
+
+        MockEmployeeRosterBodyCache.RosterBody first = bodyCache.get(repository.findRoster());
+        MockEmployeeRosterBodyCache.RosterBody second = bodyCache.get(repository.findRoster());
+
+        assertSame(first, second);
+        assertEquals(List.of("Alice", "Bob"), names(first.json()));
+        try (GZIPInputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(first.gzipped()))) {
+            assertArrayEquals(first.json(), gunzip.readAllBytes());
+        }
+    }
+
+    @Test
+    void testEveryWriteInvalidatesBody() throws Exception {
+        MockEmployee alice = employee("Alice");
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of(alice));
+        MockEmployeeRosterBodyCache.RosterBody before = bodyCache.get(repository.findRoster());
+
+        repository.save(employee("Bob"));
+        MockEmployeeRosterBodyCache.RosterBody created = bodyCache.get(repository.findRoster());
+        repository.deleteById(alice.getId());
+        MockEmployeeRosterBodyCache.RosterBody deleted = bodyCache.get(repository.findRoster());
+
+        assertNotEquals(before.version(), created.version());
+        assertNotEquals(created.version(), deleted.version());
+        assertEquals(List.of("Alice", "Bob"), names(created.json()));
+        assertEquals(List.of("Bob"), names(deleted.json()));
+        assertSame(deleted, bodyCache.get(repository.findRoster()));
+    }
+
+    @Test
+    void testOlderRosterDoesNotReplaceNewerBody() throws Exception {
+        MockEmployeeRepository repository = new MockEmployeeRepository(List.of(employee("Alice")));
+        MockEmployeeRepository.Roster older = repository.findRoster();
+        repository.save(employee("Bob"));
+        MockEmployeeRepository.Roster newer = repository.findRoster();
+
+        MockEmployeeRosterBodyCache.RosterBody newerBody = bodyCache.get(newer);
+        // a request that read the roster before the write, but got here after
+        MockEmployeeRosterBodyCache.RosterBody olderBody = bodyCache.get(older);
+
+        assertEquals(List.of("Alice"), names(olderBody.json()));
+        assertSame(newerBody, bodyCache.get(newer));
+    }
+}
@@ -0,0 +1,128 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeePage;
+import com.reliaquest.server.repository.MockEmployeeRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class MockEmployeeServiceTest {
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(1000)
+                .build();
+    }
+
+    private static List<MockEmployee> employees(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> employee("Employee " + i))
+                .toList();
+    }
+
+    private static MockEmployeeService service(MockEmployeeRepository repository) {
+        return new MockEmployeeService(
+                new Faker(),
+                repository,
+                new MockEmployeeChangePublisher(repository, Duration.ofSeconds(15)),
+                new MockEmployeeRosterBodyCache(new ObjectMapper()));
+    }
+
+    @Test
+    void testPagesCoverRosterInCreationOrder() {
+        List<MockEmployee> roster = employees(7);
+        MockEmployeeService service = service(new MockEmployeeRepository(roster));
+
+        List<MockEmployee> read = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockEmployeePage page = service.getMockEmployeePage(cursor, 3);
+            read.addAll(page.mockEmployees());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(roster, read);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void testPagingIsStableAcrossCreatesAndDeletes() {
+        List<MockEmployee> roster = employees(6);
+        MockEmployeeRepository repository = new MockEmployeeRepository(roster);
+        MockEmployeeService service = service(repository);
+
+        MockEmployeePage first = service.getMockEmployeePage(null, 2);
+        assertEquals(roster.subList(0, 2), first.mockEmployees());
+
+        // one already read, one not read yet, and one created after the cursor was handed out
+        repository.deleteById(roster.get(0).getId());
+        repository.deleteById(roster.get(3).getId());
+        MockEmployee created = repository.save(employee("Created"));
+
+        MockEmployeePage second = service.getMockEmployeePage(first.nextCursor(), 2);
+        assertEquals(List.of(roster.get(2), roster.get(4)), second.mockEmployees());
+        MockEmployeePage third = service.getMockEmployeePage(second.nextCursor(), 2);
+        assertEquals(List.of(roster.get(5), created), third.mockEmployees());
+        assertNull(third.nextCursor());
+    }
+
+    @Test
+    void testConcurrentWritesNeitherSkipNorRepeatEmployees() {
+        List<MockEmployee> roster = employees(2_000);
+        MockEmployeeRepository repository = new MockEmployeeRepository(roster);
+        MockEmployeeService service = service(repository);
+        AtomicBoolean paging = new AtomicBoolean(true);
+
+        // creates employees and deletes them again, never touching the original roster
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            while (paging.get()) {
+                MockEmployee temporary = repository.save(employee("Temporary"));
+                repository.save(employee("Kept"));
+                repository.deleteById(temporary.getId());
+            }
+        });
+
+        List<MockEmployee> read = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockEmployeePage page = service.getMockEmployeePage(cursor, 7);
+            read.addAll(page.mockEmployees());
+            cursor = page.nextCursor();
+        } while (cursor != null && read.size() < roster.size());
+        paging.set(false);
+        writer.join();
+
+        Set<UUID> seen = new HashSet<>();
+        read.forEach(employee -> assertTrue(seen.add(employee.getId()), "read twice: " + employee));
+        assertEquals(roster, read.subList(0, roster.size()));
+    }
+
+    @Test
+    void testInvalidCursorIsRejected() {
+        MockEmployeeService service = service(new MockEmployeeRepository(employees(1)));
+
+        ResponseStatusException ex =
+                assertThrows(ResponseStatusException.class, () -> service.getMockEmployeePage("not-a-cursor", 10));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        ex = assertThrows(ResponseStatusException.class, () -> service.getMockEmployeePage(null, 0));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+}
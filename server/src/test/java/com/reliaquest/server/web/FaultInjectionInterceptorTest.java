@@ -0,0 +1,68 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FaultInjectionInterceptorTest {
+
+    private static FaultInjectionInterceptor interceptor(
+            FaultInjectionInterceptor.Latency latency, double errorRate, long seed) {
+        return new FaultInjectionInterceptor(
+                latency, Duration.ofMillis(100), Duration.ofMillis(250), errorRate, 503, seed);
+    }
+
+    private static List<FaultInjectionInterceptor.Fault> faults(FaultInjectionInterceptor interceptor, int count) {
+        List<FaultInjectionInterceptor.Fault> faults = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            faults.add(interceptor.nextFault());
+        }
+        return faults;
+    }
+
+    @Test
+    void testSameSeedGivesSameDelaysAndErrors() {
+        List<FaultInjectionInterceptor.Fault> first =
+                faults(interceptor(FaultInjectionInterceptor.Latency.EXPONENTIAL, 0.3, 42), 1_000);
+        List<FaultInjectionInterceptor.Fault> second =
+                faults(interceptor(FaultInjectionInterceptor.Latency.EXPONENTIAL, 0.3, 42), 1_000);
+        List<FaultInjectionInterceptor.Fault> other =
+                faults(interceptor(FaultInjectionInterceptor.Latency.EXPONENTIAL, 0.3, 43), 1_000);
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        long failures =
+                first.stream().filter(FaultInjectionInterceptor.Fault::fail).count();
+        assertTrue(failures > 200 && failures < 400, "failures: " + failures);
+    }
+
+    @Test
+    void testDelaysAreCappedAtLatencyMax() {
+        long maxNanos = Duration.ofMillis(250).toNanos();
+
+        faults(interceptor(FaultInjectionInterceptor.Latency.EXPONENTIAL, 0, 1), 1_000)
+                .forEach(fault -> assertTrue(fault.delayNanos() >= 0 && fault.delayNanos() <= maxNanos));
+        faults(interceptor(FaultInjectionInterceptor.Latency.FIXED, 0, 1), 10)
+                .forEach(fault -> assertEquals(Duration.ofMillis(100).toNanos(), fault.delayNanos()));
+        faults(interceptor(FaultInjectionInterceptor.Latency.NONE, 0, 1), 10)
+                .forEach(fault -> assertEquals(0, fault.delayNanos()));
+    }
+
+    @Test
+    void testFailedRequestIsAnsweredWithErrorStatus() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FaultInjectionInterceptor failing = interceptor(FaultInjectionInterceptor.Latency.NONE, 1, 1);
+        assertFalse(failing.preHandle(new MockHttpServletRequest(), response, null));
+        assertEquals(503, response.getStatus());
+
+        FaultInjectionInterceptor passing = interceptor(FaultInjectionInterceptor.Latency.NONE, 0, 1);
+        assertTrue(passing.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), null));
+        assertFalse(passing.isEnabled());
+    }
+}
@@ -0,0 +1,71 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestLimitInterceptorTest {
+
+    private static MockHttpServletRequest request(String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/employee");
+        request.setRemoteAddr(client);
+        return request;
+    }
+
+    private static String retryAfter(long waitNanos) {
+        RequestLimitInterceptor interceptor = new RequestLimitInterceptor(() -> nowNanos -> waitNanos, false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request("10.0.0.1"), response, null));
+        assertEquals(429, response.getStatus());
+        return response.getHeader(HttpHeaders.RETRY_AFTER);
+    }
+
+    @Test
+    void testRetryAfterIsRoundedUpToWholeSeconds() {
+        assertEquals("1", retryAfter(1));
+        assertEquals("1", retryAfter(TimeUnit.SECONDS.toNanos(1)));
+        assertEquals("2", retryAfter(TimeUnit.SECONDS.toNanos(1) + 1));
+        assertEquals("80", retryAfter(TimeUnit.MILLISECONDS.toNanos(79_001)));
+    }
+
+    @Test
+    void testAllowedRequestsGoAhead() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(RequestLimitInterceptor.unlimited().preHandle(request("10.0.0.1"), response, null));
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testEachClientHasItsOwnBudget() {
+        RequestLimitInterceptor interceptor =
+                new RequestLimitInterceptor(() -> new BurstBackoffRequestLimiter(1, Duration.ofMinutes(1)), true);
+
+        assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), null));
+        assertFalse(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("10.0.0.2"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void testLeastRecentlySeenClientIsForgotten() {
+        RequestLimitInterceptor interceptor =
+                new RequestLimitInterceptor(() -> new BurstBackoffRequestLimiter(1, Duration.ofMinutes(1)), true, 2);
+
+        assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("10.0.0.2"), new MockHttpServletResponse(), null));
+        // seen again, so 10.0.0.2 is now the least recently seen
+        assertFalse(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("10.0.0.3"), new MockHttpServletResponse(), null));
+
+        // 10.0.0.1 kept its spent budget, 10.0.0.2 was forgotten and starts over
+        assertFalse(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("10.0.0.2"), new MockHttpServletResponse(), null));
+    }
+}
@@ -0,0 +1,124 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Drives the limiters with a synthetic clock, times are in milliseconds from an arbitrary start.
+ */
+class RequestLimiterTest {
+
+    private static final long START = 1_000_000_000_000L;
+
+    private static long at(long millis) {
+        return START + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    void testTokenBucketAllowsBurstThenRefillsOneTokenPerInterval() {
+        RequestLimiter limiter = new TokenBucketRequestLimiter(3, Duration.ofSeconds(3));
+
+        assertEquals(0, limiter.acquire(at(0)));
+        assertEquals(0, limiter.acquire(at(0)));
+        assertEquals(0, limiter.acquire(at(0)));
+        assertEquals(millis(1000), limiter.acquire(at(0)));
+        assertEquals(millis(400), limiter.acquire(at(600)));
+        assertEquals(0, limiter.acquire(at(1000)));
+        assertEquals(millis(1000), limiter.acquire(at(1000)));
+        // idle for a long time only fills the bucket up to limit
+        assertEquals(0, limiter.acquire(at(60_000)));
+        assertEquals(0, limiter.acquire(at(60_000)));
+        assertEquals(0, limiter.acquire(at(60_000)));
+        assertTrue(limiter.acquire(at(60_000)) > 0);
+    }
+
+    @Test
+    void testSlidingWindowAllowsLimitInAnyWindow() {
+        RequestLimiter limiter = new SlidingWindowRequestLimiter(2, Duration.ofSeconds(1));
+
+        assertEquals(0, limiter.acquire(at(0)));
+        assertEquals(0, limiter.acquire(at(200)));
+        assertEquals(millis(500), limiter.acquire(at(500)));
+        assertEquals(0, limiter.acquire(at(1000)));
+        // the window now holds the requests at 200 and 1000
+        assertEquals(millis(100), limiter.acquire(at(1100)));
+        assertEquals(0, limiter.acquire(at(1200)));
+        assertEquals(millis(800), limiter.acquire(at(1200)));
+    }
+
+    @Test
+    void testBurstBackoffWaitsForBackoffAfterLastAllowed() {
+        RequestLimiter limiter = new BurstBackoffRequestLimiter(2, Duration.ofSeconds(1));
+
+        assertEquals(0, limiter.acquire(at(0)));
+        assertEquals(0, limiter.acquire(at(300)));
+        assertEquals(millis(1000), limiter.acquire(at(300)));
+        assertEquals(millis(100), limiter.acquire(at(1200)));
+        // after the backoff a new burst starts
+        assertEquals(0, limiter.acquire(at(1300)));
+        assertEquals(0, limiter.acquire(at(1300)));
+        assertEquals(millis(1000), limiter.acquire(at(1300)));
+    }
+
+    @Test
+    void testLimitMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRequestLimiter(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowRequestLimiter(0, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void testConcurrentAcquiresNeverExceedLimit() throws Exception {
+        assertConcurrentAllowed(() -> new TokenBucketRequestLimiter(50, Duration.ofSeconds(1)), 50);
+        assertConcurrentAllowed(() -> new SlidingWindowRequestLimiter(50, Duration.ofSeconds(1)), 50);
+        assertConcurrentAllowed(() -> new BurstBackoffRequestLimiter(50, Duration.ofSeconds(1)), 50);
+    }
+
+    /**
+     * Many threads acquire at the same instant, exactly limit of them must get through.
+     */
+    private static void assertConcurrentAllowed(Supplier<RequestLimiter> limiters, int limit) throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 20; round++) {
+                RequestLimiter limiter = limiters.get();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> allowed = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    allowed.add(executor.submit(() -> {
+                        start.await();
+                        int count = 0;
+                        for (int i = 0; i < limit; i++) {
+                            if (limiter.acquire(at(0)) == 0) {
+                                count++;
+                            }
+                        }
+                        return count;
+                    }));
+                }
+                start.countDown();
+                int total = 0;
+                for (Future<Integer> future : allowed) {
+                    total += future.get(10, TimeUnit.SECONDS);
+                }
+                assertEquals(limit, total, limiter.getClass().getSimpleName());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}